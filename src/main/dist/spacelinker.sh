@@ -0,0 +1,19 @@
+#!/bin/sh
+# Startet SpaceLinker mit dem beim Build (mvn -Pappcds package) trainierten AppCDS-Archiv.
+# Fehlt das Archiv oder passt es nicht zu JDK bzw. Jar, startet die JVM ohne Archiv.
+# Zusätzliche JVM-Optionen über JAVA_OPTS, z. B. JAVA_OPTS="-Xmx256m".
+
+DIR=$(cd "$(dirname "$0")" && pwd)
+JAR="$DIR/@project.build.finalName@.jar"
+ARCHIVE="$DIR/@project.build.finalName@.jsa"
+
+if [ -n "$JAVA_HOME" ]; then
+    JAVA="$JAVA_HOME/bin/java"
+else
+    JAVA=java
+fi
+
+if [ -f "$ARCHIVE" ]; then
+    exec "$JAVA" -XX:SharedArchiveFile="$ARCHIVE" $JAVA_OPTS -jar "$JAR" "$@"
+fi
+exec "$JAVA" $JAVA_OPTS -jar "$JAR" "$@"
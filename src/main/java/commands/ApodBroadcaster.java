@@ -0,0 +1,320 @@
+package commands;
+
+import data.ApodSnapshot;
+import data.Config;
+import data.SubscriptionStore;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.entities.channel.middleman.GuildMessageChannel;
+import net.dv8tion.jda.api.exceptions.ErrorResponseException;
+import net.dv8tion.jda.api.requests.ErrorResponse;
+import net.dv8tion.jda.api.utils.messages.MessageCreateData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Verteilt das NASA-Bild des Tages einmal täglich an alle abonnierten Kanäle.
+ * Kurz nach Mitternacht US-Ostküstenzeit, wenn die NASA die neue APOD veröffentlicht, wird sie genau einmal über den
+ * {@link NasaCommandHandler} geladen, das Bild einmal verkleinert und einmal hochgeladen und die Nachricht über eine
+ * {@link PacedSendQueue} verschickt.
+ * Ist die neue APOD noch nicht da, wird nach {@code broadcast.retry.minutes} erneut gefragt. Ohne Abos gibt es
+ * keinen NASA-Aufruf. Die nächste Prüfung wird auch dann geplant, wenn eine Prüfung mit einer Ausnahme scheitert.
+ */
+public final class ApodBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(ApodBroadcaster.class);
+
+    private final JDA jda;
+    private final NasaCommandHandler handler;
+    private final SubscriptionStore subscriptions;
+    private final PacedSendQueue queue;
+    private final ScheduledExecutorService scheduler;
+    private final Clock clock;
+    private final Duration rolloverDelay;
+    private final Duration retryDelay;
+
+    /**
+     * Erstellt den Verteiler.
+     *
+     * @param jda aktive JDA-Instanz
+     * @param handler lädt die APOD und baut das Embed
+     * @param subscriptions abonnierte Kanäle
+     * @param queue gedrosselte Warteschlange für den Versand
+     * @param scheduler führt die Prüfungen aus
+     * @param clock Uhr für den Datumswechsel
+     * @param rolloverDelay Wartezeit nach Mitternacht, bevor die neue APOD angefragt wird
+     * @param retryDelay Wartezeit bis zum nächsten Versuch, wenn noch keine neue APOD vorliegt
+     */
+    ApodBroadcaster(JDA jda, NasaCommandHandler handler, SubscriptionStore subscriptions, PacedSendQueue queue,
+                    ScheduledExecutorService scheduler, Clock clock, Duration rolloverDelay, Duration retryDelay) {
+        this.jda = jda;
+        this.handler = handler;
+        this.subscriptions = subscriptions;
+        this.queue = queue;
+        this.scheduler = scheduler;
+        this.clock = clock;
+        this.rolloverDelay = rolloverDelay;
+        this.retryDelay = retryDelay;
+    }
+
+    /**
+     * Startet die tägliche Verteilung mit {@code broadcast.rate.per.second} (Standard 20),
+     * {@code broadcast.channel.interval.ms} (1000), {@code broadcast.delay.minutes} (5) und
+     * {@code broadcast.retry.minutes} (15). Eine am aktuellen Tag verpasste Verteilung wird sofort nachgeholt.
+     *
+     * @param jda aktive JDA-Instanz
+     * @param handler lädt die APOD und baut das Embed
+     * @param subscriptions abonnierte Kanäle
+     * @return laufender Verteiler
+     */
+    public static ApodBroadcaster start(JDA jda, NasaCommandHandler handler, SubscriptionStore subscriptions) {
+        PacedSendQueue queue = new PacedSendQueue(
+                Double.parseDouble(Config.get("broadcast.rate.per.second", "20")),
+                Duration.ofMillis(Long.parseLong(Config.get("broadcast.channel.interval.ms", "1000"))));
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "SpaceLinker-ApodBroadcast");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ApodBroadcaster broadcaster = new ApodBroadcaster(jda, handler, subscriptions, queue, scheduler, Clock.systemUTC(),
+                Duration.ofMinutes(Long.parseLong(Config.get("broadcast.delay.minutes", "5"))),
+                Duration.ofMinutes(Long.parseLong(Config.get("broadcast.retry.minutes", "15"))));
+        broadcaster.scheduler.execute(broadcaster::check);
+        return broadcaster;
+    }
+
+    /**
+     * Prüft, ob heute schon verteilt wurde, lädt sonst die APOD und verteilt sie, sobald ihr Datum neu ist.
+     * Abos anderer Prozesse werden vorher aus der Datei nachgeladen.
+     */
+    void check() {
+        try {
+            reloadSubscriptions();
+            String today = LocalDate.now(clock.withZone(ApodSnapshot.NASA_ZONE)).toString();
+            if (subscriptions.channels().isEmpty() || today.equals(subscriptions.lastBroadcastDate())) {
+                scheduleNextRollover();
+                return;
+            }
+            handler.refreshApodAsync().whenComplete((apod, error) -> refreshed(today, apod, error));
+        } catch (RuntimeException e) {
+            log.error("APOD-Prüfung fehlgeschlagen, nächster Versuch in {} min.", retryDelay.toMinutes(), e);
+            schedule(retryDelay);
+        }
+    }
+
+    /**
+     * Verteilt eine neu geladene APOD und plant in jedem Fall die nächste Prüfung: nach dem nächsten Datumswechsel,
+     * wenn die APOD von heute verteilt wurde, sonst nach {@code broadcast.retry.minutes}. Eine ältere, noch nicht
+     * verteilte APOD (etwa nach einem Ausfall) wird nachgeholt, ohne das Warten auf die heutige zu beenden.
+     *
+     * @param today heutiges Datum in US-Ostküstenzeit
+     * @param apod geladene APOD oder {@code null}
+     * @param error Fehler des Ladens oder {@code null}
+     */
+    private void refreshed(String today, ApodSnapshot apod, Throwable error) {
+        boolean distributed = false;
+        try {
+            if (apod == null || apod.date() == null || apod.date().equals(subscriptions.lastBroadcastDate())) {
+                log.info("Noch keine neue APOD, nächster Versuch in {} min.", retryDelay.toMinutes());
+                return;
+            }
+            prepareMedia(apod).thenRun(() -> broadcast(apod)).exceptionally(e -> {
+                log.error("APOD {} konnte nicht verteilt werden", apod.date(), e);
+                return null;
+            });
+            distributed = apod.date().compareTo(today) >= 0;
+            if (!distributed) {
+                log.info("APOD {} nachgeholt, warte auf die APOD vom {}.", apod.date(), today);
+            }
+        } catch (RuntimeException e) {
+            log.error("APOD-Verteilung fehlgeschlagen, nächster Versuch in {} min.", retryDelay.toMinutes(), e);
+        } finally {
+            if (distributed) {
+                scheduleNextRollover();
+            } else {
+                schedule(retryDelay);
+            }
+        }
+    }
+
+    /**
+     * Bereitet das Bild vor; scheitert das, wird ohne Anhang verteilt.
+     *
+     * @param apod neue APOD
+     * @return Future, das nie fehlschlägt
+     */
+    private CompletableFuture<Void> prepareMedia(ApodSnapshot apod) {
+        try {
+            return handler.prepareMediaAsync(apod).exceptionally(e -> null);
+        } catch (RuntimeException e) {
+            log.warn("Bild der APOD {} konnte nicht vorbereitet werden, verteile ohne Anhang", apod.date(), e);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    /**
+     * Lädt die Abos neu; scheitert das, wird mit dem bekannten Stand weitergearbeitet.
+     */
+    private void reloadSubscriptions() {
+        try {
+            subscriptions.reload();
+        } catch (IOException e) {
+            log.warn("Abo-Datei konnte nicht neu gelesen werden: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reiht die APOD für alle abonnierten Kanäle ein. Das verkleinerte Bild wird nur mit der ersten erfolgreich
+     * gesendeten Nachricht hochgeladen; alle weiteren Kanäle verweisen im Embed auf dessen CDN-URL.
+     *
+     * @param apod neue APOD
+     */
+    private void broadcast(ApodSnapshot apod) {
+        try {
+            subscriptions.setLastBroadcastDate(apod.date());
+        } catch (IOException e) {
+            log.error("Datum der APOD-Verteilung konnte nicht gespeichert werden", e);
+        }
+
+        List<Long> channels = subscriptions.channels();
+        AtomicInteger delivered = new AtomicInteger();
+        log.info("Verteile APOD {} an {} Kanäle.", apod.date(), channels.size());
+
+        Iterator<Long> remaining = channels.iterator();
+        upload(apod, remaining, delivered).thenCompose(imageUrl -> {
+            List<CompletableFuture<?>> deliveries = new ArrayList<>();
+            remaining.forEachRemaining(channelId -> deliveries.add(
+                    deliver(channelId, () -> handler.buildBroadcastMessage(apod, imageUrl), delivered)));
+            return CompletableFuture.allOf(deliveries.toArray(CompletableFuture[]::new));
+        }).whenComplete((ignored, error) ->
+                log.info("APOD {} an {} von {} Kanälen verteilt.", apod.date(), delivered.get(), channels.size()));
+    }
+
+    /**
+     * Sendet die Nachricht samt Anhang nacheinander an die nächsten Kanäle, bis ein Versand gelingt.
+     *
+     * @param apod neue APOD
+     * @param channels noch nicht bediente Kanäle; erfolgreich oder erfolglos bediente werden verbraucht
+     * @param delivered Zähler der zugestellten Nachrichten
+     * @return Future mit der Bild-URL aus dem Embed der gesendeten Nachricht oder {@code null}
+     */
+    private CompletableFuture<String> upload(ApodSnapshot apod, Iterator<Long> channels, AtomicInteger delivered) {
+        if (!channels.hasNext()) return CompletableFuture.completedFuture(null);
+
+        long channelId = channels.next();
+        return deliver(channelId, () -> handler.buildBroadcastMessage(apod, null), delivered)
+                .handle((sent, error) -> error == null ? (Message) sent : null)
+                .thenCompose(message -> message == null
+                        ? upload(apod, channels, delivered)
+                        : CompletableFuture.completedFuture(imageUrl(message)));
+    }
+
+    /**
+     * Reiht eine Nachricht für einen Kanal ein und zählt bzw. protokolliert das Ergebnis.
+     *
+     * @param channelId Zielkanal
+     * @param message baut die Nachricht erst beim Versand, weil JDA Anhänge nach dem Senden schließt
+     * @param delivered Zähler der zugestellten Nachrichten
+     * @return Future der gesendeten Nachricht
+     */
+    private CompletableFuture<Object> deliver(long channelId, Supplier<MessageCreateData> message, AtomicInteger delivered) {
+        return queue.enqueue(channelId, () -> send(channelId, message.get()))
+                .whenComplete((sent, error) -> {
+                    if (error == null) {
+                        delivered.incrementAndGet();
+                    } else {
+                        handleFailure(channelId, error);
+                    }
+                });
+    }
+
+    /**
+     * Liefert die Bild-URL aus dem ersten Embed einer gesendeten Nachricht; bei einem Anhang ist das dessen CDN-URL.
+     *
+     * @param message gesendete Nachricht
+     * @return URL oder {@code null}
+     */
+    private static String imageUrl(Message message) {
+        List<MessageEmbed> embeds = message.getEmbeds();
+        MessageEmbed.ImageInfo image = embeds.isEmpty() ? null : embeds.get(0).getImage();
+        return image == null ? null : image.getUrl();
+    }
+
+    /**
+     * Sendet eine Nachricht an einen Kanal.
+     *
+     * @param channelId Zielkanal
+     * @param message fertige Nachricht
+     * @return Future der gesendeten Nachricht
+     */
+    private CompletableFuture<Message> send(long channelId, MessageCreateData message) {
+        GuildMessageChannel channel = jda.getChannelById(GuildMessageChannel.class, channelId);
+        if (channel == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Kanal " + channelId + " ist nicht im Cache"));
+        }
+        return channel.sendMessage(message).submit();
+    }
+
+    /**
+     * Protokolliert einen gescheiterten Versand und beendet das Abo, wenn der Kanal nicht mehr existiert.
+     *
+     * @param channelId Zielkanal
+     * @param error Fehler des Versands
+     */
+    private void handleFailure(long channelId, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof ErrorResponseException response && response.getErrorResponse() == ErrorResponse.UNKNOWN_CHANNEL) {
+            try {
+                subscriptions.remove(channelId);
+                log.info("Kanal {} existiert nicht mehr, Abo entfernt.", channelId);
+            } catch (IOException e) {
+                log.error("Abo für Kanal {} konnte nicht entfernt werden", channelId, e);
+            }
+            return;
+        }
+        log.warn("APOD konnte nicht an Kanal {} gesendet werden: {}", channelId, cause.getMessage());
+    }
+
+    /**
+     * Plant die nächste Prüfung kurz nach dem nächsten Datumswechsel.
+     */
+    private void scheduleNextRollover() {
+        ZonedDateTime now = ZonedDateTime.now(clock.withZone(ApodSnapshot.NASA_ZONE));
+        ZonedDateTime next = now.toLocalDate().plusDays(1).atStartOfDay(ApodSnapshot.NASA_ZONE).plus(rolloverDelay);
+        schedule(Duration.between(now, next));
+    }
+
+    /**
+     * Plant die nächste Prüfung.
+     *
+     * @param delay Wartezeit
+     */
+    private void schedule(Duration delay) {
+        scheduler.schedule(this::check, delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Beendet die tägliche Verteilung.
+     */
+    public void stop() {
+        scheduler.shutdownNow();
+        queue.shutdown();
+    }
+}
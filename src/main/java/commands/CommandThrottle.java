@@ -0,0 +1,102 @@
+package commands;
+
+import data.CommandStageEvent;
+import data.Config;
+import data.SlidingWindowLimiter;
+import net.dv8tion.jda.api.events.GenericEvent;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.hooks.InterfacedEventManager;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * Event-Manager, der Slash-Commands pro Nutzer und pro Server drosselt, bevor ein Listener sie sieht.
+ * Gedrosselte Aufrufe bekommen sofort eine nur für den Aufrufer sichtbare Antwort und lösen keine Upstream-Abfrage
+ * aus. {@code /help} wird nie gedrosselt, Autovervollständigungen laufen ungezählt durch.
+ */
+public class CommandThrottle extends InterfacedEventManager {
+
+    private static final Logger log = LoggerFactory.getLogger(CommandThrottle.class);
+
+    private static final Set<String> EXEMPT = Set.of("help");
+
+    private final SlidingWindowLimiter users;
+    private final SlidingWindowLimiter guilds;
+    private final LongSupplier clock;
+
+    /**
+     * Erstellt den Event-Manager.
+     *
+     * @param users Limit pro Nutzer-ID
+     * @param guilds Limit pro Server-ID; Aufrufe außerhalb von Servern zählen nur pro Nutzer
+     * @param clock Zeitquelle in Millisekunden
+     */
+    CommandThrottle(SlidingWindowLimiter users, SlidingWindowLimiter guilds, LongSupplier clock) {
+        this.users = users;
+        this.guilds = guilds;
+        this.clock = clock;
+    }
+
+    /**
+     * Erstellt den Event-Manager mit {@code throttle.user.limit} Commands (Standard 5) pro
+     * {@code throttle.user.window.seconds} (30) je Nutzer, {@code throttle.guild.limit} (60) pro
+     * {@code throttle.guild.window.seconds} (60) je Server und {@code throttle.capacity} (65536) verfolgten
+     * Nutzern bzw. Servern.
+     *
+     * @return Event-Manager oder {@code null}, wenn {@code throttle.enabled=false}
+     */
+    public static CommandThrottle fromConfig() {
+        if (!Boolean.parseBoolean(Config.get("throttle.enabled", "true"))) {
+            return null;
+        }
+        int capacity = Integer.parseInt(Config.get("throttle.capacity", "65536"));
+        SlidingWindowLimiter users = new SlidingWindowLimiter(
+                Integer.parseInt(Config.get("throttle.user.limit", "5")),
+                Long.parseLong(Config.get("throttle.user.window.seconds", "30")) * 1000, capacity);
+        SlidingWindowLimiter guilds = new SlidingWindowLimiter(
+                Integer.parseInt(Config.get("throttle.guild.limit", "60")),
+                Long.parseLong(Config.get("throttle.guild.window.seconds", "60")) * 1000, capacity);
+        return new CommandThrottle(users, guilds, System::currentTimeMillis);
+    }
+
+    /**
+     * Reicht Events an die Listener weiter, außer gedrosselten Slash-Commands.
+     *
+     * @param event eingehendes JDA-Event
+     */
+    @Override
+    public void handle(@NotNull GenericEvent event) {
+        if (event instanceof SlashCommandInteractionEvent command && !allow(command)) {
+            CommandStageEvent send = CommandStageEvent.begin(command, "throttle");
+            command.reply("⏳ Zu viele Anfragen. Bitte versuche es in ein paar Sekunden erneut.")
+                    .setEphemeral(true).queue(send::succeeded, send::failed);
+            return;
+        }
+        super.handle(event);
+    }
+
+    /**
+     * Prüft die Limits für Nutzer und Server. Wird der Server abgelehnt, bleibt der Aufruf beim Nutzer gezählt.
+     *
+     * @param event Slash-Command-Interaktion
+     * @return {@code true}, wenn der Command ausgeführt werden darf
+     */
+    boolean allow(SlashCommandInteractionEvent event) {
+        if (EXEMPT.contains(event.getName())) return true;
+
+        long now = clock.getAsLong();
+        if (!users.tryAcquire(event.getUser().getIdLong(), now)) {
+            log.debug("Nutzer {} gedrosselt bei /{}", event.getUser().getIdLong(), event.getName());
+            return false;
+        }
+        if (event.getGuild() != null && !guilds.tryAcquire(event.getGuild().getIdLong(), now)) {
+            log.debug("Server {} gedrosselt bei /{}", event.getGuild().getIdLong(), event.getName());
+            return false;
+        }
+        return true;
+    }
+}
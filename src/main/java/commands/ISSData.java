@@ -1,12 +1,21 @@
 package commands;
 
+import data.CommandStageEvent;
+import data.Config;
+import data.IssSnapshot;
+import data.SharedSnapshot;
+import data.Tracing;
+import data.WarmCache;
 import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.MessageEmbed;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Die Klasse {@code ISSData} verarbeitet den Discord-Slash-Befehl "/iss" und liefert aktuelle Informationen
  * zur Position, Geschwindigkeit, Höhe und weiteren Details der Internationalen Raumstation (ISS).
@@ -15,17 +24,38 @@ public class ISSData extends ListenerAdapter {
 
     private static final Logger log = LoggerFactory.getLogger(ISSData.class);
     private static final int MAX_FIELD_VALUE = 1024;
-    private final JSONFetcherIss jsonFetcher;
+    private static final String PENDING = "⏳ wird geladen…";
+    private final long editDelayMillis;
+    private final SharedSnapshot snapshot;
+    private final long snapshotMaxAgeMillis;
+    private final WarmCache cache;
 
     /**
      * Initialisiert den Handler für den Slash-Command {@code /iss}.
      */
     public ISSData() {
-        this.jsonFetcher = new JSONFetcherIss();
+        this(null, null);
     }
 
     /**
-     * Verarbeitet den Slash-Command {@code /iss} und antwortet mit einem Embed der aktuellen ISS-Daten.
+     * Initialisiert den Handler, der ISS-Daten bevorzugt aus dem geteilten Snapshot oder dem Cache liest.
+     *
+     * @param snapshot geteilter Datenstand oder {@code null}, um immer selbst anzufragen
+     * @param cache prozessinterner Cache oder {@code null}
+     */
+    public ISSData(SharedSnapshot snapshot, WarmCache cache) {
+        this.editDelayMillis = Long.parseLong(Config.get("iss.edit.delay.ms", "1000"));
+        this.snapshot = snapshot;
+        this.snapshotMaxAgeMillis = Long.parseLong(Config.get("snapshot.iss.max.age.ms", "30000"));
+        this.cache = cache;
+    }
+
+    /**
+     * Verarbeitet den Slash-Command {@code /iss}.
+     * Sobald die Position bekannt ist, wird das Embed gesendet; Geschwindigkeit, Zeitzone, Land und Ozean
+     * werden parallel nachgeladen und per höchstens zwei Bearbeitungen ergänzt. Liegt ein höchstens
+     * {@code snapshot.iss.max.age.ms} alter geteilter Snapshot oder ein gültiger Cache-Eintrag vor, wird er ohne
+     * Netzwerkaufruf verwendet. Geo-Abfragen für eine bereits bekannte Position kommen aus dem Cache.
      *
      * @param event Slash-Command-Interaktion des Nutzers
      */
@@ -33,55 +63,167 @@ public class ISSData extends ListenerAdapter {
     public void onSlashCommandInteraction(@NotNull SlashCommandInteractionEvent event) {
         if (!event.getName().equals("iss")) return;
 
+        CommandStageEvent defer = CommandStageEvent.begin(event, "defer");
         event.deferReply().queue(hook -> {
-            try {
-                boolean success = jsonFetcher.fetchAllData();
+            defer.end(true);
+
+            IssSnapshot ready = readySnapshot();
+            if (ready != null) {
+                CompletableFuture<Void> done = CompletableFuture.completedFuture(null);
+                Lookups lookups = new Lookups(done, done, done, done);
+                JSONFetcherIss jsonFetcher = JSONFetcherIss.fromSnapshot(ready);
+                new ProgressiveReply(event, hook, () -> buildEmbed(jsonFetcher, lookups)).start(done, editDelayMillis);
+                return;
+            }
+
+            JSONFetcherIss jsonFetcher = new JSONFetcherIss();
+            CommandStageEvent fetch = CommandStageEvent.begin(event, "fetch");
+
+            CompletableFuture<Boolean> location;
+            try (Tracing.Scope scope = Tracing.enter(event)) {
+                location = jsonFetcher.fetchLocationAsync();
+            }
+
+            location.thenAccept(success -> {
+                fetch.end(success);
 
                 if (!success) {
+                    log.error("ISS-Position konnte nicht abgerufen werden.");
                     hook.sendMessage("❌ ISS-Position konnte nicht abgerufen werden. Bitte später erneut versuchen.").queue();
                     return;
                 }
 
-                String country = jsonFetcher.getCountry();
-                String ocean = jsonFetcher.getOcean();
-                String locationText = (country == null || country.equals("??")) ? ocean : country;
-
-                String state = jsonFetcher.getState();
-                String city = jsonFetcher.getCity();
-                String cityStateText = getCityStateText(state, city);
-
-                EmbedBuilder embed = new EmbedBuilder()
-                        .setTitle("📡 Aktuelle ISS-Position 🌍")
-                        .addField("🛰 Breitengrad", safeValue(jsonFetcher.getLatitude()), true)
-                        .addField("🛰 Längengrad", safeValue(jsonFetcher.getLongitude()), true)
-                        .addField("🚀 Geschwindigkeit", formatVelocity(jsonFetcher.getVelocity()), true)
-                        .addField("📏 Höhe", formatAltitude(jsonFetcher.getAltitude()), true)
-                        .addField("📌 Land/Ozean", safeValue(locationText), true)
-                        .addField("⏰ Zeitzone", safeValue(jsonFetcher.getTimezone_id()), true);
-
-                if (!cityStateText.isEmpty()) {
-                    embed.addField("📍 Details", truncate(cityStateText, MAX_FIELD_VALUE), false);
-                }
-
-                String mapUrl = jsonFetcher.getMapUrl();
-                if (mapUrl == null || mapUrl.isEmpty()) {
-                    String lat = jsonFetcher.getLatitude();
-                    String lon = jsonFetcher.getLongitude();
-                    if (lat != null && lon != null) {
-                        mapUrl = "https://www.openstreetmap.org/?mlat=" + lat + "&mlon=" + lon + "#map=5/" + lat + "/" + lon;
+                long fetchedAt = System.currentTimeMillis();
+                try (Tracing.Scope scope = Tracing.enter(event)) {
+                    CommandStageEvent enrich = CommandStageEvent.begin(event, "enrich");
+                    CompletableFuture<Void> done = CompletableFuture.completedFuture(null);
+                    WarmCache.GeoLookup cachedGeo = cache == null ? null : cache.geo(jsonFetcher.getLatitude(), jsonFetcher.getLongitude());
+                    if (cachedGeo != null) {
+                        jsonFetcher.applyGeoLookup(cachedGeo);
                     }
-                }
-                if (mapUrl != null && !mapUrl.isEmpty()) {
-                    embed.addField("🌍 Live-Karte", "[Ansehen](" + mapUrl + ")", false);
-                }
-
-                hook.sendMessageEmbeds(embed.build()).queue();
+                    Lookups lookups = new Lookups(
+                            jsonFetcher.hasSpeedHeight() ? done : jsonFetcher.fetchSpeedHeightAsync(),
+                            cachedGeo != null ? done : jsonFetcher.fetchMapUrlTimeZoneAsync(),
+                            cachedGeo != null ? done : jsonFetcher.fetchCountryAsync(),
+                            cachedGeo != null ? done : jsonFetcher.fetchOceanAsync()
+                    );
+                    CompletableFuture<Void> completion = lookups.all().whenComplete((ignored, error) -> {
+                        enrich.end(error == null);
+                        remember(jsonFetcher, fetchedAt, cachedGeo == null);
+                    });
 
-            } catch (Exception e) {
+                    new ProgressiveReply(event, hook, () -> buildEmbed(jsonFetcher, lookups))
+                            .start(completion, editDelayMillis);
+                }
+            }).exceptionally(e -> {
                 hook.sendMessage("❌ Fehler beim Abrufen der ISS-Daten.").queue();
                 log.error("Fehler beim Abrufen der ISS-Daten", e);
+                return null;
+            });
+        }, defer::failed);
+    }
+
+    /**
+     * Liefert einen ISS-Datenstand, der ohne Netzwerkaufruf verwendet werden kann: zuerst aus dem geteilten Snapshot,
+     * sonst aus dem Cache.
+     *
+     * @return Datenstand oder {@code null}
+     */
+    private IssSnapshot readySnapshot() {
+        IssSnapshot shared = snapshot == null ? null : snapshot.readIss();
+        if (shared != null && System.currentTimeMillis() - shared.fetchedAt() <= snapshotMaxAgeMillis) {
+            return shared;
+        }
+        return cache == null ? null : cache.iss();
+    }
+
+    /**
+     * Legt einen vollständig geladenen Stand im Cache ab; Stände mit gescheiterten Zusatzabfragen werden nicht gecacht.
+     *
+     * @param jsonFetcher Fetcher nach Abschluss aller Abfragen
+     * @param fetchedAt Zeitpunkt, zu dem die Position vorlag
+     * @param geoFetched {@code true}, wenn die Geo-Abfragen frisch angefragt und nicht aus dem Cache kamen
+     */
+    private void remember(JSONFetcherIss jsonFetcher, long fetchedAt, boolean geoFetched) {
+        if (cache == null || !jsonFetcher.isComplete()) return;
+        cache.putIss(jsonFetcher.toSnapshot(fetchedAt));
+        if (geoFetched) {
+            cache.putGeo(jsonFetcher.getLatitude(), jsonFetcher.getLongitude(), jsonFetcher.toGeoLookup(fetchedAt));
+        }
+    }
+
+    /**
+     * Laufende Zusatzabfragen eines {@code /iss}-Commands.
+     *
+     * @param speedHeight Geschwindigkeit und Höhe
+     * @param timezone Zeitzone und Kartenlink
+     * @param country Land, Bundesland und Stadt
+     * @param ocean Ozean
+     */
+    private record Lookups(CompletableFuture<Void> speedHeight, CompletableFuture<Void> timezone,
+                           CompletableFuture<Void> country, CompletableFuture<Void> ocean) {
+
+        /**
+         * Liefert ein Future, das abschließt, sobald alle Zusatzabfragen fertig sind.
+         *
+         * @return kombiniertes Future
+         */
+        CompletableFuture<Void> all() {
+            return CompletableFuture.allOf(speedHeight, timezone, country, ocean);
+        }
+    }
+
+    /**
+     * Baut das Embed aus dem aktuellen Stand der Abfragen; noch offene Felder werden als ladend angezeigt.
+     *
+     * @param jsonFetcher Fetcher mit bekannter Position
+     * @param lookups laufende Zusatzabfragen
+     * @return fertiges Embed
+     */
+    private MessageEmbed buildEmbed(JSONFetcherIss jsonFetcher, Lookups lookups) {
+        boolean speedHeightDone = lookups.speedHeight().isDone();
+        boolean countryDone = lookups.country().isDone();
+
+        String country = jsonFetcher.getCountry();
+        boolean countryKnown = countryDone && country != null && !country.equals("??");
+        String locationText;
+        if (countryKnown) {
+            locationText = country;
+        } else if (countryDone && lookups.ocean().isDone()) {
+            locationText = safeValue(jsonFetcher.getOcean());
+        } else {
+            locationText = PENDING;
+        }
+
+        EmbedBuilder embed = new EmbedBuilder()
+                .setTitle("📡 Aktuelle ISS-Position 🌍")
+                .addField("🛰 Breitengrad", safeValue(jsonFetcher.getLatitude()), true)
+                .addField("🛰 Längengrad", safeValue(jsonFetcher.getLongitude()), true)
+                .addField("🚀 Geschwindigkeit", speedHeightDone ? formatVelocity(jsonFetcher.getVelocity()) : PENDING, true)
+                .addField("📏 Höhe", speedHeightDone ? formatAltitude(jsonFetcher.getAltitude()) : PENDING, true)
+                .addField("📌 Land/Ozean", locationText, true)
+                .addField("⏰ Zeitzone", lookups.timezone().isDone() ? safeValue(jsonFetcher.getTimezone_id()) : PENDING, true);
+
+        if (countryDone) {
+            String cityStateText = getCityStateText(jsonFetcher.getState(), jsonFetcher.getCity());
+            if (!cityStateText.isEmpty()) {
+                embed.addField("📍 Details", truncate(cityStateText, MAX_FIELD_VALUE), false);
             }
-        });
+        }
+
+        String mapUrl = jsonFetcher.getMapUrl();
+        if (mapUrl == null || mapUrl.isEmpty()) {
+            String lat = jsonFetcher.getLatitude();
+            String lon = jsonFetcher.getLongitude();
+            if (lat != null && lon != null) {
+                mapUrl = "https://www.openstreetmap.org/?mlat=" + lat + "&mlon=" + lon + "#map=5/" + lat + "/" + lon;
+            }
+        }
+        if (mapUrl != null && !mapUrl.isEmpty()) {
+            embed.addField("🌍 Live-Karte", "[Ansehen](" + mapUrl + ")", false);
+        }
+
+        return embed.build();
     }
 
     /**
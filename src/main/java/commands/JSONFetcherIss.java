@@ -4,16 +4,25 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import data.Config;
 import data.Http;
+import data.IssSnapshot;
+import data.Tracing;
+import data.WarmCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.net.URI;
 import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Ruft aktuelle Daten zur ISS von verschiedenen APIs ab.
+ * Eine Instanz hält den Zustand genau eines Abrufs und wird pro Command neu erzeugt.
  */
 public class JSONFetcherIss {
 
@@ -22,20 +31,110 @@ public class JSONFetcherIss {
     private static final String NORAD_ID = "25544";
     private static final String DEFAULT_VALUE = "??";
     private static final Duration TIMEOUT = Duration.ofSeconds(20);
+    private static final String OPEN_NOTIFY_URL = "http://api.open-notify.org/iss-now.json";
+    private static final String WHERE_THE_ISS_URL = "https://api.wheretheiss.at/v1/satellites/" + NORAD_ID;
 
-    private String longitude, latitude, timezone_id, country, city, state, mapUrl, ocean;
-    private double velocity, altitude;
+    private volatile String longitude, latitude, timezone_id, country, city, state, mapUrl, ocean;
+    private volatile double velocity, altitude;
+    private volatile boolean lookupFailed;
+    private volatile CompletableFuture<Position> whereTheIss;
     private final String username;
+    private final Duration hedgeDelay;
 
     /**
-     * Initialisiert den ISS-Fetcher mit dem konfigurierten GeoNames-Benutzernamen.
+     * Initialisiert den ISS-Fetcher mit dem konfigurierten GeoNames-Benutzernamen und der Hedge-Verzögerung.
      */
     public JSONFetcherIss() {
-        this.username = Config.get("username", "");
+        this(Config.get("username", ""), Defaults.HEDGE_DELAY);
     }
 
     /**
-     * Lädt alle ISS-Daten in der benötigten Reihenfolge.
+     * Einmal gelesene Konfiguration; erst beim ersten Fetcher mit Standardwerten geladen, nicht schon beim Laden der
+     * Klasse.
+     */
+    private static final class Defaults {
+
+        /** {@code iss.hedge.delay.ms}, Standard 300. */
+        static final Duration HEDGE_DELAY = Duration.ofMillis(Long.parseLong(Config.get("iss.hedge.delay.ms", "300")));
+    }
+
+    /**
+     * Initialisiert den ISS-Fetcher mit festem GeoNames-Benutzernamen und fester Hedge-Verzögerung, z. B. für Tests.
+     *
+     * @param username GeoNames-Benutzername oder leer, um keinen Ozean abzufragen
+     * @param hedgeDelay Wartezeit, bevor wheretheiss.at zusätzlich nach der Position gefragt wird
+     */
+    JSONFetcherIss(String username, Duration hedgeDelay) {
+        this.username = username;
+        this.hedgeDelay = hedgeDelay;
+    }
+
+    /**
+     * Erstellt einen Fetcher, der bereits den Stand eines geteilten Snapshots enthält und nichts mehr abfragen muss.
+     *
+     * @param snapshot veröffentlichter ISS-Datenstand
+     * @return befüllter Fetcher
+     */
+    public static JSONFetcherIss fromSnapshot(IssSnapshot snapshot) {
+        JSONFetcherIss fetcher = new JSONFetcherIss();
+        fetcher.latitude = snapshot.latitude();
+        fetcher.longitude = snapshot.longitude();
+        fetcher.velocity = snapshot.velocity();
+        fetcher.altitude = snapshot.altitude();
+        fetcher.timezone_id = snapshot.timezoneId();
+        fetcher.mapUrl = snapshot.mapUrl();
+        fetcher.country = snapshot.country();
+        fetcher.state = snapshot.state();
+        fetcher.city = snapshot.city();
+        fetcher.ocean = snapshot.ocean();
+        return fetcher;
+    }
+
+    /**
+     * Fasst den aktuell geladenen Stand für den geteilten Snapshot zusammen.
+     *
+     * @param fetchedAt Abrufzeitpunkt in Millisekunden seit der Epoche
+     * @return ISS-Datenstand
+     */
+    public IssSnapshot toSnapshot(long fetchedAt) {
+        return new IssSnapshot(fetchedAt, latitude, longitude, velocity, altitude, timezone_id, mapUrl, country, state, city, ocean);
+    }
+
+    /**
+     * Übernimmt ein gecachtes Ergebnis der Geo-Abfragen; der Kartenlink bleibt leer und wird aus der Position gebildet.
+     *
+     * @param lookup Zeitzone, Land, Staat, Stadt und Ozean
+     */
+    public void applyGeoLookup(WarmCache.GeoLookup lookup) {
+        this.timezone_id = lookup.timezoneId();
+        this.mapUrl = null;
+        this.country = lookup.country();
+        this.state = lookup.state();
+        this.city = lookup.city();
+        this.ocean = lookup.ocean();
+    }
+
+    /**
+     * Fasst die Ergebnisse der Geo-Abfragen für den Cache zusammen.
+     *
+     * @param fetchedAt Abrufzeitpunkt in Millisekunden seit der Epoche
+     * @return Ergebnis der Geo-Abfragen
+     */
+    public WarmCache.GeoLookup toGeoLookup(long fetchedAt) {
+        return new WarmCache.GeoLookup(fetchedAt, timezone_id, country, state, city, ocean);
+    }
+
+    /**
+     * Prüft, ob die Position bekannt ist und keine Zusatzabfrage gescheitert ist, der Stand also gecacht werden darf.
+     *
+     * @return {@code true}, wenn alle geladenen Werte echte Antworten sind
+     */
+    public boolean isComplete() {
+        return latitude != null && longitude != null && !lookupFailed;
+    }
+
+    /**
+     * Lädt alle ISS-Daten: zuerst die Position, danach die übrigen Angaben parallel.
      *
      * @return {@code true}, wenn mindestens die ISS-Koordinaten erfolgreich geladen wurden
      */
@@ -47,158 +146,391 @@ public class JSONFetcherIss {
             return false;
         }
 
-        fetchSpeedHeight();
-        fetchMapUrlTimeZone();
-        fetchCountry();
-        fetchOcean();
+        CompletableFuture.allOf(
+                hasSpeedHeight() ? CompletableFuture.completedFuture(null) : fetchSpeedHeightAsync(),
+                fetchMapUrlTimeZoneAsync(),
+                fetchCountryAsync(),
+                fetchOceanAsync()
+        ).join();
         return true;
     }
 
+    /**
+     * Prüft, ob Geschwindigkeit und Höhe bereits bekannt sind, z. B. weil wheretheiss.at die Position geliefert hat.
+     *
+     * @return {@code true}, wenn kein separater Abruf von Geschwindigkeit und Höhe nötig ist
+     */
+    public boolean hasSpeedHeight() {
+        return velocity > 0 && altitude > 0;
+    }
+
     /**
      * Lädt die aktuelle ISS-Position.
+     * Fragt zuerst open-notify und nach {@code iss.hedge.delay.ms} zusätzlich wheretheiss.at an;
+     * die erste gültige Antwort gewinnt. Liefert wheretheiss.at die Position, werden Geschwindigkeit
+     * und Höhe gleich mit übernommen. Gewinnt open-notify erst nach dem Start von wheretheiss.at, übernimmt
+     * {@link #fetchSpeedHeightAsync()} die bereits laufende Antwort, statt erneut anzufragen.
      */
     public void fetchLocation() {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(new URI("http://api.open-notify.org/iss-now.json"))
-                    .timeout(TIMEOUT)
-                    .GET()
-                    .build();
-
-            HttpResponse<String> response = Http.client().send(request, HttpResponse.BodyHandlers.ofString());
-            JsonObject json = JsonParser.parseString(response.body()).getAsJsonObject();
-            JsonObject data = json.getAsJsonObject("iss_position");
-
-            this.latitude = data.get("latitude").getAsString();
-            this.longitude = data.get("longitude").getAsString();
-
-        } catch (Exception e) {
-            log.error("Fehler beim Abrufen der ISS-Position", e);
-            this.latitude = null;
-            this.longitude = null;
-        }
+        fetchLocationAsync().join();
     }
 
     /**
-     * Lädt Geschwindigkeit und Höhe der ISS.
+     * Lädt die aktuelle ISS-Position asynchron, Verhalten wie {@link #fetchLocation()}.
+     *
+     * @return Future mit {@code true}, wenn eine gültige Position vorliegt; schlägt nie fehl
      */
-    public void fetchSpeedHeight() {
-        if (latitude == null || longitude == null) return;
+    public CompletableFuture<Boolean> fetchLocationAsync() {
+        whereTheIss = null;
+        return firstValid(List.of(
+                Tracing.propagate(() -> fetchPosition(OPEN_NOTIFY_URL, JSONFetcherIss::parseOpenNotify)),
+                Tracing.propagate(() -> {
+                    CompletableFuture<Position> hedge = fetchPosition(WHERE_THE_ISS_URL, JSONFetcherIss::parseWhereTheIss);
+                    whereTheIss = hedge;
+                    return hedge;
+                })
+        ), hedgeDelay).thenApply(position -> {
+            if (position == null) {
+                this.latitude = null;
+                this.longitude = null;
+                this.velocity = 0;
+                this.altitude = 0;
+                return false;
+            }
+
+            this.latitude = position.latitude();
+            this.longitude = position.longitude();
+            this.velocity = position.velocity();
+            this.altitude = position.altitude();
+            return true;
+        });
+    }
+
+    /**
+     * Fragt eine Positionsquelle asynchron ab.
+     *
+     * @param url Endpunkt der Quelle
+     * @param parser wandelt die JSON-Antwort in eine Position um
+     * @return Future mit der Position; schlägt fehl, wenn die Antwort unbrauchbar ist
+     */
+    private CompletableFuture<Position> fetchPosition(String url, Function<JsonObject, Position> parser) {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(Http.uri(url))
+                .timeout(TIMEOUT)
+                .GET()
+                .build();
+
+        return Http.sendAsync(request)
+                .thenApply(response -> {
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException("HTTP " + response.statusCode() + " von " + request.uri().getHost());
+                    }
+                    return parser.apply(JsonParser.parseString(response.body()).getAsJsonObject());
+                })
+                .whenComplete((position, error) -> {
+                    if (error != null) {
+                        log.warn("ISS-Position von {} nicht verfügbar: {}", request.uri().getHost(), error.getMessage());
+                    }
+                });
+    }
+
+    /**
+     * Startet die Quellen gestaffelt und liefert die erste gültige Antwort.
+     * Quelle {@code i + 1} startet nach {@code hedgeDelay} oder sofort, sobald alle bisher gestarteten Quellen
+     * gescheitert sind.
+     *
+     * @param sources Quellen in Prioritätsreihenfolge
+     * @param hedgeDelay Wartezeit, bevor die nächste Quelle zusätzlich angefragt wird
+     * @return Future mit der ersten gültigen Position oder {@code null}, wenn alle Quellen scheitern
+     */
+    static CompletableFuture<Position> firstValid(List<Supplier<CompletableFuture<Position>>> sources, Duration hedgeDelay) {
+        CompletableFuture<Position> result = new CompletableFuture<>();
+        AtomicInteger started = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        Runnable startNext = new Runnable() {
+            @Override
+            public void run() {
+                if (result.isDone()) return;
+
+                int index = started.getAndIncrement();
+                if (index >= sources.size()) return;
+
+                CompletableFuture<Position> attempt;
+                try {
+                    attempt = sources.get(index).get();
+                } catch (RuntimeException e) {
+                    attempt = CompletableFuture.failedFuture(e);
+                }
+
+                attempt.whenComplete((position, error) -> {
+                    if (error == null && position != null) {
+                        result.complete(position);
+                        return;
+                    }
+                    if (failed.incrementAndGet() >= sources.size()) {
+                        result.complete(null);
+                    } else if (failed.get() == started.get()) {
+                        run();
+                    }
+                });
+
+                if (index + 1 < sources.size()) {
+                    CompletableFuture.delayedExecutor(hedgeDelay.toMillis(), TimeUnit.MILLISECONDS).execute(() -> {
+                        if (started.get() == index + 1) run();
+                    });
+                }
+            }
+        };
 
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(new URI("https://api.wheretheiss.at/v1/satellites/" + NORAD_ID))
-                    .timeout(TIMEOUT)
-                    .GET()
-                    .build();
+        startNext.run();
+        return result;
+    }
 
-            HttpResponse<String> response = Http.client().send(request, HttpResponse.BodyHandlers.ofString());
-            JsonObject json = JsonParser.parseString(response.body()).getAsJsonObject();
+    /**
+     * Liest die Position aus der Antwort von open-notify ({@code iss-now.json}).
+     *
+     * @param json Antwort als JSON
+     * @return Position ohne Geschwindigkeit und Höhe
+     */
+    static Position parseOpenNotify(JsonObject json) {
+        JsonObject data = json.getAsJsonObject("iss_position");
+        if (data == null) {
+            throw new IllegalStateException("Antwort ohne iss_position");
+        }
+        return new Position(data.get("latitude").getAsString(), data.get("longitude").getAsString(), 0, 0);
+    }
 
-            this.velocity = json.get("velocity").getAsDouble();
-            this.altitude = json.get("altitude").getAsDouble();
+    /**
+     * Liest Position, Geschwindigkeit und Höhe aus der Antwort von wheretheiss.at ({@code /v1/satellites/25544}).
+     *
+     * @param json Antwort als JSON
+     * @return vollständige Position
+     */
+    static Position parseWhereTheIss(JsonObject json) {
+        if (!json.has("latitude") || !json.has("longitude")) {
+            throw new IllegalStateException("Antwort ohne latitude/longitude");
+        }
+        return new Position(
+                formatCoordinate(json.get("latitude").getAsDouble()),
+                formatCoordinate(json.get("longitude").getAsDouble()),
+                json.has("velocity") ? json.get("velocity").getAsDouble() : 0,
+                json.has("altitude") ? json.get("altitude").getAsDouble() : 0
+        );
+    }
 
-        } catch (Exception e) {
-            log.error("Fehler beim Abrufen der ISS-Geschwindigkeit/Höhe", e);
-            this.velocity = 0;
-            this.altitude = 0;
+    /**
+     * Formatiert eine Koordinate wie open-notify mit vier Nachkommastellen.
+     *
+     * @param value Koordinate in Grad
+     * @return formatierte Koordinate
+     */
+    private static String formatCoordinate(double value) {
+        return String.format(Locale.ROOT, "%.4f", value);
+    }
+
+    /**
+     * ISS-Position einer einzelnen Quelle.
+     *
+     * @param latitude Breitengrad
+     * @param longitude Längengrad
+     * @param velocity Geschwindigkeit in km/h oder 0, wenn die Quelle sie nicht liefert
+     * @param altitude Höhe in km oder 0, wenn die Quelle sie nicht liefert
+     */
+    record Position(String latitude, String longitude, double velocity, double altitude) {
+
+        /**
+         * Prüft, ob die Quelle Geschwindigkeit und Höhe mitgeliefert hat.
+         *
+         * @return {@code true}, wenn beide Werte vorhanden sind
+         */
+        boolean hasSpeedHeight() {
+            return velocity > 0 && altitude > 0;
         }
     }
 
     /**
-     * Lädt Zeitzone und Kartenlink für die aktuelle ISS-Position.
+     * Lädt Geschwindigkeit und Höhe der ISS.
      */
-    public void fetchMapUrlTimeZone() {
-        if (latitude == null || longitude == null) return;
+    public void fetchSpeedHeight() {
+        fetchSpeedHeightAsync().join();
+    }
 
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(new URI("https://api.wheretheiss.at/v1/coordinates/" + this.latitude + "," + this.longitude))
-                    .timeout(TIMEOUT)
-                    .GET()
-                    .build();
+    /**
+     * Lädt Geschwindigkeit und Höhe der ISS asynchron. Wurde wheretheiss.at beim Laden der Position bereits als
+     * Hedge angefragt, wird dessen Antwort übernommen und nur bei einem Fehlschlag erneut angefragt.
+     *
+     * @return Future, das nach dem Setzen der Werte abschließt und nie fehlschlägt
+     */
+    public CompletableFuture<Void> fetchSpeedHeightAsync() {
+        if (latitude == null || longitude == null) return CompletableFuture.completedFuture(null);
+
+        CompletableFuture<Position> hedge = whereTheIss;
+        if (hedge == null) return requestSpeedHeight();
+        return hedge.handle((position, error) -> error == null && position != null && position.hasSpeedHeight() ? position : null)
+                .thenCompose(position -> {
+                    if (position == null) return requestSpeedHeight();
+                    this.velocity = position.velocity();
+                    this.altitude = position.altitude();
+                    return CompletableFuture.completedFuture(null);
+                });
+    }
 
-            HttpResponse<String> response = Http.client().send(request, HttpResponse.BodyHandlers.ofString());
-            JsonObject json = JsonParser.parseString(response.body()).getAsJsonObject();
+    /**
+     * Fragt Geschwindigkeit und Höhe der ISS bei wheretheiss.at an.
+     *
+     * @return Future, das nach dem Setzen der Werte abschließt und nie fehlschlägt
+     */
+    private CompletableFuture<Void> requestSpeedHeight() {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(Http.uri(WHERE_THE_ISS_URL))
+                .timeout(TIMEOUT)
+                .GET()
+                .build();
+
+        return Http.sendAsync(request)
+                .thenAccept(response -> {
+                    JsonObject json = JsonParser.parseString(response.body()).getAsJsonObject();
+
+                    this.velocity = json.get("velocity").getAsDouble();
+                    this.altitude = json.get("altitude").getAsDouble();
+                })
+                .exceptionally(e -> {
+                    log.error("Fehler beim Abrufen der ISS-Geschwindigkeit/Höhe", e);
+                    this.lookupFailed = true;
+                    this.velocity = 0;
+                    this.altitude = 0;
+                    return null;
+                });
+    }
 
-            this.timezone_id = optString(json, "timezone_id", DEFAULT_VALUE);
-            this.mapUrl = optString(json, "map_url", "");
+    /**
+     * Lädt Zeitzone und Kartenlink für die aktuelle ISS-Position.
+     */
+    public void fetchMapUrlTimeZone() {
+        fetchMapUrlTimeZoneAsync().join();
+    }
 
-        } catch (Exception e) {
-            log.error("Fehler beim Abrufen der Zeitzone/Karte", e);
-            this.timezone_id = DEFAULT_VALUE;
-            this.mapUrl = "";
-        }
+    /**
+     * Lädt Zeitzone und Kartenlink für die aktuelle ISS-Position asynchron.
+     *
+     * @return Future, das nach dem Setzen der Werte abschließt und nie fehlschlägt
+     */
+    public CompletableFuture<Void> fetchMapUrlTimeZoneAsync() {
+        if (latitude == null || longitude == null) return CompletableFuture.completedFuture(null);
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(Http.uri("https://api.wheretheiss.at/v1/coordinates/" + this.latitude + "," + this.longitude))
+                .timeout(TIMEOUT)
+                .GET()
+                .build();
+
+        return Http.sendAsync(request)
+                .thenAccept(response -> {
+                    JsonObject json = JsonParser.parseString(response.body()).getAsJsonObject();
+
+                    this.timezone_id = optString(json, "timezone_id", DEFAULT_VALUE);
+                    this.mapUrl = optString(json, "map_url", "");
+                })
+                .exceptionally(e -> {
+                    log.error("Fehler beim Abrufen der Zeitzone/Karte", e);
+                    this.lookupFailed = true;
+                    this.timezone_id = DEFAULT_VALUE;
+                    this.mapUrl = "";
+                    return null;
+                });
     }
 
     /**
      * Ermittelt den Ozean unter der ISS, falls verfügbar.
      */
     public void fetchOcean() {
-        if (latitude == null || longitude == null) return;
+        fetchOceanAsync().join();
+    }
+
+    /**
+     * Ermittelt den Ozean unter der ISS asynchron, falls verfügbar.
+     *
+     * @return Future, das nach dem Setzen des Werts abschließt und nie fehlschlägt
+     */
+    public CompletableFuture<Void> fetchOceanAsync() {
+        if (latitude == null || longitude == null) return CompletableFuture.completedFuture(null);
         if (username == null || username.isBlank()) {
             this.ocean = "GeoNames-Benutzername nicht konfiguriert";
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(new URI("http://api.geonames.org/extendedFindNearbyJSON?lat=" + this.latitude + "&lng=" + this.longitude + "&username=" + this.username))
-                    .timeout(TIMEOUT)
-                    .GET()
-                    .build();
-
-            HttpResponse<String> response = Http.client().send(request, HttpResponse.BodyHandlers.ofString());
-            JsonObject json = JsonParser.parseString(response.body()).getAsJsonObject();
-
-            if (json.has("ocean")) {
-                this.ocean = optString(json.getAsJsonObject("ocean"), "name", DEFAULT_VALUE);
-            } else {
-                this.ocean = "Die ISS ist über einem Land";
-            }
-
-        } catch (Exception e) {
-            log.error("Fehler beim Abrufen der Ozean-Daten", e);
-            this.ocean = DEFAULT_VALUE;
-        }
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(Http.uri("http://api.geonames.org/extendedFindNearbyJSON?lat=" + this.latitude + "&lng=" + this.longitude + "&username=" + this.username))
+                .timeout(TIMEOUT)
+                .GET()
+                .build();
+
+        return Http.sendAsync(request)
+                .thenAccept(response -> {
+                    JsonObject json = JsonParser.parseString(response.body()).getAsJsonObject();
+
+                    if (json.has("ocean")) {
+                        this.ocean = optString(json.getAsJsonObject("ocean"), "name", DEFAULT_VALUE);
+                    } else {
+                        this.ocean = "Die ISS ist über einem Land";
+                    }
+                })
+                .exceptionally(e -> {
+                    log.error("Fehler beim Abrufen der Ozean-Daten", e);
+                    this.lookupFailed = true;
+                    this.ocean = DEFAULT_VALUE;
+                    return null;
+                });
     }
 
     /**
      * Ermittelt Land, Bundesland und Stadt für die aktuelle ISS-Position.
      */
     public void fetchCountry() {
-        if (latitude == null || longitude == null) return;
-
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(new URI("https://nominatim.openstreetmap.org/reverse?lat=" + this.latitude + "&lon=" + this.longitude + "&format=json"))
-                    .header("User-Agent", "SpaceLinker-Discord-Bot/1.0")
-                    .timeout(TIMEOUT)
-                    .GET()
-                    .build();
-
-            HttpResponse<String> response = Http.client().send(request, HttpResponse.BodyHandlers.ofString());
-            JsonObject json = JsonParser.parseString(response.body()).getAsJsonObject();
-
-            if (json.has("address")) {
-                JsonObject address = json.getAsJsonObject("address");
-                this.country = optString(address, "country", DEFAULT_VALUE);
-                this.state = optString(address, "state", DEFAULT_VALUE);
-                this.city = optString(address, "city",
-                        optString(address, "town",
-                                optString(address, "village", DEFAULT_VALUE)));
-            } else {
-                this.country = DEFAULT_VALUE;
-                this.state = DEFAULT_VALUE;
-                this.city = DEFAULT_VALUE;
-            }
+        fetchCountryAsync().join();
+    }
 
-        } catch (Exception e) {
-            log.error("Fehler beim Abrufen der Land-Daten", e);
-            this.country = DEFAULT_VALUE;
-            this.state = DEFAULT_VALUE;
-            this.city = DEFAULT_VALUE;
-        }
+    /**
+     * Ermittelt Land, Bundesland und Stadt für die aktuelle ISS-Position asynchron.
+     *
+     * @return Future, das nach dem Setzen der Werte abschließt und nie fehlschlägt
+     */
+    public CompletableFuture<Void> fetchCountryAsync() {
+        if (latitude == null || longitude == null) return CompletableFuture.completedFuture(null);
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(Http.uri("https://nominatim.openstreetmap.org/reverse?lat=" + this.latitude + "&lon=" + this.longitude + "&format=json"))
+                .header("User-Agent", "SpaceLinker-Discord-Bot/1.0")
+                .timeout(TIMEOUT)
+                .GET()
+                .build();
+
+        return Http.sendAsync(request)
+                .thenAccept(response -> {
+                    JsonObject json = JsonParser.parseString(response.body()).getAsJsonObject();
+
+                    if (json.has("address")) {
+                        JsonObject address = json.getAsJsonObject("address");
+                        this.country = optString(address, "country", DEFAULT_VALUE);
+                        this.state = optString(address, "state", DEFAULT_VALUE);
+                        this.city = optString(address, "city",
+                                optString(address, "town",
+                                        optString(address, "village", DEFAULT_VALUE)));
+                    } else {
+                        this.country = DEFAULT_VALUE;
+                        this.state = DEFAULT_VALUE;
+                        this.city = DEFAULT_VALUE;
+                    }
+                })
+                .exceptionally(e -> {
+                    log.error("Fehler beim Abrufen der Land-Daten", e);
+                    this.lookupFailed = true;
+                    this.country = DEFAULT_VALUE;
+                    this.state = DEFAULT_VALUE;
+                    this.city = DEFAULT_VALUE;
+                    return null;
+                });
     }
 
     /**
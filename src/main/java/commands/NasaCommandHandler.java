@@ -2,15 +2,23 @@ package commands;
 
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import data.ApodMediaCache;
+import data.ApodSnapshot;
+import data.Config;
 import data.Http;
+import data.SharedSnapshot;
+import data.WarmCache;
 import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.utils.FileUpload;
+import net.dv8tion.jda.api.utils.messages.MessageCreateBuilder;
+import net.dv8tion.jda.api.utils.messages.MessageCreateData;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.net.URI;
 import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongSupplier;
 
 /**
  * Zentrale Verarbeitung für NASA Picture of the Day.
@@ -24,93 +32,290 @@ public class NasaCommandHandler {
     private static final Duration TIMEOUT = Duration.ofSeconds(20);
 
     private final String apiKey;
+    private final SharedSnapshot snapshot;
+    private final Duration snapshotMaxAge;
+    private final WarmCache cache;
+    private final ApodMediaCache media;
+    private final Duration timeout;
+    private final LongSupplier clock;
 
     /**
      * Initialisiert den Handler mit dem konfigurierten NASA-API-Key.
      */
     public NasaCommandHandler() {
-        this.apiKey = data.Config.get("apiKeyNasa", "DEMO_KEY");
+        this(null, null);
     }
 
     /**
-     * Erstellt einen Embed für das NASA-Bild (nur Bild + Titel).
+     * Initialisiert den Handler, der APOD-Daten bevorzugt aus dem geteilten Snapshot oder dem Cache liest.
+     *
+     * @param snapshot geteilter Datenstand oder {@code null}, um immer bei der NASA anzufragen
+     * @param cache prozessinterner Cache oder {@code null}
+     */
+    public NasaCommandHandler(SharedSnapshot snapshot, WarmCache cache) {
+        this(snapshot, cache, null);
+    }
+
+    /**
+     * Initialisiert den Handler wie {@link #NasaCommandHandler(SharedSnapshot, WarmCache)} und hängt zusätzlich das
+     * verkleinerte Bild des Tages an, sobald es vorliegt.
+     *
+     * @param snapshot geteilter Datenstand oder {@code null}, um immer bei der NASA anzufragen
+     * @param cache prozessinterner Cache oder {@code null}
+     * @param media Cache für verkleinerte Bilder oder {@code null}, um immer auf das Original zu verlinken
+     */
+    public NasaCommandHandler(SharedSnapshot snapshot, WarmCache cache, ApodMediaCache media) {
+        this(snapshot, cache, media, TIMEOUT, System::currentTimeMillis);
+    }
+
+    /**
+     * Initialisiert den Handler mit eigener Zeitgrenze für NASA-Anfragen und eigener Uhr, z. B. für Tests.
+     *
+     * @param snapshot geteilter Datenstand oder {@code null}, um immer bei der NASA anzufragen
+     * @param cache prozessinterner Cache oder {@code null}
+     * @param media Cache für verkleinerte Bilder oder {@code null}, um immer auf das Original zu verlinken
+     * @param timeout Zeitgrenze einer NASA-Anfrage
+     * @param clock aktuelle Zeit in Millisekunden seit der Epoche, für den Datumswechsel der APOD
+     */
+    NasaCommandHandler(SharedSnapshot snapshot, WarmCache cache, ApodMediaCache media, Duration timeout, LongSupplier clock) {
+        this.apiKey = Config.get("apiKeyNasa", "DEMO_KEY");
+        this.snapshot = snapshot;
+        this.snapshotMaxAge = Duration.ofMinutes(Long.parseLong(Config.get("snapshot.apod.max.age.minutes", "180")));
+        this.cache = cache;
+        this.media = media;
+        this.timeout = timeout;
+        this.clock = clock;
+    }
+
+    /**
+     * Erstellt die Nachricht für {@code /picture} und hängt das verkleinerte Bild an, sobald es vorliegt.
+     * Bis dahin verlinkt das Embed das Original und das Bild wird im Hintergrund vorbereitet.
+     *
+     * @return Future mit der fertigen Nachricht; bei NASA-Fehlern ein Fehler-Embed
+     */
+    public CompletableFuture<MessageCreateData> buildPictureMessageAsync() {
+        return fetchApodDataAsync().thenApply(data -> withMedia(pictureEmbed(data), data));
+    }
+
+    /**
+     * Erstellt die Nachricht für {@code /pictureinfo} wie {@link #buildPictureMessageAsync()}.
+     *
+     * @return Future mit der fertigen Nachricht; bei NASA-Fehlern ein Fehler-Embed
+     */
+    public CompletableFuture<MessageCreateData> buildPictureInfoMessageAsync() {
+        return fetchApodDataAsync().thenApply(data -> withMedia(pictureInfoEmbed(data), data));
+    }
+
+    /**
+     * Baut die Nachricht für die tägliche Verteilung an abonnierte Kanäle: Bild, Titel und Beschreibung mit Datum.
+     * Ohne {@code imageUrl} bekommt die Nachricht einen eigenen Anhang, weil JDA ihn nach dem Senden schließt;
+     * mit {@code imageUrl} verweist das Embed auf ein bereits hochgeladenes Bild und es wird nichts hochgeladen.
+     *
+     * @param apod bereits geladene APOD-Daten
+     * @param imageUrl URL eines bereits hochgeladenen Bildes, z. B. des Anhangs der ersten Nachricht, oder {@code null}
+     * @return fertige Nachricht
+     */
+    public MessageCreateData buildBroadcastMessage(ApodSnapshot apod, String imageUrl) {
+        EmbedBuilder embed = pictureInfoEmbed(apod);
+        if (apod.date() != null) {
+            embed.setFooter("NASA Astronomy Picture of the Day · " + apod.date());
+        }
+        if (imageUrl != null) {
+            return MessageCreateData.fromEmbeds(embed.setImage(imageUrl).build());
+        }
+        return withMedia(embed, apod);
+    }
+
+    /**
+     * Lädt und verkleinert das Bild des Tages, z. B. vor der täglichen Verteilung.
+     *
+     * @param apod APOD-Daten
+     * @return Future, das abschließt, sobald das Bild vorliegt oder nicht geladen werden konnte; schlägt nie fehl
+     */
+    public CompletableFuture<Void> prepareMediaAsync(ApodSnapshot apod) {
+        if (media == null) return CompletableFuture.completedFuture(null);
+        return media.prepare(apod).thenApply(jpeg -> null);
+    }
+
+    /**
+     * Lädt die aktuelle APOD unter Umgehung des Caches, z. B. nach dem Datumswechsel, und legt sie im Cache ab.
+     * Liest ein Prozess den geteilten Snapshot nur mit, kommt die APOD von dort.
+     *
+     * @return Future mit den APOD-Daten oder {@code null} bei Fehlern; schlägt nie fehl
+     */
+    public CompletableFuture<ApodSnapshot> refreshApodAsync() {
+        if (snapshot != null && !snapshot.isPublisher()) {
+            return CompletableFuture.completedFuture(snapshot.readApod());
+        }
+        return fetchApodFromNasaAsync().thenApply(apod -> {
+            if (apod != null && cache != null) cache.putApod(apod);
+            return apod;
+        });
+    }
+
+    /**
+     * Baut die Nachricht aus dem Embed und hängt das verkleinerte Bild an, falls es schon vorliegt.
+     * Sonst wird es für die nächsten Aufrufe im Hintergrund vorbereitet.
+     *
+     * @param embed fertig befülltes Embed
+     * @param data APOD-Daten oder {@code null}
+     * @return Nachricht
      */
-    public EmbedBuilder buildPictureEmbed() {
-        JsonObject data = fetchApodData();
+    private MessageCreateData withMedia(EmbedBuilder embed, ApodSnapshot data) {
+        byte[] jpeg = media == null || data == null ? null : media.cached(data);
+        if (jpeg == null) {
+            if (media != null && data != null) media.prepare(data);
+            return MessageCreateData.fromEmbeds(embed.build());
+        }
+
+        embed.setImage("attachment://" + ApodMediaCache.FILE_NAME);
+        return new MessageCreateBuilder()
+                .setEmbeds(embed.build())
+                .setFiles(FileUpload.fromData(jpeg, ApodMediaCache.FILE_NAME))
+                .build();
+    }
+
+    /**
+     * Baut den Embed für das NASA-Bild (nur Bild + Titel) aus bereits geladenen Daten.
+     *
+     * @param data APOD-Daten oder {@code null}
+     * @return Embed-Builder
+     */
+    private EmbedBuilder pictureEmbed(ApodSnapshot data) {
         if (data == null) {
-            return new EmbedBuilder()
-                    .setTitle("Fehler")
-                    .setDescription("NASA-Daten konnten nicht geladen werden.");
+            return errorEmbed();
         }
 
         EmbedBuilder embed = new EmbedBuilder()
-                .setTitle(truncate(getString(data, "title", "Kein Titel verfügbar"), MAX_EMBED_TITLE));
+                .setTitle(truncate(orDefault(data.title(), "Kein Titel verfügbar"), MAX_EMBED_TITLE), titleLink(data));
 
-        if (isImage(data)) {
-            embed.setImage(getString(data, "url", ""));
+        if (data.isImage()) {
+            embed.setImage(orDefault(data.url(), ""));
         } else {
-            embed.setDescription(truncate("NASA APOD ist heute kein Bild.\n" + getString(data, "url", ""), MAX_EMBED_DESCRIPTION));
+            embed.setImage(link(data.thumbnailUrl()));
+            embed.setDescription(truncate("NASA APOD ist heute kein Bild.\n" + orDefault(data.url(), ""), MAX_EMBED_DESCRIPTION));
         }
 
         return embed;
     }
 
     /**
-     * Erstellt einen Embed für das NASA-Bild mit Beschreibung.
+     * Baut den Embed für das NASA-Bild mit Beschreibung aus bereits geladenen Daten.
+     *
+     * @param data APOD-Daten oder {@code null}
+     * @return Embed-Builder
      */
-    public EmbedBuilder buildPictureInfoEmbed() {
-        JsonObject data = fetchApodData();
+    private EmbedBuilder pictureInfoEmbed(ApodSnapshot data) {
         if (data == null) {
-            return new EmbedBuilder()
-                    .setTitle("Fehler")
-                    .setDescription("NASA-Daten konnten nicht geladen werden.");
+            return errorEmbed();
         }
 
         EmbedBuilder embed = new EmbedBuilder()
-                .setTitle(truncate(getString(data, "title", "Kein Titel verfügbar"), MAX_EMBED_TITLE))
-                .setDescription(truncate(getString(data, "explanation", "Keine Erklärung verfügbar"), MAX_EMBED_DESCRIPTION));
+                .setTitle(truncate(orDefault(data.title(), "Kein Titel verfügbar"), MAX_EMBED_TITLE), titleLink(data))
+                .setDescription(truncate(orDefault(data.explanation(), "Keine Erklärung verfügbar"), MAX_EMBED_DESCRIPTION));
 
-        if (isImage(data)) {
-            embed.setImage(getString(data, "url", ""));
+        if (data.isImage()) {
+            embed.setImage(orDefault(data.url(), ""));
         } else {
-            embed.appendDescription("\n\n" + truncate("NASA APOD ist heute kein Bild.\n" + getString(data, "url", ""), MAX_EMBED_DESCRIPTION / 2));
+            embed.setImage(link(data.thumbnailUrl()));
+            embed.appendDescription("\n\n" + truncate("NASA APOD ist heute kein Bild.\n" + orDefault(data.url(), ""), MAX_EMBED_DESCRIPTION / 2));
         }
 
         return embed;
     }
 
     /**
-     * Lädt die APOD-Antwort der NASA und wandelt sie in ein {@link JsonObject} um.
+     * Baut den Embed, der angezeigt wird, wenn die NASA-Daten nicht geladen werden konnten.
      *
-     * @return APOD-Daten oder {@code null} bei Fehlern
+     * @return Fehler-Embed
      */
-    private JsonObject fetchApodData() {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("https://api.nasa.gov/planetary/apod?api_key=" + apiKey))
-                    .header("accept", "application/json")
-                    .timeout(TIMEOUT)
-                    .build();
+    private EmbedBuilder errorEmbed() {
+        return new EmbedBuilder()
+                .setTitle("Fehler")
+                .setDescription("NASA-Daten konnten nicht geladen werden.");
+    }
 
-            HttpResponse<String> response = Http.client().send(request, HttpResponse.BodyHandlers.ofString());
-            return JsonParser.parseString(response.body()).getAsJsonObject();
+    /**
+     * Liefert die APOD-Daten aus dem geteilten Snapshot, sofern er höchstens {@code snapshot.apod.max.age.minutes}
+     * alt ist, sonst aus dem Cache und zuletzt von der NASA. Snapshot und Cache gelten unabhängig vom Alter als veraltet,
+     * sobald in New York ein neuer Tag begonnen hat und sie noch die APOD eines früheren Tages zeigen.
+     *
+     * @return Future mit den APOD-Daten oder {@code null} bei Fehlern; schlägt nie fehl
+     */
+    CompletableFuture<ApodSnapshot> fetchApodDataAsync() {
+        long now = clock.getAsLong();
+        ApodSnapshot shared = snapshot == null ? null : snapshot.readApod();
+        if (shared != null && now - shared.fetchedAt() <= snapshotMaxAge.toMillis() && !shared.isBeforeRollover(now)) {
+            return CompletableFuture.completedFuture(shared);
+        }
+        if (cache == null) {
+            return fetchApodFromNasaAsync();
+        }
 
-        } catch (Exception e) {
-            log.error("Fehler beim Abrufen der NASA-Daten", e);
-            return null;
+        ApodSnapshot cached = cache.apod();
+        if (cached != null && !cached.isBeforeRollover(now)) {
+            return CompletableFuture.completedFuture(cached);
         }
+        return fetchApodFromNasaAsync().thenApply(apod -> {
+            if (apod != null) cache.putApod(apod);
+            return apod;
+        });
+    }
+
+    /**
+     * Lädt die APOD-Antwort der NASA asynchron über {@link Http#sendAsync}.
+     *
+     * @return Future mit den APOD-Daten oder {@code null} bei Fehlern; schlägt nie fehl
+     */
+    CompletableFuture<ApodSnapshot> fetchApodFromNasaAsync() {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(Http.uri("https://api.nasa.gov/planetary/apod?thumbs=true&api_key=" + apiKey))
+                .header("accept", "application/json")
+                .timeout(timeout)
+                .build();
+
+        return Http.sendAsync(request)
+                .thenApply(response -> {
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException("NASA antwortete mit HTTP " + response.statusCode());
+                    }
+                    return ApodSnapshot.fromJson(JsonParser.parseString(response.body()).getAsJsonObject(), clock.getAsLong());
+                })
+                .exceptionally(e -> {
+                    log.error("Fehler beim Abrufen der NASA-Daten", e);
+                    return null;
+                });
+    }
+
+    /**
+     * Liefert das Ziel des Titel-Links: bei Bildern die volle Auflösung, bei Videos das Video selbst.
+     *
+     * @param data APOD-Daten
+     * @return URL oder {@code null}
+     */
+    static String titleLink(ApodSnapshot data) {
+        return link(data.isImage() && data.hdurl() != null ? data.hdurl() : data.url());
+    }
+
+    /**
+     * Lässt nur absolute HTTP(S)-URLs durch, die Discord in Embeds akzeptiert.
+     *
+     * @param url URL oder {@code null}
+     * @return URL oder {@code null}
+     */
+    private static String link(String url) {
+        return url != null && (url.startsWith("https://") || url.startsWith("http://")) ? url : null;
     }
 
     /**
-     * Liest einen String-Wert aus dem JSON oder liefert einen Fallback zurück.
+     * Liefert einen Fallback für fehlende Werte.
      *
-     * @param obj JSON-Objekt
-     * @param key Schlüssel im JSON
+     * @param value Wert oder {@code null}
      * @param defaultValue Fallback-Wert
-     * @return JSON-Wert oder Fallback
+     * @return Wert oder Fallback
      */
-    private String getString(JsonObject obj, String key, String defaultValue) {
-        return obj.has(key) ? obj.get(key).getAsString() : defaultValue;
+    private String orDefault(String value, String defaultValue) {
+        return value != null ? value : defaultValue;
     }
 
     /**
@@ -120,7 +325,7 @@ public class NasaCommandHandler {
      * @return {@code true}, wenn {@code media_type=image}
      */
     static boolean isImage(JsonObject obj) {
-        return "image".equalsIgnoreCase(obj.has("media_type") ? obj.get("media_type").getAsString() : "image");
+        return ApodSnapshot.fromJson(obj, 0).isImage();
     }
 
     /**
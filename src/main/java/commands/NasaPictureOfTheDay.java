@@ -1,20 +1,57 @@
 package commands;
 
+import data.CommandStageEvent;
+import data.SubscriptionStore;
+import data.Tracing;
+import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import net.dv8tion.jda.api.interactions.commands.OptionMapping;
+import net.dv8tion.jda.api.utils.messages.MessageCreateData;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
 /**
- * Verarbeitet die Slash-Commands /picture und /pictureinfo.
- * Delegiert an den zentralen NasaCommandHandler.
+ * Verarbeitet die Slash-Commands /picture und /pictureinfo sowie das tägliche Abo über {@code /picture abo:…}.
+ * Delegiert an den zentralen NasaCommandHandler und hält während des NASA-Aufrufs keinen Thread.
  */
 public class NasaPictureOfTheDay extends ListenerAdapter {
 
     private static final Logger log = LoggerFactory.getLogger(NasaPictureOfTheDay.class);
 
-    private final NasaCommandHandler handler = new NasaCommandHandler();
+    /** Name der optionalen Option von {@code /picture} für das tägliche Abo. */
+    public static final String SUBSCRIPTION_OPTION = "abo";
+
+    /** Führt Abo-Änderungen aus, die auf die Dateisperre warten und schreiben. */
+    private static final Executor SUBSCRIPTION_IO = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final NasaCommandHandler handler;
+    private final SubscriptionStore subscriptions;
+
+    /**
+     * Initialisiert die Commands ohne geteilten Snapshot, Cache und Abos.
+     */
+    public NasaPictureOfTheDay() {
+        this(new NasaCommandHandler(), null);
+    }
+
+    /**
+     * Initialisiert die Commands mit einem gemeinsam genutzten Handler.
+     *
+     * @param handler lädt die APOD und baut die Embeds
+     * @param subscriptions Abo-Speicher oder {@code null}, wenn Abos nicht angeboten werden
+     */
+    public NasaPictureOfTheDay(NasaCommandHandler handler, SubscriptionStore subscriptions) {
+        this.handler = handler;
+        this.subscriptions = subscriptions;
+    }
 
     /**
      * Verarbeitet die Slash-Commands {@code /picture} und {@code /pictureinfo}.
@@ -26,20 +63,91 @@ public class NasaPictureOfTheDay extends ListenerAdapter {
         String name = event.getName();
         if (!name.equals("picture") && !name.equals("pictureinfo")) return;
 
+        String subscription = event.getOption(SUBSCRIPTION_OPTION, null, OptionMapping::getAsString);
+        if (subscription != null) {
+            handleSubscription(event, subscription);
+            return;
+        }
+
+        CommandStageEvent defer = CommandStageEvent.begin(event, "defer");
         event.deferReply().queue(hook -> {
-            try {
-                switch (name) {
-                    case "picture":
-                        hook.sendMessageEmbeds(handler.buildPictureEmbed().build()).queue();
-                        break;
-                    case "pictureinfo":
-                        hook.sendMessageEmbeds(handler.buildPictureInfoEmbed().build()).queue();
-                        break;
-                }
-            } catch (Exception e) {
-                hook.sendMessage("❌ Fehler beim Abrufen der NASA-Daten. Bitte später erneut versuchen.").queue();
-                log.error("Fehler bei /{} command", name, e);
+            defer.end(true);
+            CommandStageEvent fetch = CommandStageEvent.begin(event, "fetch");
+
+            CompletableFuture<MessageCreateData> reply;
+            try (Tracing.Scope scope = Tracing.enter(event)) {
+                reply = name.equals("picture") ? handler.buildPictureMessageAsync() : handler.buildPictureInfoMessageAsync();
+            }
+
+            reply.whenComplete(fetch::completed)
+                    .thenCompose(message -> {
+                        CommandStageEvent send = CommandStageEvent.begin(event, "send");
+                        return hook.sendMessage(message).submit().whenComplete(send::completed);
+                    })
+                    .whenComplete((sent, error) -> {
+                        if (error != null && reply.isCompletedExceptionally()) {
+                            hook.sendMessage("❌ Fehler beim Abrufen der NASA-Daten. Bitte später erneut versuchen.").queue();
+                            log.error("Fehler bei /{} command", name, error);
+                        }
+                    });
+        }, defer::failed);
+    }
+
+    /**
+     * Abonniert oder beendet die tägliche APOD für den aktuellen Kanal. Antwortet nur für den Aufrufer sichtbar.
+     * Sperre und Dateizugriff des Abo-Speichers laufen nach dem Zurückstellen der Antwort auf einem eigenen Thread,
+     * nicht auf dem Event-Thread von JDA.
+     *
+     * @param event Slash-Command-Interaktion des Nutzers
+     * @param action {@code subscribe} oder {@code unsubscribe}
+     */
+    private void handleSubscription(SlashCommandInteractionEvent event, String action) {
+        CommandStageEvent defer = CommandStageEvent.begin(event, "defer");
+        event.deferReply(true).queue(hook -> {
+            defer.end(true);
+            CompletableFuture.supplyAsync(() -> subscriptionReply(event, action), SUBSCRIPTION_IO)
+                    .thenCompose(text -> {
+                        CommandStageEvent send = CommandStageEvent.begin(event, "send");
+                        return hook.sendMessage(text).submit().whenComplete(send::completed);
+                    })
+                    .whenComplete((sent, error) -> {
+                        if (error != null) log.error("Antwort auf Abo-Aktion {} fehlgeschlagen", action, error);
+                    });
+        }, defer::failed);
+    }
+
+    /**
+     * Führt die Abo-Aktion aus und liefert den Antworttext.
+     *
+     * @param event Slash-Command-Interaktion des Nutzers
+     * @param action {@code subscribe} oder {@code unsubscribe}
+     * @return Antworttext
+     */
+    private String subscriptionReply(SlashCommandInteractionEvent event, String action) {
+        if (subscriptions == null) {
+            return "❌ Abos sind auf diesem Bot nicht aktiviert.";
+        }
+        Member member = event.getMember();
+        if (!event.isFromGuild() || member == null) {
+            return "❌ Abos sind nur in Server-Kanälen möglich.";
+        }
+        if (!member.hasPermission(event.getGuildChannel(), Permission.MANAGE_CHANNEL)) {
+            return "❌ Dafür brauchst du die Berechtigung „Kanäle verwalten“ in diesem Kanal.";
+        }
+
+        long channelId = event.getChannel().getIdLong();
+        try {
+            if (action.equals("unsubscribe")) {
+                return subscriptions.remove(channelId)
+                        ? "✅ Dieser Kanal erhält das NASA-Bild des Tages nicht mehr."
+                        : "ℹ️ Dieser Kanal war nicht abonniert.";
             }
-        });
+            return subscriptions.add(channelId)
+                    ? "✅ Dieser Kanal erhält ab jetzt täglich das NASA-Bild des Tages."
+                    : "ℹ️ Dieser Kanal ist bereits abonniert.";
+        } catch (IOException e) {
+            log.error("Abo für Kanal {} konnte nicht gespeichert werden", channelId, e);
+            return "❌ Das Abo konnte nicht gespeichert werden. Bitte später erneut versuchen.";
+        }
     }
 }
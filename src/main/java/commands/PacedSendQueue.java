@@ -0,0 +1,170 @@
+package commands;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Warteschlange, die Nachrichten an viele Kanäle gleichmäßig verteilt statt alle auf einmal an JDA zu übergeben.
+ * Pro Takt wird höchstens eine Nachricht gestartet, sodass insgesamt nicht mehr als {@code perSecond} Anfragen
+ * pro Sekunde entstehen und Platz für Interaktions-Antworten unter dem globalen Discord-Limit bleibt.
+ * An denselben Kanal geht höchstens alle {@code channelInterval} eine Nachricht; wartende Nachrichten an
+ * andere Kanäle werden solange vorgezogen. Der Takt läuft nur, solange Nachrichten warten.
+ */
+final class PacedSendQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(PacedSendQueue.class);
+
+    private final long channelIntervalNanos;
+    private final long periodNanos;
+    private final ArrayDeque<Delivery> pending = new ArrayDeque<>();
+    private final Map<Long, Long> lastSent = new HashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "SpaceLinker-PacedSend");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** Ob ein Takt geplant ist; geschützt durch {@code pending}. */
+    private boolean ticking;
+    /** Start des letzten Takts; geschützt durch {@code pending}. */
+    private long lastTickNanos;
+
+    /**
+     * Eine wartende Nachricht.
+     *
+     * @param channelId Zielkanal
+     * @param send startet das Senden
+     * @param result schließt mit dem Ergebnis des Sendens ab
+     */
+    private record Delivery(long channelId, Supplier<CompletableFuture<?>> send, CompletableFuture<Object> result) {}
+
+    /**
+     * Erstellt die Warteschlange; der Takt startet mit der ersten Nachricht.
+     *
+     * @param perSecond maximale Nachrichten pro Sekunde über alle Kanäle
+     * @param channelInterval Mindestabstand zwischen zwei Nachrichten an denselben Kanal
+     */
+    PacedSendQueue(double perSecond, Duration channelInterval) {
+        this.channelIntervalNanos = channelInterval.toNanos();
+        this.periodNanos = TimeUnit.MICROSECONDS.toNanos(Math.max(1, Math.round(1_000_000 / perSecond)));
+        this.lastTickNanos = System.nanoTime() - periodNanos;
+    }
+
+    /**
+     * Reiht eine Nachricht ein.
+     *
+     * @param channelId Zielkanal
+     * @param send startet das Senden, z. B. {@code () -> channel.sendMessageEmbeds(embed).submit()}
+     * @return Future mit dem Ergebnis des Sendens
+     */
+    CompletableFuture<Object> enqueue(long channelId, Supplier<CompletableFuture<?>> send) {
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        synchronized (pending) {
+            pending.addLast(new Delivery(channelId, send, result));
+            if (!ticking) {
+                ticking = true;
+                // Auch nach einer Pause nicht schneller als ein Takt pro Periode
+                schedule(Math.max(0, lastTickNanos + periodNanos - System.nanoTime()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Anzahl noch nicht gestarteter Nachrichten.
+     *
+     * @return wartende Nachrichten
+     */
+    int size() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * Prüft, ob gerade ein Takt geplant ist.
+     *
+     * @return {@code true}, solange Nachrichten warten
+     */
+    boolean isTicking() {
+        synchronized (pending) {
+            return ticking;
+        }
+    }
+
+    /**
+     * Plant den nächsten Takt; muss unter der Sperre von {@code pending} aufgerufen werden.
+     *
+     * @param delayNanos Wartezeit
+     */
+    private void schedule(long delayNanos) {
+        try {
+            scheduler.schedule(this::sendNext, delayNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            ticking = false;
+        }
+    }
+
+    /**
+     * Startet die älteste Nachricht, deren Kanal wieder senden darf, und plant den nächsten Takt, solange noch
+     * Nachrichten warten.
+     */
+    private void sendNext() {
+        Delivery next = null;
+        long now = System.nanoTime();
+        synchronized (pending) {
+            lastTickNanos = now;
+            Iterator<Delivery> iterator = pending.iterator();
+            while (iterator.hasNext()) {
+                Delivery candidate = iterator.next();
+                Long last = lastSent.get(candidate.channelId());
+                if (last == null || now - last >= channelIntervalNanos) {
+                    iterator.remove();
+                    lastSent.put(candidate.channelId(), now);
+                    next = candidate;
+                    break;
+                }
+            }
+            if (pending.isEmpty()) {
+                lastSent.values().removeIf(last -> now - last >= channelIntervalNanos);
+                ticking = false;
+            } else {
+                schedule(periodNanos);
+            }
+        }
+        if (next == null) return;
+
+        Delivery delivery = next;
+        try {
+            delivery.send().get().whenComplete((value, error) -> {
+                if (error != null) {
+                    delivery.result().completeExceptionally(error);
+                } else {
+                    delivery.result().complete(value);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("Nachricht an Kanal {} konnte nicht gestartet werden: {}", delivery.channelId(), e.getMessage());
+            delivery.result().completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Beendet den Takt; wartende Nachrichten werden verworfen.
+     */
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
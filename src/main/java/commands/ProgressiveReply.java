@@ -0,0 +1,89 @@
+package commands;
+
+import data.CommandStageEvent;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.interactions.InteractionHook;
+import net.dv8tion.jda.api.interactions.commands.CommandInteraction;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Sendet eine Antwort sofort und ergänzt sie, während weitere Daten eintreffen.
+ * Pro Antwort gibt es höchstens zwei Bearbeitungen: eine Zwischenstand-Bearbeitung nach einer Wartezeit,
+ * falls dann noch nicht alles da ist, und eine abschließende. Unveränderte Embeds werden nicht erneut gesendet.
+ * Alle Nachrichten laufen nacheinander, damit eine ältere Bearbeitung nie eine neuere überschreibt.
+ */
+final class ProgressiveReply {
+
+    private final CommandInteraction interaction;
+    private final InteractionHook hook;
+    private final Supplier<MessageEmbed> renderer;
+
+    private CompletableFuture<?> last = CompletableFuture.completedFuture(null);
+    private MessageEmbed lastSent;
+    private boolean intermediateDone;
+    private boolean finished;
+
+    /**
+     * Erstellt die Antwort.
+     *
+     * @param interaction zugehörige Interaktion, für das Tracing
+     * @param hook Hook der bereits zurückgestellten Antwort
+     * @param renderer baut das Embed aus dem jeweils aktuellen Datenstand
+     */
+    ProgressiveReply(CommandInteraction interaction, InteractionHook hook, Supplier<MessageEmbed> renderer) {
+        this.interaction = interaction;
+        this.hook = hook;
+        this.renderer = renderer;
+    }
+
+    /**
+     * Sendet den aktuellen Stand und plant die Bearbeitungen.
+     *
+     * @param completion schließt ab, sobald alle Daten vorliegen
+     * @param editDelayMillis Wartezeit bis zur Zwischenstand-Bearbeitung
+     */
+    synchronized void start(CompletableFuture<?> completion, long editDelayMillis) {
+        MessageEmbed initial = renderer.get();
+        lastSent = initial;
+        CommandStageEvent send = CommandStageEvent.begin(interaction, "send");
+        last = hook.sendMessageEmbeds(initial).submit().whenComplete(send::completed);
+
+        CompletableFuture.delayedExecutor(editDelayMillis, TimeUnit.MILLISECONDS).execute(this::intermediate);
+        completion.whenComplete((ignored, error) -> finish());
+    }
+
+    /**
+     * Sendet den Zwischenstand, sofern noch nicht alles eingetroffen ist.
+     */
+    private synchronized void intermediate() {
+        if (finished || intermediateDone) return;
+        intermediateDone = true;
+        edit();
+    }
+
+    /**
+     * Sendet den Endstand.
+     */
+    private synchronized void finish() {
+        if (finished) return;
+        finished = true;
+        edit();
+    }
+
+    /**
+     * Hängt eine Bearbeitung an die Kette an, falls sich das Embed seit der letzten Nachricht geändert hat.
+     */
+    private void edit() {
+        MessageEmbed embed = renderer.get();
+        if (embed.equals(lastSent)) return;
+        lastSent = embed;
+
+        last = last.handle((ignored, error) -> null).thenCompose(ignored -> {
+            CommandStageEvent stage = CommandStageEvent.begin(interaction, "edit");
+            return hook.editOriginalEmbeds(embed).submit().whenComplete(stage::completed);
+        });
+    }
+}
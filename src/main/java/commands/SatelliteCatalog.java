@@ -0,0 +1,301 @@
+package commands;
+
+import data.Config;
+import data.Http;
+import data.Tle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bahndaten aller aktiven Satelliten von CelesTrak. Der ganze Katalog kommt mit einer einzigen Anfrage und wird alle
+ * {@code sat.tle.refresh.hours} Stunden erneuert; Positionen werden daraus lokal berechnet, sodass ein {@code /sat}
+ * keinen Netzwerkaufruf auslöst, egal wie viele Satelliten gerade gefragt sind. Der letzte Download liegt unter
+ * {@code sat.tle.path}, damit Neustarts CelesTrak nicht erneut abfragen.
+ */
+public final class SatelliteCatalog {
+
+    private static final Logger log = LoggerFactory.getLogger(SatelliteCatalog.class);
+
+    private static final String CELESTRAK_URL = "https://celestrak.org/NORAD/elements/gp.php?GROUP=active&FORMAT=tle";
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+    /** Vorschläge für eine leere Eingabe: ISS, Tiangong, Hubble. */
+    private static final List<Integer> FEATURED = List.of(25544, 48274, 20580);
+
+    /** Gebräuchliche Namen, die nicht im CelesTrak-Namen stehen. */
+    private static final Map<String, Integer> ALIASES = Map.of(
+            "iss", 25544,
+            "tiangong", 48274,
+            "css", 48274,
+            "hubble", 20580);
+
+    private final Path path;
+    private final Duration refreshInterval;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "SpaceLinker-SatelliteCatalog");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile Entries entries = new Entries(List.of(), new String[0], Map.of(), Map.of(), SatelliteIndex.build(List.of()));
+
+    /**
+     * Unveränderlicher Stand des Katalogs.
+     *
+     * @param all alle Datensätze
+     * @param names kleingeschriebene Namen, parallel zu {@code all}
+     * @param byId Datensätze nach NORAD-Nummer
+     * @param byName Datensätze nach kleingeschriebenem Namen, bei Gleichstand der mit der kleinsten NORAD-Nummer
+     * @param index Präfix-Index für die Autovervollständigung
+     */
+    private record Entries(List<Tle> all, String[] names, Map<Integer, Tle> byId, Map<String, Tle> byName,
+                           SatelliteIndex index) {}
+
+    /**
+     * Erstellt einen leeren Katalog.
+     *
+     * @param path Datei für den letzten Download oder {@code null}
+     * @param refreshInterval Abstand zwischen zwei Downloads
+     */
+    SatelliteCatalog(Path path, Duration refreshInterval) {
+        this.path = path;
+        this.refreshInterval = refreshInterval;
+    }
+
+    /**
+     * Lädt den Katalog aus {@code sat.tle.path} (Standard {@code spacelinker-tle.txt}) und holt ihn bei CelesTrak,
+     * wenn die Datei fehlt oder älter als {@code sat.tle.refresh.hours} (Standard 6) ist. Danach wird im selben
+     * Abstand erneuert.
+     *
+     * @return laufender Katalog
+     */
+    public static SatelliteCatalog start() {
+        SatelliteCatalog catalog = new SatelliteCatalog(Path.of(Config.get("sat.tle.path", "spacelinker-tle.txt")),
+                Duration.ofHours(Long.parseLong(Config.get("sat.tle.refresh.hours", "6"))));
+
+        long ageMillis = catalog.loadFile();
+        long delayMillis = Math.max(0, catalog.refreshInterval.toMillis() - ageMillis);
+        catalog.scheduler.scheduleWithFixedDelay(() -> catalog.refreshAsync().join(), delayMillis,
+                catalog.refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+        return catalog;
+    }
+
+    /**
+     * Liest den letzten Download von der Platte.
+     *
+     * @return Alter der Datei in Millisekunden oder {@link Long#MAX_VALUE}, wenn es keine brauchbare Datei gibt
+     */
+    private long loadFile() {
+        if (path == null) return Long.MAX_VALUE;
+        try {
+            long modified = Files.getLastModifiedTime(path).toMillis();
+            int count = replace(Files.readString(path));
+            log.info("{} Satelliten aus {} geladen.", count, path);
+            return count == 0 ? Long.MAX_VALUE : System.currentTimeMillis() - modified;
+        } catch (NoSuchFileException e) {
+            return Long.MAX_VALUE;
+        } catch (IOException e) {
+            log.warn("Satellitenkatalog {} konnte nicht gelesen werden: {}", path, e.getMessage());
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Lädt den Katalog bei CelesTrak und legt ihn auf der Platte ab.
+     *
+     * @return Future mit {@code true}, wenn der Katalog erneuert wurde; schlägt nie fehl
+     */
+    CompletableFuture<Boolean> refreshAsync() {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(Http.uri(CELESTRAK_URL))
+                .timeout(TIMEOUT)
+                .build();
+
+        return Http.sendAsync(request)
+                .thenApply(response -> {
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException("CelesTrak antwortete mit HTTP " + response.statusCode());
+                    }
+                    int count = replace(response.body());
+                    if (count == 0) {
+                        throw new IllegalStateException("CelesTrak lieferte keine Bahndaten");
+                    }
+                    save(response.body());
+                    log.info("{} Satelliten von CelesTrak geladen.", count);
+                    return true;
+                })
+                .exceptionally(e -> {
+                    log.error("Satellitenkatalog konnte nicht geladen werden", e);
+                    return false;
+                });
+    }
+
+    /**
+     * Ersetzt den Katalog durch die Datensätze eines TLE-Textes. Ein leerer Text lässt den alten Stand bestehen.
+     *
+     * @param text TLE-Text im Drei-Zeilen-Format
+     * @return Anzahl der gelesenen Datensätze
+     */
+    int replace(String text) {
+        List<Tle> all = Tle.parseAll(text);
+        if (all.isEmpty()) return 0;
+
+        String[] names = new String[all.size()];
+        Map<Integer, Tle> byId = new HashMap<>();
+        Map<String, Tle> byName = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            Tle tle = all.get(i);
+            names[i] = tle.name().toLowerCase(Locale.ROOT);
+            byId.putIfAbsent(tle.noradId(), tle);
+            byName.merge(names[i], tle, SatelliteCatalog::better);
+        }
+        entries = new Entries(List.copyOf(all), names, Map.copyOf(byId), Map.copyOf(byName), SatelliteIndex.build(all));
+        return all.size();
+    }
+
+    /**
+     * Schreibt den Download über eine temporäre Datei atomar auf die Platte. Jeder Aufruf nutzt eine eigene
+     * temporäre Datei, da mehrere Prozesse denselben {@code sat.tle.path} teilen können.
+     *
+     * @param text TLE-Text
+     */
+    private void save(String text) {
+        if (path == null) return;
+        try {
+            Path absolute = path.toAbsolutePath();
+            Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName() + ".", ".tmp");
+            try {
+                Files.writeString(temp, text);
+                Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            log.warn("Satellitenkatalog konnte nicht gespeichert werden: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Sucht einen Satelliten: zuerst über die NORAD-Nummer, dann über bekannte Kurznamen, den exakten Namen,
+     * den Namensanfang und zuletzt einen Namensteil. Gibt es mehrere Treffer, gewinnt der kürzeste Name. Namensanfang
+     * und Namensteil werden in einem Durchlauf über die vorab kleingeschriebenen Namen gesucht.
+     *
+     * @param query Name oder NORAD-Nummer
+     * @return Datensatz oder {@code null}
+     */
+    public Tle resolve(String query) {
+        String trimmed = query == null ? "" : query.trim();
+        if (trimmed.isEmpty()) return null;
+
+        Entries current = entries;
+        if (trimmed.chars().allMatch(Character::isDigit) && trimmed.length() <= 9) {
+            return current.byId().get(Integer.parseInt(trimmed));
+        }
+
+        String lower = trimmed.toLowerCase(Locale.ROOT);
+        Integer alias = ALIASES.get(lower);
+        if (alias != null && current.byId().containsKey(alias)) {
+            return current.byId().get(alias);
+        }
+
+        Tle exact = current.byName().get(lower);
+        if (exact != null) return exact;
+
+        Tle prefix = null;
+        Tle part = null;
+        String[] names = current.names();
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].startsWith(lower)) {
+                prefix = better(prefix, current.all().get(i));
+            } else if (prefix == null && names[i].contains(lower)) {
+                part = better(part, current.all().get(i));
+            }
+        }
+        return prefix != null ? prefix : part;
+    }
+
+    /**
+     * Liefert den Treffer mit dem kürzeren Namen, bei Gleichstand den mit der kleineren NORAD-Nummer.
+     *
+     * @param current bisheriger Treffer oder {@code null}
+     * @param candidate neuer Treffer
+     * @return besserer Treffer
+     */
+    private static Tle better(Tle current, Tle candidate) {
+        if (current == null) return candidate;
+        int byLength = Integer.compare(candidate.name().length(), current.name().length());
+        if (byLength != 0) return byLength < 0 ? candidate : current;
+        return candidate.noradId() < current.noradId() ? candidate : current;
+    }
+
+    /**
+     * Schlägt Satelliten für die Autovervollständigung vor, ohne Netzwerkaufruf und ohne den Katalog zu durchlaufen.
+     * Für eine leere Eingabe kommen bekannte Satelliten, für einen Kurznamen wie {@code hubble} dessen Satellit zuerst.
+     *
+     * @param prefix bisherige Eingabe des Nutzers
+     * @param limit maximale Anzahl Vorschläge
+     * @return Vorschläge
+     */
+    public List<Tle> complete(String prefix, int limit) {
+        Entries current = entries;
+        String lower = prefix == null ? "" : prefix.trim().toLowerCase(Locale.ROOT);
+        if (lower.isEmpty()) {
+            return FEATURED.stream().map(current.byId()::get).filter(Objects::nonNull).limit(limit).toList();
+        }
+
+        Tle alias = ALIASES.entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith(lower))
+                .map(entry -> current.byId().get(entry.getValue()))
+                .filter(Objects::nonNull)
+                .findFirst().orElse(null);
+        List<Tle> matches = current.index().search(lower, limit);
+        if (alias == null || matches.contains(alias)) return matches;
+
+        List<Tle> result = new ArrayList<>(limit);
+        result.add(alias);
+        matches.stream().limit(limit - 1).forEach(result::add);
+        return result;
+    }
+
+    /**
+     * Prüft, ob schon Bahndaten vorliegen.
+     *
+     * @return {@code true}, wenn der Katalog nicht leer ist
+     */
+    public boolean isLoaded() {
+        return !entries.all().isEmpty();
+    }
+
+    /**
+     * Anzahl der Satelliten im Katalog.
+     *
+     * @return Anzahl der Datensätze
+     */
+    public int size() {
+        return entries.all().size();
+    }
+
+    /**
+     * Beendet die periodische Erneuerung.
+     */
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+}
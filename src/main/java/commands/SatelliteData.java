@@ -0,0 +1,142 @@
+package commands;
+
+import data.CommandStageEvent;
+import data.SatellitePosition;
+import data.Tle;
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import net.dv8tion.jda.api.interactions.commands.Command;
+import net.dv8tion.jda.api.interactions.commands.OptionMapping;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Verarbeitet den Slash-Command {@code /sat} und zeigt die aktuelle Position eines beliebigen Satelliten aus dem
+ * {@link SatelliteCatalog}. Die Position wird lokal aus den Bahndaten berechnet, deshalb wird ohne
+ * {@code deferReply} sofort geantwortet. Die Autovervollständigung der Option {@code satellit} sucht im
+ * Präfix-Index des Katalogs.
+ */
+public class SatelliteData extends ListenerAdapter {
+
+    /** Name der Option von {@code /sat} für Name oder NORAD-Nummer. */
+    public static final String SATELLITE_OPTION = "satellit";
+
+    /** Höchstzahl an Vorschlägen, die Discord annimmt. */
+    private static final int MAX_CHOICES = 25;
+    private static final int MAX_CHOICE_NAME = 100;
+
+    private final SatelliteCatalog catalog;
+
+    /**
+     * Initialisiert den Handler für den Slash-Command {@code /sat}.
+     *
+     * @param catalog Bahndaten aller aktiven Satelliten
+     */
+    public SatelliteData(SatelliteCatalog catalog) {
+        this.catalog = catalog;
+    }
+
+    /**
+     * Verarbeitet den Slash-Command {@code /sat}. Fehlermeldungen sind nur für den Aufrufer sichtbar.
+     *
+     * @param event Slash-Command-Interaktion des Nutzers
+     */
+    @Override
+    public void onSlashCommandInteraction(@NotNull SlashCommandInteractionEvent event) {
+        if (!event.getName().equals("sat")) return;
+
+        String query = event.getOption(SATELLITE_OPTION, "", OptionMapping::getAsString);
+        CommandStageEvent send = CommandStageEvent.begin(event, "send");
+
+        if (!catalog.isLoaded()) {
+            event.reply("❌ Die Satellitendaten werden noch geladen. Bitte gleich erneut versuchen.")
+                    .setEphemeral(true).queue(send::succeeded, send::failed);
+            return;
+        }
+
+        Tle tle = catalog.resolve(query);
+        if (tle == null) {
+            event.reply("❌ Kein Satellit zu „" + query + "“ gefunden. Versuche einen Namen wie `Hubble` oder eine NORAD-Nummer wie `25544`.")
+                    .setEphemeral(true).queue(send::succeeded, send::failed);
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        event.replyEmbeds(buildEmbed(tle, tle.propagate(now), now)).queue(send::succeeded, send::failed);
+    }
+
+    /**
+     * Schlägt passende Satelliten vor, während der Nutzer die Option {@code satellit} tippt. Als Wert wird die
+     * NORAD-Nummer übergeben, damit {@code /sat} genau den gewählten Satelliten findet.
+     *
+     * @param event Autovervollständigungs-Interaktion des Nutzers
+     */
+    @Override
+    public void onCommandAutoCompleteInteraction(@NotNull CommandAutoCompleteInteractionEvent event) {
+        if (!event.getName().equals("sat") || !event.getFocusedOption().getName().equals(SATELLITE_OPTION)) return;
+
+        event.replyChoices(choices(catalog.complete(event.getFocusedOption().getValue(), MAX_CHOICES))).queue();
+    }
+
+    /**
+     * Wandelt Vorschläge in Discord-Auswahlwerte um.
+     *
+     * @param matches vorgeschlagene Satelliten
+     * @return Auswahlwerte mit Name und NORAD-Nummer
+     */
+    static List<Command.Choice> choices(List<Tle> matches) {
+        return matches.stream()
+                .map(tle -> {
+                    String id = Integer.toString(tle.noradId());
+                    String suffix = " · " + id;
+                    String name = tle.name().length() + suffix.length() > MAX_CHOICE_NAME
+                            ? tle.name().substring(0, MAX_CHOICE_NAME - suffix.length())
+                            : tle.name();
+                    return new Command.Choice(name + suffix, id);
+                })
+                .toList();
+    }
+
+    /**
+     * Baut das Embed für eine berechnete Position.
+     *
+     * @param tle Bahndaten des Satelliten
+     * @param position berechnete Position
+     * @param now Zeitpunkt der Berechnung in Millisekunden seit der Epoche
+     * @return fertiges Embed
+     */
+    static MessageEmbed buildEmbed(Tle tle, SatellitePosition position, long now) {
+        String lat = String.format(Locale.ROOT, "%.4f", position.latitude());
+        String lon = String.format(Locale.ROOT, "%.4f", position.longitude());
+        String mapUrl = "https://www.openstreetmap.org/?mlat=" + lat + "&mlon=" + lon + "#map=4/" + lat + "/" + lon;
+
+        return new EmbedBuilder()
+                .setTitle("📡 Aktuelle Position: " + tle.name() + " 🌍")
+                .addField("🛰 Breitengrad", lat, true)
+                .addField("🛰 Längengrad", lon, true)
+                .addField("🔢 NORAD-Nummer", Integer.toString(tle.noradId()), true)
+                .addField("🚀 Geschwindigkeit", String.format("%.3f km/h", position.velocity()), true)
+                .addField("📏 Höhe", String.format("%.3f km", position.altitude()), true)
+                .addField("📅 Bahndaten", formatAge(Duration.ofMillis(now - tle.epochMillis())), true)
+                .addField("🌍 Live-Karte", "[Ansehen](" + mapUrl + ")", false)
+                .build();
+    }
+
+    /**
+     * Formatiert das Alter der Bahndaten; je älter, desto ungenauer die berechnete Position.
+     *
+     * @param age Abstand zwischen Epoche und jetzt
+     * @return Anzeigetext
+     */
+    private static String formatAge(Duration age) {
+        if (age.isNegative() || age.toHours() < 1) return "aktuell";
+        if (age.toDays() < 1) return "vor " + age.toHours() + " h";
+        return "vor " + age.toDays() + " Tag(en)";
+    }
+}
@@ -0,0 +1,131 @@
+package commands;
+
+import data.Tle;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Präfix-Index über die Satellitennamen für die Autovervollständigung von {@code /sat}. Die Schlüssel liegen
+ * sortiert in Arrays; eine Suche ist eine binäre Suche nach dem ersten passenden Schlüssel und ein kurzer Lauf
+ * über die folgenden, also unabhängig von der Kataloggröße im Mikrosekundenbereich.
+ * Treffer am Namensanfang kommen vor Treffern an einem späteren Wortanfang (z. B. {@code tianhe} in
+ * {@code CSS (TIANHE)}) und vor NORAD-Nummern.
+ */
+final class SatelliteIndex {
+
+    private final String[] nameKeys;
+    private final Tle[] nameTargets;
+    private final String[] wordKeys;
+    private final Tle[] wordTargets;
+
+    /**
+     * Erstellt den Index aus bereits sortierten Schlüsseln.
+     */
+    private SatelliteIndex(String[] nameKeys, Tle[] nameTargets, String[] wordKeys, Tle[] wordTargets) {
+        this.nameKeys = nameKeys;
+        this.nameTargets = nameTargets;
+        this.wordKeys = wordKeys;
+        this.wordTargets = wordTargets;
+    }
+
+    /**
+     * Baut den Index über alle Namen, alle späteren Wortanfänge der Namen und die NORAD-Nummern.
+     *
+     * @param all Datensätze des Katalogs
+     * @return Index
+     */
+    static SatelliteIndex build(List<Tle> all) {
+        List<Map.Entry<String, Tle>> names = new ArrayList<>(all.size());
+        List<Map.Entry<String, Tle>> words = new ArrayList<>(all.size() * 2);
+        for (Tle tle : all) {
+            String name = normalize(tle.name());
+            names.add(Map.entry(name, tle));
+            for (int i = 1; i < name.length(); i++) {
+                if (!Character.isLetterOrDigit(name.charAt(i - 1)) && Character.isLetterOrDigit(name.charAt(i))) {
+                    words.add(Map.entry(name.substring(i), tle));
+                }
+            }
+            words.add(Map.entry(Integer.toString(tle.noradId()), tle));
+        }
+
+        Comparator<Map.Entry<String, Tle>> order = Map.Entry.<String, Tle>comparingByKey()
+                .thenComparingInt(entry -> entry.getValue().noradId());
+        names.sort(order);
+        words.sort(order);
+        return new SatelliteIndex(keys(names), targets(names), keys(words), targets(words));
+    }
+
+    /**
+     * Sucht Satelliten, deren Name, ein Wort im Namen oder deren NORAD-Nummer mit der Eingabe beginnt.
+     *
+     * @param prefix Eingabe des Nutzers
+     * @param limit maximale Anzahl Treffer
+     * @return Treffer ohne Duplikate, Namensanfänge zuerst
+     */
+    List<Tle> search(String prefix, int limit) {
+        String key = normalize(prefix);
+        Map<Integer, Tle> result = new LinkedHashMap<>();
+        collect(nameKeys, nameTargets, key, limit, result);
+        collect(wordKeys, wordTargets, key, limit, result);
+        return List.copyOf(result.values());
+    }
+
+    /**
+     * Übernimmt Treffer aus einem sortierten Schlüssel-Array, bis das Limit erreicht ist.
+     */
+    private static void collect(String[] keys, Tle[] targets, String prefix, int limit, Map<Integer, Tle> result) {
+        for (int i = lowerBound(keys, prefix); i < keys.length && result.size() < limit && keys[i].startsWith(prefix); i++) {
+            result.putIfAbsent(targets[i].noradId(), targets[i]);
+        }
+    }
+
+    /**
+     * Binäre Suche nach dem ersten Schlüssel, der nicht kleiner als {@code prefix} ist.
+     *
+     * @param keys sortierte Schlüssel
+     * @param prefix gesuchter Präfix
+     * @return Index des ersten Kandidaten
+     */
+    private static int lowerBound(String[] keys, String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Vereinheitlicht Namen und Eingaben für den Vergleich.
+     *
+     * @param text Name oder Eingabe
+     * @return kleingeschriebener, getrimmter Text
+     */
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Liefert die Schlüssel sortierter Einträge.
+     */
+    private static String[] keys(List<Map.Entry<String, Tle>> entries) {
+        return entries.stream().map(Map.Entry::getKey).toArray(String[]::new);
+    }
+
+    /**
+     * Liefert die Datensätze sortierter Einträge.
+     */
+    private static Tle[] targets(List<Map.Entry<String, Tle>> entries) {
+        return entries.stream().map(Map.Entry::getValue).toArray(Tle[]::new);
+    }
+}
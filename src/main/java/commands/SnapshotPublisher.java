@@ -0,0 +1,142 @@
+package commands;
+
+import data.ApodSnapshot;
+import data.Config;
+import data.SharedSnapshot;
+import data.WarmCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Fragt im Publisher-Prozess ISS- und APOD-Daten periodisch ab und veröffentlicht sie im {@link SharedSnapshot}.
+ * Die ISS-Position wird alle {@code snapshot.iss.interval.ms} Millisekunden, die APOD alle
+ * {@code snapshot.apod.interval.minutes} Minuten aktualisiert. Zeitzone, Land und Ozean fragt der Publisher nur alle
+ * {@code snapshot.geo.interval.seconds} Sekunden neu an, damit Nominatim und das Tageskontingent von GeoNames
+ * nicht mit jeder Positionsabfrage belastet werden; dazwischen trägt er das letzte Ergebnis weiter.
+ */
+public final class SnapshotPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotPublisher.class);
+
+    private final SharedSnapshot snapshot;
+    private final NasaCommandHandler nasa;
+    private final Supplier<JSONFetcherIss> fetchers;
+    private final long geoIntervalMillis;
+    private final LongSupplier clock;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "SpaceLinker-SnapshotPublisher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private WarmCache.GeoLookup lastGeo;
+    private long nextGeoRefresh;
+
+    /**
+     * Erstellt den Publisher.
+     *
+     * @param snapshot schreibbarer geteilter Datenstand
+     * @param nasa Handler für die APOD-Abfrage
+     * @param fetchers liefert pro Abfrage einen neuen ISS-Fetcher
+     * @param geoIntervalMillis Mindestabstand zwischen zwei Geo-Abfragen
+     * @param clock aktuelle Zeit in Millisekunden seit der Epoche
+     */
+    SnapshotPublisher(SharedSnapshot snapshot, NasaCommandHandler nasa, Supplier<JSONFetcherIss> fetchers,
+                      long geoIntervalMillis, LongSupplier clock) {
+        this.snapshot = snapshot;
+        this.nasa = nasa;
+        this.fetchers = fetchers;
+        this.geoIntervalMillis = geoIntervalMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Startet die periodischen Abfragen.
+     *
+     * @param snapshot schreibbarer geteilter Datenstand
+     * @return laufender Publisher
+     */
+    public static SnapshotPublisher start(SharedSnapshot snapshot) {
+        long issInterval = Long.parseLong(Config.get("snapshot.iss.interval.ms", "10000"));
+        long geoInterval = Long.parseLong(Config.get("snapshot.geo.interval.seconds", "120"));
+        long apodInterval = Long.parseLong(Config.get("snapshot.apod.interval.minutes", "60"));
+        SnapshotPublisher publisher = new SnapshotPublisher(snapshot, new NasaCommandHandler(), JSONFetcherIss::new,
+                TimeUnit.SECONDS.toMillis(geoInterval), System::currentTimeMillis);
+        publisher.scheduler.scheduleWithFixedDelay(publisher::publishIss, 0, issInterval, TimeUnit.MILLISECONDS);
+        publisher.scheduler.scheduleWithFixedDelay(publisher::publishApod, 0, apodInterval, TimeUnit.MINUTES);
+        log.info("Snapshot-Publisher gestartet (ISS alle {} ms, Geo alle {} s, APOD alle {} min).",
+                issInterval, geoInterval, apodInterval);
+        return publisher;
+    }
+
+    /**
+     * Lädt Position, Geschwindigkeit und Höhe der ISS und veröffentlicht sie, wenn die Position bekannt ist.
+     * Die Geo-Abfragen laufen nur, wenn seit dem letzten Versuch {@code snapshot.geo.interval.seconds} vergangen
+     * sind, auch wenn er gescheitert ist; sonst wird das letzte vollständige Ergebnis übernommen und der Kartenlink
+     * aus der Position gebildet. Gibt es noch gar kein vollständiges Ergebnis, wird bei jedem Durchlauf erneut
+     * gefragt, damit der Snapshot nicht ein ganzes Intervall ohne Land, Ozean und Zeitzone bleibt. Scheitert eine
+     * spätere Abfrage, bleibt das letzte vollständige Ergebnis im Snapshot.
+     */
+    synchronized void publishIss() {
+        try {
+            JSONFetcherIss fetcher = fetchers.get();
+            if (!fetcher.fetchLocationAsync().join()) {
+                log.warn("ISS-Position für den Snapshot nicht verfügbar.");
+                return;
+            }
+
+            long now = clock.getAsLong();
+            boolean refreshGeo = lastGeo == null || now >= nextGeoRefresh;
+            if (refreshGeo) {
+                nextGeoRefresh = now + geoIntervalMillis;
+            } else {
+                fetcher.applyGeoLookup(lastGeo);
+            }
+
+            CompletableFuture<Void> done = CompletableFuture.completedFuture(null);
+            CompletableFuture.allOf(
+                    fetcher.hasSpeedHeight() ? done : fetcher.fetchSpeedHeightAsync(),
+                    refreshGeo ? fetcher.fetchMapUrlTimeZoneAsync() : done,
+                    refreshGeo ? fetcher.fetchCountryAsync() : done,
+                    refreshGeo ? fetcher.fetchOceanAsync() : done
+            ).join();
+
+            if (refreshGeo && fetcher.isComplete()) {
+                lastGeo = fetcher.toGeoLookup(now);
+            } else if (refreshGeo && lastGeo != null) {
+                fetcher.applyGeoLookup(lastGeo);
+            }
+            snapshot.publishIss(fetcher.toSnapshot(now));
+        } catch (RuntimeException e) {
+            log.error("ISS-Snapshot konnte nicht aktualisiert werden", e);
+        }
+    }
+
+    /**
+     * Lädt die APOD der NASA und veröffentlicht sie.
+     */
+    private void publishApod() {
+        try {
+            ApodSnapshot apod = nasa.fetchApodFromNasaAsync().join();
+            if (apod != null) {
+                snapshot.publishApod(apod);
+            }
+        } catch (RuntimeException e) {
+            log.error("APOD-Snapshot konnte nicht aktualisiert werden", e);
+        }
+    }
+
+    /**
+     * Beendet die periodischen Abfragen.
+     */
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,351 @@
+package data;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Verkleinerte Fassung des APOD-Bildes bzw. des Video-Vorschaubildes, einmal pro Tag geladen und auf der Platte
+ * abgelegt. Der Bot hängt sie an seine Antworten an, statt Discord-Clients das oft mehrere MB große Original laden zu
+ * lassen. Geschrieben und gelesen wird über {@link FileChannel}; im Speicher liegt nur die Fassung des aktuellen Tages.
+ * Innerhalb eines Prozesses wird das Bild nur einmal geladen. Mehrere Prozesse mit demselben Verzeichnis übernehmen ein
+ * bereits abgelegtes Bild; laden sie gleichzeitig, schreibt jeder in eine eigene temporäre Datei und das zuletzt
+ * verschobene, inhaltlich gleiche Bild bleibt liegen.
+ */
+public final class ApodMediaCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ApodMediaCache.class);
+
+    /** Dateiname des Anhangs, auf den das Embed mit {@code attachment://} verweist. */
+    public static final String FILE_NAME = "apod.jpg";
+
+    private static final Pattern DATE = Pattern.compile("\\d{4}-\\d{2}-\\d{2}");
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration RETRY_DELAY = Duration.ofMinutes(5);
+
+    private final Path dir;
+    private final int maxWidth;
+    private final float quality;
+    private final Map<String, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+    private volatile Image current;
+
+    /**
+     * Verkleinertes Bild eines Tages.
+     *
+     * @param date APOD-Datum
+     * @param jpeg JPEG-Daten
+     */
+    private record Image(String date, byte[] jpeg) {}
+
+    /**
+     * Erstellt den Cache.
+     *
+     * @param dir Verzeichnis für die verkleinerten Bilder
+     * @param maxWidth maximale Breite in Pixeln
+     * @param quality JPEG-Qualität zwischen 0 und 1
+     */
+    public ApodMediaCache(Path dir, int maxWidth, float quality) {
+        this.dir = dir;
+        this.maxWidth = maxWidth;
+        this.quality = quality;
+    }
+
+    /**
+     * Erstellt den Cache mit {@code apod.media.dir} (Standard {@code spacelinker-media}),
+     * {@code apod.media.max.width} (1280) und {@code apod.media.quality} (0.85).
+     *
+     * @return Cache oder {@code null}, wenn {@code apod.media.enabled=false}
+     */
+    public static ApodMediaCache fromConfig() {
+        if (!Boolean.parseBoolean(Config.get("apod.media.enabled", "true"))) {
+            return null;
+        }
+        return new ApodMediaCache(Path.of(Config.get("apod.media.dir", "spacelinker-media")),
+                Integer.parseInt(Config.get("apod.media.max.width", "1280")),
+                Float.parseFloat(Config.get("apod.media.quality", "0.85")));
+    }
+
+    /**
+     * Liefert das verkleinerte Bild, falls es schon im Speicher oder auf der Platte liegt. Lädt nichts herunter.
+     *
+     * @param apod APOD-Datensatz
+     * @return JPEG-Daten oder {@code null}
+     */
+    public byte[] cached(ApodSnapshot apod) {
+        String date = key(apod);
+        if (date == null) return null;
+
+        Image image = current;
+        if (image != null && image.date().equals(date)) {
+            return image.jpeg();
+        }
+        try {
+            byte[] jpeg = read(file(date));
+            current = new Image(date, jpeg);
+            return jpeg;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.warn("Verkleinertes APOD-Bild {} konnte nicht gelesen werden: {}", date, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Lädt das Bild des Tages einmal herunter, verkleinert es und legt es ab. Gleichzeitige Aufrufe für denselben
+     * Tag teilen sich einen Download; nach einem Fehler wird frühestens nach fünf Minuten erneut geladen.
+     *
+     * @param apod APOD-Datensatz
+     * @return Future mit den JPEG-Daten oder {@code null}, wenn es kein Bild gibt oder es nicht geladen werden konnte;
+     *         schlägt nie fehl
+     */
+    public CompletableFuture<byte[]> prepare(ApodSnapshot apod) {
+        String date = key(apod);
+        String source = sourceUrl(apod);
+        if (date == null || source == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        byte[] existing = cached(apod);
+        if (existing != null) {
+            return CompletableFuture.completedFuture(existing);
+        }
+
+        CompletableFuture<byte[]> download = inFlight.computeIfAbsent(date, ignored -> download(date, source));
+        return download.exceptionally(e -> null);
+    }
+
+    /**
+     * Startet Download, Verkleinerung und Ablage.
+     *
+     * @param date APOD-Datum
+     * @param source Bildquelle
+     * @return Future mit den JPEG-Daten
+     */
+    private CompletableFuture<byte[]> download(String date, String source) {
+        CompletableFuture<byte[]> result;
+        try {
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(Http.uri(source))
+                    .timeout(TIMEOUT)
+                    .build();
+            result = fetch(date, request);
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+
+        CompletableFuture<byte[]> download = result;
+        download.whenComplete((jpeg, error) -> {
+            if (error == null) {
+                inFlight.remove(date, download);
+                return;
+            }
+            log.warn("APOD-Bild {} konnte nicht geladen werden: {}", date, error.getMessage());
+            CompletableFuture.delayedExecutor(RETRY_DELAY.toMillis(), TimeUnit.MILLISECONDS)
+                    .execute(() -> inFlight.remove(date, download));
+        });
+        return download;
+    }
+
+    /**
+     * Lädt das Bild, verkleinert es und legt es ab.
+     *
+     * @param date APOD-Datum
+     * @param request Anfrage an die Bildquelle
+     * @return Future mit den JPEG-Daten
+     */
+    private CompletableFuture<byte[]> fetch(String date, HttpRequest request) {
+        return Http.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException("Bildquelle antwortete mit HTTP " + response.statusCode());
+                    }
+                    try {
+                        byte[] jpeg = downscale(response.body(), maxWidth, quality);
+                        store(date, jpeg);
+                        log.info("APOD-Bild {} von {} auf {} KB verkleinert.", date, response.body().length / 1024, jpeg.length / 1024);
+                        return jpeg;
+                    } catch (IOException e) {
+                        throw new IllegalStateException("APOD-Bild konnte nicht verarbeitet werden", e);
+                    }
+                });
+    }
+
+    /**
+     * Wählt die Bildquelle: bei Bildern {@code url}, die für die Verkleinerung reicht und deutlich kleiner als
+     * {@code hdurl} ist, bei Videos das Vorschaubild.
+     *
+     * @param apod APOD-Datensatz
+     * @return absolute HTTP(S)-URL oder {@code null}, wenn es nichts zu laden gibt oder die URL ungültig ist
+     */
+    static String sourceUrl(ApodSnapshot apod) {
+        if (apod == null) return null;
+        String url = apod.isImage() ? (apod.url() != null ? apod.url() : apod.hdurl()) : apod.thumbnailUrl();
+        if (url == null) return null;
+        try {
+            URI uri = new URI(url);
+            boolean http = "http".equalsIgnoreCase(uri.getScheme()) || "https".equalsIgnoreCase(uri.getScheme());
+            return http && uri.getHost() != null ? url : null;
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Verkleinert ein Bild auf höchstens {@code maxWidth} Pixel Breite und kodiert es als JPEG. Sehr große Bilder
+     * werden schon beim Dekodieren unterabgetastet, damit nie das volle Original im Speicher liegt.
+     *
+     * @param original Bilddaten in einem von ImageIO lesbaren Format
+     * @param maxWidth maximale Breite in Pixeln
+     * @param quality JPEG-Qualität zwischen 0 und 1
+     * @return JPEG-Daten
+     * @throws IOException wenn das Bild nicht gelesen werden kann
+     */
+    static byte[] downscale(byte[] original, int maxWidth, float quality) throws IOException {
+        BufferedImage decoded;
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(original))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IOException("Unbekanntes Bildformat");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, reader.getWidth(0) / (2 * maxWidth));
+                param.setSourceSubsampling(step, step, 0, 0);
+                decoded = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+
+        int width = Math.min(maxWidth, decoded.getWidth());
+        int height = Math.max(1, Math.round(decoded.getHeight() * (width / (float) decoded.getWidth())));
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(decoded, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(scaled, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Legt das Bild ab und entfernt die Bilder älterer Tage.
+     *
+     * @param date APOD-Datum
+     * @param jpeg JPEG-Daten
+     * @throws IOException bei Schreibfehlern
+     */
+    private void store(String date, byte[] jpeg) throws IOException {
+        Files.createDirectories(dir);
+        Path target = file(date);
+        // Eigener Name pro Aufruf, damit gleichzeitig schreibende Prozesse sich nicht gegenseitig die Datei kürzen
+        Path temp = Files.createTempFile(dir, target.getFileName() + ".", ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(jpeg);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        current = new Image(date, jpeg);
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "apod-*.jpg")) {
+            for (Path file : files) {
+                if (!file.equals(target)) Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Liest eine Datei vollständig über einen {@link FileChannel}.
+     *
+     * @param file Quelldatei
+     * @return Inhalt
+     * @throws IOException bei Lesefehlern
+     */
+    private static byte[] read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(channel.size()));
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // liest bis zum Ende
+            }
+            return buffer.array();
+        }
+    }
+
+    /**
+     * Liefert den Dateipfad für ein APOD-Datum.
+     *
+     * @param date APOD-Datum
+     * @return Pfad im Cache-Verzeichnis
+     */
+    private Path file(String date) {
+        return dir.resolve("apod-" + date + ".jpg");
+    }
+
+    /**
+     * Liefert das Datum als Cache-Schlüssel, sofern es wie {@code yyyy-MM-dd} aussieht.
+     *
+     * @param apod APOD-Datensatz
+     * @return Datum oder {@code null}
+     */
+    private static String key(ApodSnapshot apod) {
+        return apod != null && apod.date() != null && DATE.matcher(apod.date()).matches() ? apod.date() : null;
+    }
+}
@@ -0,0 +1,88 @@
+package data;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+
+/**
+ * NASA Astronomy Picture of the Day, reduziert auf die Felder, die der Bot anzeigt.
+ *
+ * @param fetchedAt Abrufzeitpunkt in Millisekunden seit der Epoche
+ * @param date APOD-Datum ({@code yyyy-MM-dd})
+ * @param title Titel oder {@code null}
+ * @param explanation Erklärung oder {@code null}
+ * @param url Medien-URL oder {@code null}
+ * @param hdurl URL der hochaufgelösten Fassung oder {@code null}
+ * @param mediaType Medientyp ({@code image}, {@code video}, …) oder {@code null}
+ * @param thumbnailUrl Vorschaubild bei Videos (nur mit {@code thumbs=true} angefragt) oder {@code null}
+ */
+public record ApodSnapshot(long fetchedAt, String date, String title, String explanation, String url, String hdurl,
+                           String mediaType, String thumbnailUrl) {
+
+    /** Zeitzone, in der die NASA das Datum der APOD wechselt. */
+    public static final ZoneId NASA_ZONE = ZoneId.of("America/New_York");
+
+    /**
+     * Übernimmt die Felder aus der APOD-Antwort der NASA.
+     *
+     * @param json APOD-Antwort
+     * @param fetchedAt Abrufzeitpunkt in Millisekunden seit der Epoche
+     * @return APOD-Datensatz
+     */
+    public static ApodSnapshot fromJson(JsonObject json, long fetchedAt) {
+        return new ApodSnapshot(fetchedAt,
+                optString(json, "date"),
+                optString(json, "title"),
+                optString(json, "explanation"),
+                optString(json, "url"),
+                optString(json, "hdurl"),
+                optString(json, "media_type"),
+                optString(json, "thumbnail_url"));
+    }
+
+    /**
+     * Prüft, ob der Eintrag ein Bild und kein Video oder anderes Medium beschreibt.
+     *
+     * @return {@code true}, wenn {@code media_type=image} oder der Typ fehlt
+     */
+    public boolean isImage() {
+        return mediaType == null || "image".equalsIgnoreCase(mediaType);
+    }
+
+    /**
+     * Prüft, ob seit dem Abruf das Datum in {@link #NASA_ZONE} gewechselt hat und der Eintrag einen früheren Tag zeigt.
+     * Wurde er erst nach dem Datumswechsel geladen, hat die NASA die neue APOD noch nicht veröffentlicht, und er
+     * gilt weiter als aktuell.
+     *
+     * @param nowMillis aktuelle Zeit in Millisekunden seit der Epoche
+     * @return {@code true}, wenn der Eintrag durch eine neuere APOD ersetzt sein sollte
+     */
+    public boolean isBeforeRollover(long nowMillis) {
+        if (date == null) return false;
+        LocalDate apodDate;
+        try {
+            apodDate = LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+
+        LocalDate today = Instant.ofEpochMilli(nowMillis).atZone(NASA_ZONE).toLocalDate();
+        return apodDate.isBefore(today) && fetchedAt < today.atStartOfDay(NASA_ZONE).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Liest einen String-Wert aus dem JSON.
+     *
+     * @param json JSON-Objekt
+     * @param key Schlüssel
+     * @return Wert oder {@code null}
+     */
+    private static String optString(JsonObject json, String key) {
+        JsonElement value = json.get(key);
+        return value == null || value.isJsonNull() ? null : value.getAsString();
+    }
+}
@@ -0,0 +1,101 @@
+package data;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import net.dv8tion.jda.api.interactions.commands.CommandInteraction;
+import net.dv8tion.jda.api.requests.RestAction;
+
+/**
+ * JFR-Event für einen Abschnitt eines Slash-Commands: {@code defer}, {@code fetch}, {@code render} oder {@code send}.
+ * Ohne laufende Aufzeichnung kostet das Event nur eine Prüfung von {@link #isEnabled()}.
+ */
+@Name("spacelinker.CommandStage")
+@Label("Command Stage")
+@Category({"SpaceLinker", "Commands"})
+@Description("Dauer eines Abschnitts einer Slash-Command-Interaktion")
+@StackTrace(false)
+public class CommandStageEvent extends Event {
+
+    @Label("Command")
+    String command;
+
+    @Label("Guild")
+    String guild;
+
+    @Label("Interaction")
+    long interaction;
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Success")
+    boolean success;
+
+    /**
+     * Startet die Zeitmessung für einen Abschnitt.
+     *
+     * @param interaction laufende Slash-Command-Interaktion
+     * @param stage Name des Abschnitts
+     * @return gestartetes Event, das mit {@link #end(boolean)} abgeschlossen wird
+     */
+    public static CommandStageEvent begin(CommandInteraction interaction, String stage) {
+        CommandStageEvent event = new CommandStageEvent();
+        if (event.isEnabled()) {
+            event.command = interaction.getName();
+            event.guild = Tracing.guildOf(interaction);
+            event.interaction = interaction.getIdLong();
+            event.stage = stage;
+            event.begin();
+        }
+        return event;
+    }
+
+    /**
+     * Beendet die Zeitmessung und schreibt das Event, sofern eine Aufzeichnung läuft.
+     *
+     * @param success ob der Abschnitt erfolgreich war
+     */
+    public void end(boolean success) {
+        if (!isEnabled()) return;
+        this.success = success;
+        commit();
+    }
+
+    /**
+     * Erfolgs-Callback für {@link RestAction#queue}, schließt den Abschnitt erfolgreich ab.
+     *
+     * @param result ignoriertes Ergebnis der RestAction
+     */
+    public void succeeded(Object result) {
+        end(true);
+    }
+
+    /**
+     * Fehler-Callback für {@link RestAction#queue}, schließt den Abschnitt als fehlgeschlagen ab
+     * und reicht den Fehler an den Standard-Handler von JDA weiter.
+     *
+     * @param error Fehler der RestAction
+     */
+    public void failed(Throwable error) {
+        end(false);
+        RestAction.getDefaultFailure().accept(error);
+    }
+
+    /**
+     * Callback für {@link java.util.concurrent.CompletableFuture#whenComplete}, z. B. nach {@link RestAction#submit()}.
+     *
+     * @param result ignoriertes Ergebnis
+     * @param error Fehler oder {@code null} bei Erfolg
+     */
+    public void completed(Object result, Throwable error) {
+        if (error == null) {
+            succeeded(result);
+        } else {
+            failed(error);
+        }
+    }
+}
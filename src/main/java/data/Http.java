@@ -1,7 +1,16 @@
 package data;
 
+import java.io.IOException;
+import java.net.URI;
 import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
 
 /**
  * Shared HTTP client for all API requests.
@@ -13,10 +22,14 @@ public class Http {
      */
     private Http() {}
 
+    // Virtuelle Threads statt des ungebundenen Cached-Pools, damit viele gleichzeitige Antworten keine Plattform-Threads binden
     private static final HttpClient CLIENT = HttpClient.newBuilder()
             .connectTimeout(Duration.ofSeconds(15))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
             .build();
 
+    private static final Map<String, URI> ROUTES = new ConcurrentHashMap<>();
+
     /**
      * Liefert die gemeinsame {@link HttpClient}-Instanz für alle API-Aufrufe.
      *
@@ -25,4 +38,130 @@ public class Http {
     public static HttpClient client() {
         return CLIENT;
     }
+
+    /**
+     * Sendet eine Anfrage synchron und zeichnet sie als {@link UpstreamCallEvent} auf.
+     *
+     * @param request HTTP-Anfrage
+     * @return Antwort mit Body als String
+     * @throws IOException bei Netzwerkfehlern
+     * @throws InterruptedException falls der Thread beim Warten unterbrochen wird
+     */
+    public static HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        UpstreamCallEvent event = begin(request);
+        try {
+            HttpResponse<String> response = CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+            end(event, response, null);
+            return response;
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            end(event, null, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Sendet eine Anfrage asynchron und zeichnet sie als {@link UpstreamCallEvent} auf.
+     * Der Command-Kontext wird beim Aufruf übernommen, nicht erst beim Eintreffen der Antwort.
+     *
+     * @param request HTTP-Anfrage
+     * @return Future mit der Antwort
+     */
+    public static CompletableFuture<HttpResponse<String>> sendAsync(HttpRequest request) {
+        return sendAsync(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * Sendet eine Anfrage asynchron mit eigenem Body-Handler, z. B. für Bilder, und zeichnet sie als
+     * {@link UpstreamCallEvent} auf.
+     *
+     * @param request HTTP-Anfrage
+     * @param bodyHandler verarbeitet den Antwort-Body
+     * @param <T> Typ des Antwort-Bodys
+     * @return Future mit der Antwort
+     */
+    public static <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler) {
+        UpstreamCallEvent event = begin(request);
+        return CLIENT.sendAsync(request, bodyHandler)
+                .whenComplete((response, error) -> end(event, response, error));
+    }
+
+    /**
+     * Startet das JFR-Event für einen Upstream-Aufruf.
+     */
+    private static UpstreamCallEvent begin(HttpRequest request) {
+        UpstreamCallEvent event = new UpstreamCallEvent();
+        if (event.isEnabled()) {
+            Tracing.Context context = Tracing.current();
+            if (context != null) {
+                event.command = context.command();
+                event.guild = context.guild();
+            }
+            event.host = request.uri().getHost();
+            event.path = request.uri().getPath();
+            event.begin();
+        }
+        return event;
+    }
+
+    /**
+     * Schließt das JFR-Event eines Upstream-Aufrufs mit Status und Antwortgröße ab.
+     */
+    private static void end(UpstreamCallEvent event, HttpResponse<?> response, Throwable error) {
+        if (!event.isEnabled()) return;
+        event.end();
+        if (!event.shouldCommit()) return;
+
+        if (response != null) {
+            event.status = response.statusCode();
+            event.bytes = response.headers().firstValueAsLong("Content-Length")
+                    .orElseGet(() -> bodyBytes(response.body()));
+        }
+        if (error != null) {
+            event.error = error.toString();
+        }
+        event.commit();
+    }
+
+    /**
+     * Schätzt die Größe eines Antwort-Bodys, wenn der Server keine {@code Content-Length} geschickt hat.
+     */
+    private static long bodyBytes(Object body) {
+        if (body instanceof String text) return text.getBytes(StandardCharsets.UTF_8).length;
+        if (body instanceof byte[] bytes) return bytes.length;
+        return 0;
+    }
+
+    /**
+     * Baut die Ziel-URI für einen Upstream-Aufruf und berücksichtigt dabei umgeleitete Hosts.
+     *
+     * @param url ursprüngliche Upstream-URL
+     * @return ggf. auf einen anderen Server umgeleitete URI
+     */
+    public static URI uri(String url) {
+        URI original = URI.create(url);
+        URI target = ROUTES.get(original.getHost());
+        if (target == null) {
+            return original;
+        }
+
+        return target.resolve(original.getRawPath()
+                + (original.getRawQuery() == null ? "" : "?" + original.getRawQuery()));
+    }
+
+    /**
+     * Leitet alle Aufrufe an einen Upstream-Host auf einen anderen Server um, z. B. lokale Stub-Server im Lasttest.
+     *
+     * @param host ursprünglicher Hostname, z. B. {@code api.nasa.gov}
+     * @param target Basis-URI des Ersatzservers
+     */
+    public static void route(String host, URI target) {
+        ROUTES.put(host, target);
+    }
+
+    /**
+     * Entfernt alle Umleitungen, danach gehen Aufrufe wieder an die echten Upstreams.
+     */
+    public static void clearRoutes() {
+        ROUTES.clear();
+    }
 }
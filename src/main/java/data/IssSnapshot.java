@@ -0,0 +1,20 @@
+package data;
+
+/**
+ * Vollständig angereicherter ISS-Datenstand, wie er zwischen Prozessen geteilt wird.
+ *
+ * @param fetchedAt Abrufzeitpunkt in Millisekunden seit der Epoche
+ * @param latitude Breitengrad
+ * @param longitude Längengrad
+ * @param velocity Geschwindigkeit in km/h oder 0, wenn unbekannt
+ * @param altitude Höhe in km oder 0, wenn unbekannt
+ * @param timezoneId Zeitzonen-ID
+ * @param mapUrl Kartenlink
+ * @param country Land unter der ISS
+ * @param state Bundesland oder Staat
+ * @param city Stadt
+ * @param ocean Ozean
+ */
+public record IssSnapshot(long fetchedAt, String latitude, String longitude, double velocity, double altitude,
+                          String timezoneId, String mapUrl, String country, String state, String city, String ocean) {
+}
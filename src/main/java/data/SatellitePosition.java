@@ -0,0 +1,11 @@
+package data;
+
+/**
+ * Berechnete Position eines Satelliten.
+ *
+ * @param latitude geodätischer Breitengrad in Grad
+ * @param longitude Längengrad in Grad zwischen -180 und 180
+ * @param altitude Höhe über dem WGS84-Ellipsoid in km
+ * @param velocity Bahngeschwindigkeit in km/h
+ */
+public record SatellitePosition(double latitude, double longitude, double altitude, double velocity) {}
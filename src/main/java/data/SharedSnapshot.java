@@ -0,0 +1,390 @@
+package data;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+/**
+ * Gemeinsamer ISS- und APOD-Datenstand mehrerer Bot-Prozesse in einer Memory-Mapped-Datei.
+ * Genau ein Prozess ist Publisher und schreibt, beliebig viele lokale Prozesse lesen ohne Netzwerkaufrufe.
+ *
+ * <p>Layout: ein 64-Byte-Header (Magic, Layout-Version) und je eine Region für ISS und APOD.
+ * Jede Region beginnt mit einem Sequenzzähler im Stil eines Seqlocks: ungerade während des Schreibens,
+ * gerade danach, {@code 0} solange noch nichts veröffentlicht wurde. Leser kopieren die Region und
+ * verwerfen die Kopie, wenn sich der Zähler währenddessen geändert hat. Strings liegen in Slots fester
+ * Größe (Länge als {@code short}, {@code -1} für {@code null}, danach UTF-8) und werden bei Überlänge gekürzt.
+ */
+public final class SharedSnapshot implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(SharedSnapshot.class);
+
+    private static final VarHandle SEQUENCE = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private static final int MAGIC = 0x534C534E;
+    private static final int LAYOUT_VERSION = 2;
+    private static final int HEADER_BYTES = 64;
+    private static final int MAX_READ_ATTEMPTS = 100;
+
+    /** Breitengrad, Längengrad, Zeitzone, Kartenlink, Land, Staat, Stadt, Ozean. */
+    private static final Region ISS = new Region(HEADER_BYTES, 3 * Long.BYTES, 32, 32, 64, 256, 128, 128, 128, 128);
+
+    /** Datum, Titel, Erklärung, URL, HD-URL, Medientyp, Vorschaubild. */
+    private static final Region APOD = new Region(ISS.end(), Long.BYTES, 16, 1024, 16384, 1024, 1024, 16, 1024);
+
+    private static final int FILE_BYTES = APOD.end();
+
+    private final Path path;
+    private final boolean publisher;
+    private final FileChannel channel;
+    private final FileLock lock;
+    private volatile MappedByteBuffer buffer;
+
+    /**
+     * Rolle eines Prozesses, gesetzt über {@code snapshot.mode}.
+     */
+    public enum Mode {
+        /** Kein gemeinsamer Datenstand, jeder Prozess fragt selbst an. */
+        OFF,
+        /** Fragt die Upstreams periodisch an und veröffentlicht den Datenstand. */
+        PUBLISHER,
+        /** Liest nur den veröffentlichten Datenstand. */
+        READER
+    }
+
+    /**
+     * Lage einer Region in der Datei.
+     *
+     * @param offset Beginn des Sequenzzählers, auf 64 Byte ausgerichtet
+     * @param fixedBytes Bytes fester Felder vor den String-Slots
+     * @param slots Kapazität der String-Slots in Bytes
+     */
+    private record Region(int offset, int fixedBytes, int... slots) {
+
+        /**
+         * Größe der Nutzdaten hinter dem Sequenzzähler.
+         *
+         * @return Bytes
+         */
+        int payloadBytes() {
+            int bytes = fixedBytes;
+            for (int slot : slots) {
+                bytes += Short.BYTES + slot;
+            }
+            return bytes;
+        }
+
+        /**
+         * Erstes Byte hinter der Region, auf 64 Byte aufgerundet.
+         *
+         * @return Offset der nächsten Region
+         */
+        int end() {
+            int end = offset + Long.BYTES + payloadBytes();
+            return (end + 63) & ~63;
+        }
+    }
+
+    /**
+     * Öffnet die Datei.
+     *
+     * @param path Pfad der Datei
+     * @param publisher {@code true} für den schreibenden Prozess
+     * @param channel geöffneter Kanal oder {@code null} für Leser
+     * @param lock exklusive Sperre des Publishers oder {@code null}
+     * @param buffer Mapping oder {@code null}, solange die Datei noch nicht existiert
+     */
+    private SharedSnapshot(Path path, boolean publisher, FileChannel channel, FileLock lock, MappedByteBuffer buffer) {
+        this.path = path;
+        this.publisher = publisher;
+        this.channel = channel;
+        this.lock = lock;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Öffnet den gemeinsamen Datenstand gemäß {@code snapshot.mode} ({@code off}, {@code publisher}, {@code reader})
+     * und {@code snapshot.path}.
+     *
+     * @return geöffneter Datenstand oder {@code null} bei {@code snapshot.mode=off}
+     */
+    public static SharedSnapshot fromConfig() {
+        Mode mode = Mode.valueOf(Config.get("snapshot.mode", "off").trim().toUpperCase(Locale.ROOT));
+        Path path = Path.of(Config.get("snapshot.path", "spacelinker-snapshot.bin"));
+        try {
+            return switch (mode) {
+                case OFF -> null;
+                case PUBLISHER -> openPublisher(path);
+                case READER -> openReader(path);
+            };
+        } catch (IOException e) {
+            throw new UncheckedIOException("Snapshot-Datei " + path + " konnte nicht geöffnet werden", e);
+        }
+    }
+
+    /**
+     * Öffnet die Datei zum Schreiben, legt sie bei Bedarf an und sperrt sie exklusiv.
+     *
+     * @param path Pfad der Datei
+     * @return schreibbarer Datenstand
+     * @throws IOException bei Dateifehlern
+     * @throws IllegalStateException wenn bereits ein anderer Publisher die Datei hält
+     */
+    public static SharedSnapshot openPublisher(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) {
+            channel.close();
+            throw new IllegalStateException("Snapshot-Datei " + path + " wird bereits von einem anderen Publisher beschrieben");
+        }
+
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_BYTES);
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != LAYOUT_VERSION) {
+            buffer.put(0, new byte[FILE_BYTES]);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(Integer.BYTES, LAYOUT_VERSION);
+        }
+        for (Region region : new Region[] {ISS, APOD}) {
+            // Ein Publisher, der mitten im Schreiben abgebrochen ist, hinterlässt einen ungeraden Zähler
+            if (((long) SEQUENCE.getVolatile(buffer, region.offset()) & 1) != 0) {
+                SEQUENCE.setVolatile(buffer, region.offset(), 0L);
+            }
+        }
+        return new SharedSnapshot(path, true, channel, lock, buffer);
+    }
+
+    /**
+     * Öffnet die Datei zum Lesen. Existiert sie noch nicht, wird sie beim ersten Lesen nach ihrem Erscheinen eingebunden.
+     *
+     * @param path Pfad der Datei
+     * @return lesbarer Datenstand
+     */
+    public static SharedSnapshot openReader(Path path) {
+        SharedSnapshot snapshot = new SharedSnapshot(path, false, null, null, null);
+        snapshot.mapIfPresent();
+        return snapshot;
+    }
+
+    /**
+     * Gibt an, ob dieser Prozess der Publisher ist.
+     *
+     * @return {@code true} für den schreibenden Prozess
+     */
+    public boolean isPublisher() {
+        return publisher;
+    }
+
+    /**
+     * Veröffentlicht einen ISS-Datenstand.
+     *
+     * @param snapshot neuer Datenstand
+     */
+    public void publishIss(IssSnapshot snapshot) {
+        ByteBuffer payload = ByteBuffer.allocate(ISS.payloadBytes());
+        payload.putLong(snapshot.fetchedAt()).putDouble(snapshot.velocity()).putDouble(snapshot.altitude());
+        putStrings(payload, ISS, snapshot.latitude(), snapshot.longitude(), snapshot.timezoneId(), snapshot.mapUrl(),
+                snapshot.country(), snapshot.state(), snapshot.city(), snapshot.ocean());
+        write(ISS, payload.array());
+    }
+
+    /**
+     * Veröffentlicht einen APOD-Datensatz.
+     *
+     * @param snapshot neuer Datensatz
+     */
+    public void publishApod(ApodSnapshot snapshot) {
+        ByteBuffer payload = ByteBuffer.allocate(APOD.payloadBytes());
+        payload.putLong(snapshot.fetchedAt());
+        putStrings(payload, APOD, snapshot.date(), snapshot.title(), snapshot.explanation(), snapshot.url(),
+                snapshot.hdurl(), snapshot.mediaType(), snapshot.thumbnailUrl());
+        write(APOD, payload.array());
+    }
+
+    /**
+     * Liest den zuletzt veröffentlichten ISS-Datenstand.
+     *
+     * @return Datenstand oder {@code null}, wenn noch keiner veröffentlicht wurde oder gerade keine konsistente Kopie gelang
+     */
+    public IssSnapshot readIss() {
+        byte[] copy = read(ISS);
+        if (copy == null) return null;
+
+        ByteBuffer payload = ByteBuffer.wrap(copy);
+        long fetchedAt = payload.getLong();
+        double velocity = payload.getDouble();
+        double altitude = payload.getDouble();
+        String[] s = getStrings(payload, ISS);
+        return new IssSnapshot(fetchedAt, s[0], s[1], velocity, altitude, s[2], s[3], s[4], s[5], s[6], s[7]);
+    }
+
+    /**
+     * Liest den zuletzt veröffentlichten APOD-Datensatz.
+     *
+     * @return Datensatz oder {@code null}, wenn noch keiner veröffentlicht wurde oder gerade keine konsistente Kopie gelang
+     */
+    public ApodSnapshot readApod() {
+        byte[] copy = read(APOD);
+        if (copy == null) return null;
+
+        ByteBuffer payload = ByteBuffer.wrap(copy);
+        long fetchedAt = payload.getLong();
+        String[] s = getStrings(payload, APOD);
+        return new ApodSnapshot(fetchedAt, s[0], s[1], s[2], s[3], s[4], s[5], s[6]);
+    }
+
+    /**
+     * Schreibt die Nutzdaten einer Region zwischen zwei Zählerständen.
+     *
+     * @param region Zielregion
+     * @param payload kodierte Nutzdaten
+     */
+    private synchronized void write(Region region, byte[] payload) {
+        if (!publisher) {
+            throw new IllegalStateException("Nur der Publisher darf den Snapshot schreiben");
+        }
+        MappedByteBuffer target = buffer;
+        long sequence = (long) SEQUENCE.getVolatile(target, region.offset());
+        SEQUENCE.setVolatile(target, region.offset(), sequence + 1);
+        VarHandle.storeStoreFence();
+        target.put(region.offset() + Long.BYTES, payload);
+        SEQUENCE.setRelease(target, region.offset(), sequence + 2);
+    }
+
+    /**
+     * Kopiert die Nutzdaten einer Region, sobald eine Kopie ohne gleichzeitiges Schreiben gelingt.
+     *
+     * @param region Quellregion
+     * @return Kopie oder {@code null}
+     */
+    private byte[] read(Region region) {
+        MappedByteBuffer source = mapIfPresent();
+        if (source == null) return null;
+
+        byte[] copy = new byte[region.payloadBytes()];
+        for (int attempt = 0; attempt < MAX_READ_ATTEMPTS; attempt++) {
+            long before = (long) SEQUENCE.getAcquire(source, region.offset());
+            if (before == 0) return null;
+            if ((before & 1) == 0) {
+                source.get(region.offset() + Long.BYTES, copy);
+                VarHandle.loadLoadFence();
+                if ((long) SEQUENCE.getVolatile(source, region.offset()) == before) {
+                    return copy;
+                }
+            }
+            Thread.onSpinWait();
+        }
+        return null;
+    }
+
+    /**
+     * Liefert das Mapping und bindet die Datei beim Leser ein, sobald sie vollständig angelegt ist.
+     *
+     * @return Mapping oder {@code null}, solange die Datei fehlt oder ein anderes Layout hat
+     */
+    private MappedByteBuffer mapIfPresent() {
+        MappedByteBuffer current = buffer;
+        if (current != null) return current;
+
+        synchronized (this) {
+            if (buffer != null) return buffer;
+            if (!Files.isRegularFile(path)) return null;
+
+            try (FileChannel readOnly = FileChannel.open(path, StandardOpenOption.READ)) {
+                if (readOnly.size() < FILE_BYTES) return null;
+                MappedByteBuffer mapped = readOnly.map(FileChannel.MapMode.READ_ONLY, 0, FILE_BYTES);
+                if (mapped.getInt(0) != MAGIC || mapped.getInt(Integer.BYTES) != LAYOUT_VERSION) {
+                    return null;
+                }
+                buffer = mapped;
+                log.info("Snapshot-Datei {} eingebunden.", path);
+                return mapped;
+            } catch (IOException e) {
+                log.warn("Snapshot-Datei {} konnte nicht gelesen werden: {}", path, e.getMessage());
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Schreibt Strings in die Slots einer Region.
+     *
+     * @param payload Ziel, positioniert hinter den festen Feldern
+     * @param region Region mit den Slot-Größen
+     * @param values Werte in Slot-Reihenfolge
+     */
+    private static void putStrings(ByteBuffer payload, Region region, String... values) {
+        CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        for (int i = 0; i < region.slots().length; i++) {
+            int capacity = region.slots()[i];
+            int lengthPosition = payload.position();
+            if (values[i] == null) {
+                payload.putShort((short) -1);
+            } else {
+                // Der Encoder hält an einer Zeichengrenze an, wenn der Slot voll ist
+                ByteBuffer slot = payload.slice(lengthPosition + Short.BYTES, capacity);
+                encoder.reset().encode(CharBuffer.wrap(values[i]), slot, true);
+                payload.putShort((short) slot.position());
+            }
+            payload.position(lengthPosition + Short.BYTES + capacity);
+        }
+    }
+
+    /**
+     * Liest die Strings aus den Slots einer Region.
+     *
+     * @param payload Quelle, positioniert hinter den festen Feldern
+     * @param region Region mit den Slot-Größen
+     * @return Werte in Slot-Reihenfolge
+     */
+    private static String[] getStrings(ByteBuffer payload, Region region) {
+        String[] values = new String[region.slots().length];
+        for (int i = 0; i < values.length; i++) {
+            int capacity = region.slots()[i];
+            int start = payload.position();
+            short length = payload.getShort();
+            if (length >= 0) {
+                values[i] = new String(payload.array(), start + Short.BYTES, Math.min(length, capacity), StandardCharsets.UTF_8);
+            }
+            payload.position(start + Short.BYTES + capacity);
+        }
+        return values;
+    }
+
+    /**
+     * Gibt die Sperre des Publishers frei. Das Mapping bleibt bis zur Garbage Collection gültig.
+     */
+    @Override
+    public void close() {
+        if (channel == null) return;
+        try {
+            if (lock != null) lock.release();
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Snapshot-Datei {} konnte nicht geschlossen werden: {}", path, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package data;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Begrenzt Aufrufe pro Schlüssel (z. B. Nutzer- oder Server-ID) auf {@code limit} pro gleitendem Zeitfenster.
+ *
+ * <p>Das Fenster wird wie üblich aus zwei festen Fenstern angenähert: die Zählung des vorigen Fensters geht
+ * anteilig zur noch überlappenden Zeit ein. Der Zustand eines Schlüssels steckt vollständig in einem {@code long}
+ * (24 Bit Fingerabdruck des Schlüssels, 20 Bit Fensternummer, je 10 Bit für aktuelles und voriges Fenster) und wird
+ * per CAS aktualisiert, es gibt also keine Sperren. Die Tabelle hat eine feste Größe und ist in Streifen geteilt;
+ * ein Schlüssel wird nur innerhalb der ersten {@value #PROBE} Plätze seines Streifens gesucht. Einträge, die länger
+ * als zwei Fenster nicht benutzt wurden, gelten als leer und werden überschrieben; ist kein Platz frei, verdrängt
+ * ein neuer Schlüssel den am längsten ungenutzten. Der Speicherbedarf bleibt so unabhängig von der Zahl der Nutzer
+ * bei {@code 8 * capacity} Bytes. Teilen sich zwei Schlüssel zufällig einen Fingerabdruck, zählen sie gemeinsam,
+ * was höchstens zu früh drosselt.
+ */
+public final class SlidingWindowLimiter {
+
+    /** Höchstwert eines Fensterzählers; größere Limits werden darauf begrenzt. */
+    public static final int MAX_LIMIT = (1 << 10) - 1;
+
+    private static final int PROBE = 8;
+    private static final int STRIPES = 64;
+    private static final long WINDOW_MASK = (1L << 20) - 1;
+    private static final long COUNT_MASK = MAX_LIMIT;
+
+    private final int limit;
+    private final long windowMillis;
+    private final int stripeMask;
+    private final int stripeShift;
+    private final AtomicLongArray slots;
+
+    /**
+     * Erstellt den Limiter.
+     *
+     * @param limit erlaubte Aufrufe pro Fenster, höchstens {@link #MAX_LIMIT}
+     * @param windowMillis Fensterlänge in Millisekunden
+     * @param capacity Anzahl der Plätze, wird auf eine Zweierpotenz von mindestens {@code 64 * 8} aufgerundet
+     */
+    public SlidingWindowLimiter(int limit, long windowMillis, int capacity) {
+        if (limit < 0 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit muss zwischen 0 und " + MAX_LIMIT + " liegen: " + limit);
+        }
+        if (windowMillis <= 0) {
+            throw new IllegalArgumentException("Fensterlänge muss positiv sein: " + windowMillis);
+        }
+        int size = Math.max(STRIPES * PROBE, capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1);
+        int stripeSize = size / STRIPES;
+        this.limit = limit;
+        this.windowMillis = windowMillis;
+        this.stripeMask = stripeSize - 1;
+        this.stripeShift = Integer.numberOfTrailingZeros(stripeSize);
+        this.slots = new AtomicLongArray(size);
+    }
+
+    /**
+     * Zählt einen Aufruf, sofern der Schlüssel sein Limit im gleitenden Fenster noch nicht erreicht hat.
+     * Abgelehnte Aufrufe werden nicht gezählt.
+     *
+     * @param key Schlüssel, z. B. eine Nutzer-ID
+     * @param nowMillis aktuelle Zeit in Millisekunden
+     * @return {@code true}, wenn der Aufruf erlaubt ist
+     */
+    public boolean tryAcquire(long key, long nowMillis) {
+        if (limit == 0) return false;
+
+        long hash = mix(key);
+        long fingerprint = Math.max(1, hash >>> 40);
+        int base = (int) (hash & (STRIPES - 1)) << stripeShift;
+        int start = (int) (hash >>> 6);
+        long window = (nowMillis / windowMillis) & WINDOW_MASK;
+        long elapsed = nowMillis % windowMillis;
+
+        while (true) {
+            int free = -1;
+            int oldest = -1;
+            long oldestAge = -1;
+            long freeState = 0;
+            long oldestState = 0;
+
+            for (int i = 0; i < PROBE; i++) {
+                int index = base + ((start + i) & stripeMask);
+                long state = slots.get(index);
+                long age = (window - windowOf(state)) & WINDOW_MASK;
+
+                if (state != 0 && fingerprintOf(state) == fingerprint) {
+                    long current = age == 0 ? currentOf(state) : 0;
+                    long previous = age == 0 ? previousOf(state) : age == 1 ? currentOf(state) : 0;
+                    // previous * (1 - elapsed / window) + current + 1 > limit, ohne Gleitkomma
+                    if (previous * (windowMillis - elapsed) + (current + 1) * windowMillis > limit * windowMillis) {
+                        return false;
+                    }
+                    if (slots.compareAndSet(index, state, pack(fingerprint, window, current + 1, previous))) {
+                        return true;
+                    }
+                    free = -2;
+                    break;
+                }
+                if (free == -1 && (state == 0 || age >= 2)) {
+                    free = index;
+                    freeState = state;
+                }
+                if (age > oldestAge) {
+                    oldest = index;
+                    oldestAge = age;
+                    oldestState = state;
+                }
+            }
+            if (free == -2) continue;
+
+            int target = free >= 0 ? free : oldest;
+            long expected = free >= 0 ? freeState : oldestState;
+            if (slots.compareAndSet(target, expected, pack(fingerprint, window, 1, 0))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Zählt die Einträge, die im aktuellen oder vorigen Fenster benutzt wurden.
+     *
+     * @param nowMillis aktuelle Zeit in Millisekunden
+     * @return Anzahl aktiver Einträge
+     */
+    public int activeEntries(long nowMillis) {
+        long window = (nowMillis / windowMillis) & WINDOW_MASK;
+        int active = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            long state = slots.get(i);
+            if (state != 0 && ((window - windowOf(state)) & WINDOW_MASK) < 2) active++;
+        }
+        return active;
+    }
+
+    /**
+     * Anzahl der Plätze und damit die Obergrenze gleichzeitig verfolgter Schlüssel.
+     *
+     * @return Tabellengröße
+     */
+    public int capacity() {
+        return slots.length();
+    }
+
+    private static long pack(long fingerprint, long window, long current, long previous) {
+        return fingerprint << 40 | window << 20 | Math.min(current, COUNT_MASK) << 10 | Math.min(previous, COUNT_MASK);
+    }
+
+    private static long fingerprintOf(long state) {
+        return state >>> 40;
+    }
+
+    private static long windowOf(long state) {
+        return (state >>> 20) & WINDOW_MASK;
+    }
+
+    private static long currentOf(long state) {
+        return (state >>> 10) & COUNT_MASK;
+    }
+
+    private static long previousOf(long state) {
+        return state & COUNT_MASK;
+    }
+
+    /**
+     * Verteilt die Bits einer Snowflake-ID gleichmäßig (Finalizer von SplitMix64).
+     *
+     * @param key Schlüssel
+     * @return Hashwert
+     */
+    private static long mix(long key) {
+        long z = key + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,212 @@
+package data;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Lokal gespeicherte Kanäle, die das NASA-Bild des Tages automatisch erhalten, und das Datum der letzten Verteilung.
+ * Die Datei ist eine Textdatei mit einer Kanal-ID pro Zeile und einer Zeile {@code last=yyyy-MM-dd};
+ * sie wird bei jeder Änderung vollständig ersetzt.
+ * Mehrere Prozesse können dieselbe Datei nutzen: Jede Änderung sperrt die Nachbardatei {@code <Datei>.lock},
+ * liest den aktuellen Stand neu ein und wendet nur die eigene Änderung darauf an, sodass Abos anderer Prozesse
+ * erhalten bleiben.
+ */
+public final class SubscriptionStore {
+
+    private static final Logger log = LoggerFactory.getLogger(SubscriptionStore.class);
+
+    private static final String LAST_PREFIX = "last=";
+
+    /** Dateisperren gelten pro JVM, deshalb serialisiert ein Monitor pro Pfad die Speicher innerhalb eines Prozesses. */
+    private static final Map<Path, Object> LOCAL_LOCKS = new ConcurrentHashMap<>();
+
+    private final Path path;
+    private final Path lockPath;
+    private final Set<Long> channels = new LinkedHashSet<>();
+    private String lastBroadcastDate;
+
+    /**
+     * Erstellt den Speicher für eine Datei.
+     *
+     * @param path Pfad der Abo-Datei
+     */
+    private SubscriptionStore(Path path) {
+        this.path = path.toAbsolutePath().normalize();
+        this.lockPath = this.path.resolveSibling(this.path.getFileName() + ".lock");
+    }
+
+    /**
+     * Öffnet die Abo-Datei aus {@code subscriptions.path} (Standard {@code spacelinker-subscriptions.txt}).
+     *
+     * @return geladener Speicher
+     * @throws IOException bei Lesefehlern einer vorhandenen Datei
+     */
+    public static SubscriptionStore fromConfig() throws IOException {
+        return open(Path.of(Config.get("subscriptions.path", "spacelinker-subscriptions.txt")));
+    }
+
+    /**
+     * Öffnet eine Abo-Datei; fehlt sie, beginnt der Speicher leer.
+     *
+     * @param path Pfad der Abo-Datei
+     * @return geladener Speicher
+     * @throws IOException bei Lesefehlern einer vorhandenen Datei
+     */
+    public static SubscriptionStore open(Path path) throws IOException {
+        SubscriptionStore store = new SubscriptionStore(path);
+        store.load();
+        return store;
+    }
+
+    /**
+     * Liest den aktuellen Stand der Datei neu ein, z. B. um Abos zu sehen, die ein anderer Prozess angelegt hat.
+     *
+     * @throws IOException bei Lesefehlern einer vorhandenen Datei
+     */
+    public synchronized void reload() throws IOException {
+        update(() -> false);
+    }
+
+    /**
+     * Abonniert einen Kanal.
+     *
+     * @param channelId Kanal-ID
+     * @return {@code true}, wenn der Kanal neu abonniert wurde
+     * @throws IOException wenn die Datei nicht geschrieben werden konnte; das Abo wird dann verworfen
+     */
+    public synchronized boolean add(long channelId) throws IOException {
+        return update(() -> channels.add(channelId));
+    }
+
+    /**
+     * Beendet das Abo eines Kanals.
+     *
+     * @param channelId Kanal-ID
+     * @return {@code true}, wenn der Kanal abonniert war
+     * @throws IOException wenn die Datei nicht geschrieben werden konnte; das Abo bleibt dann bestehen
+     */
+    public synchronized boolean remove(long channelId) throws IOException {
+        return update(() -> channels.remove(channelId));
+    }
+
+    /**
+     * Liefert alle abonnierten Kanäle in Abo-Reihenfolge.
+     *
+     * @return Kopie der Kanal-IDs
+     */
+    public synchronized List<Long> channels() {
+        return new ArrayList<>(channels);
+    }
+
+    /**
+     * Liefert das APOD-Datum der letzten Verteilung.
+     *
+     * @return Datum ({@code yyyy-MM-dd}) oder {@code null}
+     */
+    public synchronized String lastBroadcastDate() {
+        return lastBroadcastDate;
+    }
+
+    /**
+     * Merkt sich das APOD-Datum der letzten Verteilung.
+     *
+     * @param date Datum ({@code yyyy-MM-dd})
+     * @throws IOException wenn die Datei nicht geschrieben werden konnte
+     */
+    public synchronized void setLastBroadcastDate(String date) throws IOException {
+        update(() -> {
+            lastBroadcastDate = date;
+            return true;
+        });
+    }
+
+    /**
+     * Wendet eine Änderung unter der Dateisperre auf den frisch eingelesenen Stand an und schreibt ihn, falls sich
+     * etwas geändert hat. Scheitert das Schreiben, gilt wieder der Stand der Datei.
+     *
+     * @param change ändert {@link #channels} bzw. {@link #lastBroadcastDate} und meldet, ob sich etwas geändert hat
+     * @return Ergebnis von {@code change}
+     * @throws IOException bei Lese- oder Schreibfehlern
+     */
+    private boolean update(BooleanSupplier change) throws IOException {
+        synchronized (LOCAL_LOCKS.computeIfAbsent(path, ignored -> new Object())) {
+            try (FileChannel lockChannel = FileChannel.open(lockPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = lockChannel.lock()) {
+                load();
+                if (!change.getAsBoolean()) return false;
+                try {
+                    save();
+                } catch (IOException e) {
+                    load();
+                    throw e;
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Ersetzt den Stand im Speicher durch den Inhalt der Datei; fehlt sie, ist der Stand leer. Unlesbare Zeilen
+     * werden protokolliert und übersprungen, damit eine beschädigte Zeile nicht den Start verhindert.
+     *
+     * @throws IOException bei Lesefehlern einer vorhandenen Datei
+     */
+    private void load() throws IOException {
+        channels.clear();
+        lastBroadcastDate = null;
+        try {
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) continue;
+                if (trimmed.startsWith(LAST_PREFIX)) {
+                    lastBroadcastDate = trimmed.substring(LAST_PREFIX.length());
+                } else {
+                    try {
+                        channels.add(Long.parseLong(trimmed));
+                    } catch (NumberFormatException e) {
+                        log.warn("Ungültige Zeile in {} übersprungen: {}", path, trimmed);
+                    }
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // Noch keine Abos
+        }
+    }
+
+    /**
+     * Ersetzt die Datei durch den aktuellen Stand.
+     *
+     * @throws IOException bei Schreibfehlern
+     */
+    private void save() throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("# SpaceLinker: Kanäle mit täglichem NASA-Bild");
+        if (lastBroadcastDate != null) {
+            lines.add(LAST_PREFIX + lastBroadcastDate);
+        }
+        for (long channel : channels) {
+            lines.add(Long.toString(channel));
+        }
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.write(temp, lines, StandardCharsets.UTF_8);
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
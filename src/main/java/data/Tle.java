@@ -0,0 +1,173 @@
+package data;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bahndaten eines Satelliten aus einem Two-Line-Element-Satz (TLE) mit einer einfachen Bahnvorhersage.
+ * Propagiert wird analytisch nach Kepler mit den säkularen J2-Störungen der Erdabplattung und dem
+ * Mean-Motion-Drift aus Zeile 1. Das ist deutlich einfacher als SGP4, liegt für wenige Tage alte TLEs aber nur
+ * wenige Dutzend Kilometer daneben und reicht für eine Positionsanzeige.
+ *
+ * @param name Name aus der Titelzeile
+ * @param noradId NORAD-Katalognummer
+ * @param epochMillis Epoche der Bahndaten in Millisekunden seit der Epoche
+ * @param meanMotionDot halbe erste Ableitung der mittleren Bewegung in Umläufen pro Tag²
+ * @param inclination Bahnneigung in Radiant
+ * @param raan Rektaszension des aufsteigenden Knotens in Radiant
+ * @param eccentricity numerische Exzentrizität
+ * @param argPerigee Argument des Perigäums in Radiant
+ * @param meanAnomaly mittlere Anomalie in Radiant
+ * @param meanMotion mittlere Bewegung in Umläufen pro Tag
+ */
+public record Tle(String name, int noradId, long epochMillis, double meanMotionDot, double inclination, double raan,
+                  double eccentricity, double argPerigee, double meanAnomaly, double meanMotion) {
+
+    private static final double MU = 398600.4418;
+    private static final double EARTH_RADIUS = 6378.137;
+    private static final double FLATTENING = 1 / 298.257223563;
+    private static final double J2 = 1.08262668e-3;
+    private static final double SECONDS_PER_DAY = 86400;
+    private static final double TWO_PI = 2 * Math.PI;
+
+    /**
+     * Liest alle Datensätze aus einem Text im Drei-Zeilen-Format (Name, Zeile 1, Zeile 2), wie ihn CelesTrak liefert.
+     * Unvollständige oder fehlerhafte Datensätze werden übersprungen.
+     *
+     * @param text TLE-Text
+     * @return gelesene Datensätze in der Reihenfolge des Textes
+     */
+    public static List<Tle> parseAll(String text) {
+        List<Tle> result = new ArrayList<>();
+        String[] lines = text.split("\\R");
+        for (int i = 0; i + 2 < lines.length; i++) {
+            if (!lines[i + 1].startsWith("1 ") || !lines[i + 2].startsWith("2 ")) continue;
+            try {
+                result.add(parse(lines[i], lines[i + 1], lines[i + 2]));
+            } catch (RuntimeException e) {
+                // fehlerhafter Datensatz, der Rest des Katalogs bleibt brauchbar
+            }
+            i += 2;
+        }
+        return result;
+    }
+
+    /**
+     * Liest einen Datensatz.
+     *
+     * @param title Titelzeile mit dem Namen
+     * @param line1 Zeile 1
+     * @param line2 Zeile 2
+     * @return Datensatz
+     * @throws IllegalArgumentException bei zu kurzen Zeilen
+     * @throws NumberFormatException bei fehlerhaften Zahlen
+     */
+    public static Tle parse(String title, String line1, String line2) {
+        if (line1.length() < 63 || line2.length() < 63) {
+            throw new IllegalArgumentException("TLE-Zeile zu kurz");
+        }
+        int year = Integer.parseInt(line1.substring(18, 20).trim());
+        double day = Double.parseDouble(line1.substring(20, 32).trim());
+        long yearStart = LocalDate.of(year < 57 ? 2000 + year : 1900 + year, 1, 1)
+                .atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+
+        return new Tle(title.trim(),
+                Integer.parseInt(line1.substring(2, 7).trim()),
+                yearStart + Math.round((day - 1) * SECONDS_PER_DAY * 1000),
+                Double.parseDouble(line1.substring(33, 43).trim()),
+                Math.toRadians(Double.parseDouble(line2.substring(8, 16).trim())),
+                Math.toRadians(Double.parseDouble(line2.substring(17, 25).trim())),
+                Double.parseDouble("0." + line2.substring(26, 33).trim()),
+                Math.toRadians(Double.parseDouble(line2.substring(34, 42).trim())),
+                Math.toRadians(Double.parseDouble(line2.substring(43, 51).trim())),
+                Double.parseDouble(line2.substring(52, 63).trim()));
+    }
+
+    /**
+     * Berechnet die Position zu einem Zeitpunkt.
+     *
+     * @param timeMillis Zeitpunkt in Millisekunden seit der Epoche
+     * @return geodätische Position (WGS84) und Bahngeschwindigkeit
+     */
+    public SatellitePosition propagate(long timeMillis) {
+        double dtSeconds = (timeMillis - epochMillis) / 1000.0;
+        double dtDays = dtSeconds / SECONDS_PER_DAY;
+
+        double n = meanMotion * TWO_PI / SECONDS_PER_DAY;
+        double a = Math.cbrt(MU / (n * n));
+        double p = a * (1 - eccentricity * eccentricity);
+        double cosI = Math.cos(inclination);
+        double j2Factor = 1.5 * J2 * (EARTH_RADIUS / p) * (EARTH_RADIUS / p) * n;
+
+        double raanNow = raan - j2Factor * cosI * dtSeconds;
+        double argPerigeeNow = argPerigee + 0.5 * j2Factor * (5 * cosI * cosI - 1) * dtSeconds;
+        double meanAnomalyNow = meanAnomaly
+                + (n + 0.5 * j2Factor * Math.sqrt(1 - eccentricity * eccentricity) * (3 * cosI * cosI - 1)) * dtSeconds
+                + TWO_PI * meanMotionDot * dtDays * dtDays;
+
+        double eccentricAnomaly = solveKepler(meanAnomalyNow % TWO_PI, eccentricity);
+        double trueAnomaly = 2 * Math.atan2(Math.sqrt(1 + eccentricity) * Math.sin(eccentricAnomaly / 2),
+                Math.sqrt(1 - eccentricity) * Math.cos(eccentricAnomaly / 2));
+        double radius = a * (1 - eccentricity * Math.cos(eccentricAnomaly));
+
+        // Bahnebene -> äquatoriales Inertialsystem
+        double u = argPerigeeNow + trueAnomaly;
+        double cosRaan = Math.cos(raanNow);
+        double sinRaan = Math.sin(raanNow);
+        double sinI = Math.sin(inclination);
+        double x = radius * (cosRaan * Math.cos(u) - sinRaan * Math.sin(u) * cosI);
+        double y = radius * (sinRaan * Math.cos(u) + cosRaan * Math.sin(u) * cosI);
+        double z = radius * Math.sin(u) * sinI;
+
+        // Inertialsystem -> erdfest über die mittlere Sternzeit Greenwich
+        double gmst = greenwichSiderealTime(timeMillis);
+        double xEarth = x * Math.cos(gmst) + y * Math.sin(gmst);
+        double yEarth = -x * Math.sin(gmst) + y * Math.cos(gmst);
+
+        double longitude = Math.atan2(yEarth, xEarth);
+        double horizontal = Math.hypot(xEarth, yEarth);
+        double e2 = FLATTENING * (2 - FLATTENING);
+        double latitude = Math.atan2(z, horizontal * (1 - e2));
+        double altitude = 0;
+        for (int i = 0; i < 5; i++) {
+            double sinLat = Math.sin(latitude);
+            double primeVertical = EARTH_RADIUS / Math.sqrt(1 - e2 * sinLat * sinLat);
+            altitude = horizontal / Math.cos(latitude) - primeVertical;
+            latitude = Math.atan2(z, horizontal * (1 - e2 * primeVertical / (primeVertical + altitude)));
+        }
+
+        double speed = Math.sqrt(MU * (2 / radius - 1 / a));
+        return new SatellitePosition(Math.toDegrees(latitude), Math.toDegrees(longitude), altitude, speed * 3600);
+    }
+
+    /**
+     * Löst die Kepler-Gleichung {@code E - e sin E = M} nach Newton.
+     *
+     * @param meanAnomaly mittlere Anomalie in Radiant
+     * @param eccentricity numerische Exzentrizität
+     * @return exzentrische Anomalie in Radiant
+     */
+    private static double solveKepler(double meanAnomaly, double eccentricity) {
+        double e = eccentricity < 0.8 ? meanAnomaly : Math.PI;
+        for (int i = 0; i < 20; i++) {
+            double delta = (e - eccentricity * Math.sin(e) - meanAnomaly) / (1 - eccentricity * Math.cos(e));
+            e -= delta;
+            if (Math.abs(delta) < 1e-12) break;
+        }
+        return e;
+    }
+
+    /**
+     * Berechnet die mittlere Sternzeit Greenwich (IAU 1982, ohne Nutation).
+     *
+     * @param timeMillis Zeitpunkt in Millisekunden seit der Epoche
+     * @return Sternzeit in Radiant
+     */
+    static double greenwichSiderealTime(long timeMillis) {
+        double daysSinceJ2000 = timeMillis / 1000.0 / SECONDS_PER_DAY - 10957.5;
+        double degrees = (280.46061837 + 360.98564736629 * daysSinceJ2000) % 360;
+        return Math.toRadians(degrees < 0 ? degrees + 360 : degrees);
+    }
+}
@@ -0,0 +1,146 @@
+package data;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.interactions.commands.CommandInteraction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Hilfsfunktionen für das JFR-Tracing der Slash-Commands.
+ * Hält den Command-Kontext des aktuellen Threads, damit {@link UpstreamCallEvent}s dem auslösenden Command
+ * zugeordnet werden können, und startet bei Bedarf eine dauerhafte Aufzeichnung.
+ */
+public final class Tracing {
+
+    private static final Logger log = LoggerFactory.getLogger(Tracing.class);
+    private static final ThreadLocal<Context> CURRENT = new ThreadLocal<>();
+    private static final String RECORDING_NAME = "SpaceLinker";
+
+    /**
+     * Verhindert Instanziierung der Utility-Klasse.
+     */
+    private Tracing() {}
+
+    /**
+     * Command und Server, dem Upstream-Aufrufe im aktuellen Thread zugeordnet werden.
+     *
+     * @param command Name des Slash-Commands
+     * @param guild Server-ID oder {@code DM}
+     */
+    record Context(String command, String guild) {}
+
+    /**
+     * Gültigkeitsbereich eines Command-Kontexts, wird per try-with-resources geschlossen.
+     */
+    public interface Scope extends AutoCloseable {
+
+        /**
+         * Stellt den vorherigen Kontext des Threads wieder her.
+         */
+        @Override
+        void close();
+    }
+
+    /**
+     * Ordnet alle Upstream-Aufrufe, die im aktuellen Thread gestartet werden, der Interaktion zu.
+     *
+     * @param interaction laufende Slash-Command-Interaktion
+     * @return Scope, der den vorherigen Kontext beim Schließen wiederherstellt
+     */
+    public static Scope enter(CommandInteraction interaction) {
+        Context previous = CURRENT.get();
+        CURRENT.set(new Context(interaction.getName(), guildOf(interaction)));
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Bindet den Command-Kontext des aktuellen Threads an eine Aufgabe, die später in einem anderen Thread läuft.
+     *
+     * @param task auszuführende Aufgabe
+     * @param <T> Ergebnistyp
+     * @return Aufgabe, die beim Ausführen den aktuellen Kontext wiederherstellt
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        Context captured = CURRENT.get();
+        return () -> {
+            Context previous = CURRENT.get();
+            CURRENT.set(captured);
+            try {
+                return task.get();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    /**
+     * Liefert den Command-Kontext des aktuellen Threads.
+     *
+     * @return Kontext oder {@code null} außerhalb eines Commands
+     */
+    static Context current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Ermittelt die Server-ID einer Interaktion.
+     *
+     * @param interaction Slash-Command-Interaktion
+     * @return Server-ID oder {@code DM} für Direktnachrichten
+     */
+    static String guildOf(CommandInteraction interaction) {
+        Guild guild = interaction.getGuild();
+        return guild == null ? "DM" : guild.getId();
+    }
+
+    /**
+     * Startet eine dauerhafte JFR-Aufzeichnung mit dem Profil {@code default}, wenn {@code jfr.enabled=true} gesetzt ist.
+     * Die Aufzeichnung hält die letzten {@code jfr.max.age.minutes} Minuten bzw. {@code jfr.max.size.mb} MB vor,
+     * lässt sich jederzeit mit {@code jcmd <pid> JFR.dump name=SpaceLinker} sichern und wird beim Beenden nach
+     * {@code jfr.path} geschrieben. Ohne Aufzeichnung bleiben die Events deaktiviert und kosten praktisch nichts.
+     */
+    public static void startContinuousRecording() {
+        if (!Boolean.parseBoolean(Config.get("jfr.enabled", "false"))) {
+            return;
+        }
+        if (!FlightRecorder.isAvailable()) {
+            log.warn("JFR ist in dieser JVM nicht verfügbar, dauerhafte Aufzeichnung wird übersprungen.");
+            return;
+        }
+
+        try {
+            Recording recording = new Recording(Configuration.getConfiguration("default"));
+            recording.setName(RECORDING_NAME);
+            recording.setToDisk(true);
+            recording.setMaxAge(Duration.ofMinutes(Long.parseLong(Config.get("jfr.max.age.minutes", "360"))));
+            recording.setMaxSize(Long.parseLong(Config.get("jfr.max.size.mb", "100")) * 1024 * 1024);
+            recording.setDumpOnExit(true);
+            recording.setDestination(Path.of(Config.get("jfr.path", "spacelinker.jfr")));
+            recording.enable(CommandStageEvent.class);
+            recording.enable(UpstreamCallEvent.class);
+            recording.start();
+            log.info("JFR-Aufzeichnung '{}' gestartet.", RECORDING_NAME);
+        } catch (IOException | ParseException e) {
+            log.error("JFR-Aufzeichnung konnte nicht gestartet werden", e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package data;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR-Event für einen einzelnen HTTP-Aufruf an einen Upstream (NASA, open-notify, wheretheiss.at, Nominatim, GeoNames).
+ * Der Query-String wird bewusst nicht aufgezeichnet, da er API-Keys enthalten kann.
+ */
+@Name("spacelinker.UpstreamCall")
+@Label("Upstream Call")
+@Category({"SpaceLinker", "HTTP"})
+@Description("HTTP-Aufruf an einen externen Dienst")
+@StackTrace(false)
+class UpstreamCallEvent extends Event {
+
+    @Label("Command")
+    String command;
+
+    @Label("Guild")
+    String guild;
+
+    @Label("Host")
+    String host;
+
+    @Label("Path")
+    String path;
+
+    @Label("Status")
+    int status;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    @Label("Error")
+    String error;
+}
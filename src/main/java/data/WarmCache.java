@@ -0,0 +1,395 @@
+package data;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prozessinterner Cache für den letzten ISS-Datenstand, die APOD und Geo-Abfragen.
+ * Der Inhalt wird beim Beenden und periodisch in eine kompakte Binärdatei geschrieben und beim Start
+ * vor dem ersten Command wieder geladen, damit nach einem Neustart nicht alle Anfragen gleichzeitig
+ * an die Upstreams gehen. Einträge, die älter als ihre Gültigkeitsdauer sind, werden beim Laden verworfen.
+ */
+public final class WarmCache {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmCache.class);
+
+    private static final int MAGIC = 0x534C5743;
+    private static final short FORMAT_VERSION = 2;
+    private static final int MAX_STRING_BYTES = 1 << 20;
+
+    private final long issTtlMillis;
+    private final long apodTtlMillis;
+    private final long geoTtlMillis;
+    private final Map<String, GeoLookup> geo;
+
+    private volatile IssSnapshot iss;
+    private volatile ApodSnapshot apod;
+
+    /**
+     * Ergebnis der Geo-Abfragen für eine gerundete Position. Den Kartenlink enthält es nicht,
+     * weil er auf die genaue Position zeigt.
+     *
+     * @param fetchedAt Abrufzeitpunkt in Millisekunden seit der Epoche
+     * @param timezoneId Zeitzonen-ID
+     * @param country Land
+     * @param state Bundesland oder Staat
+     * @param city Stadt
+     * @param ocean Ozean
+     */
+    public record GeoLookup(long fetchedAt, String timezoneId, String country, String state, String city, String ocean) {}
+
+    /**
+     * Erstellt einen leeren Cache.
+     *
+     * @param issTtl Gültigkeit des ISS-Datenstands
+     * @param apodTtl Gültigkeit der APOD
+     * @param geoTtl Gültigkeit einer Geo-Abfrage
+     * @param geoMaxEntries Höchstzahl gecachter Geo-Abfragen, die ältesten Zugriffe werden zuerst verdrängt
+     */
+    public WarmCache(Duration issTtl, Duration apodTtl, Duration geoTtl, int geoMaxEntries) {
+        this.issTtlMillis = issTtl.toMillis();
+        this.apodTtlMillis = apodTtl.toMillis();
+        this.geoTtlMillis = geoTtl.toMillis();
+        this.geo = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, GeoLookup> eldest) {
+                return size() > geoMaxEntries;
+            }
+        };
+    }
+
+    /**
+     * Erstellt den Cache mit {@code cache.iss.ms} (Standard 10000), {@code cache.apod.minutes} (60),
+     * {@code cache.geo.hours} (24) und {@code cache.geo.size} (4096).
+     *
+     * @return leerer Cache
+     */
+    public static WarmCache fromConfig() {
+        return new WarmCache(
+                Duration.ofMillis(Long.parseLong(Config.get("cache.iss.ms", "10000"))),
+                Duration.ofMinutes(Long.parseLong(Config.get("cache.apod.minutes", "60"))),
+                Duration.ofHours(Long.parseLong(Config.get("cache.geo.hours", "24"))),
+                Integer.parseInt(Config.get("cache.geo.size", "4096")));
+    }
+
+    /**
+     * Liefert den letzten ISS-Datenstand, sofern er noch gültig ist.
+     *
+     * @return Datenstand oder {@code null}
+     */
+    public IssSnapshot iss() {
+        IssSnapshot current = iss;
+        return current != null && fresh(current.fetchedAt(), issTtlMillis) ? current : null;
+    }
+
+    /**
+     * Merkt sich einen vollständig geladenen ISS-Datenstand.
+     *
+     * @param snapshot Datenstand
+     */
+    public void putIss(IssSnapshot snapshot) {
+        IssSnapshot current = iss;
+        if (current == null || current.fetchedAt() <= snapshot.fetchedAt()) {
+            iss = snapshot;
+        }
+    }
+
+    /**
+     * Liefert die zuletzt geladene APOD, sofern sie noch gültig ist.
+     *
+     * @return APOD oder {@code null}
+     */
+    public ApodSnapshot apod() {
+        ApodSnapshot current = apod;
+        return current != null && fresh(current.fetchedAt(), apodTtlMillis) ? current : null;
+    }
+
+    /**
+     * Merkt sich eine geladene APOD.
+     *
+     * @param snapshot APOD
+     */
+    public void putApod(ApodSnapshot snapshot) {
+        apod = snapshot;
+    }
+
+    /**
+     * Liefert die Geo-Abfrage für die auf eine Nachkommastelle gerundete Position.
+     *
+     * @param latitude Breitengrad
+     * @param longitude Längengrad
+     * @return gültiges Ergebnis oder {@code null}
+     */
+    public GeoLookup geo(String latitude, String longitude) {
+        String key = geoKey(latitude, longitude);
+        if (key == null) return null;
+        synchronized (geo) {
+            GeoLookup lookup = geo.get(key);
+            return lookup != null && fresh(lookup.fetchedAt(), geoTtlMillis) ? lookup : null;
+        }
+    }
+
+    /**
+     * Merkt sich das Ergebnis der Geo-Abfragen für eine Position.
+     *
+     * @param latitude Breitengrad
+     * @param longitude Längengrad
+     * @param lookup Ergebnis
+     */
+    public void putGeo(String latitude, String longitude, GeoLookup lookup) {
+        String key = geoKey(latitude, longitude);
+        if (key == null) return;
+        synchronized (geo) {
+            geo.put(key, lookup);
+        }
+    }
+
+    /**
+     * Bildet den Cache-Schlüssel aus der auf eine Nachkommastelle (ca. 11 km) gerundeten Position.
+     *
+     * @param latitude Breitengrad
+     * @param longitude Längengrad
+     * @return Schlüssel oder {@code null} bei ungültigen Koordinaten
+     */
+    static String geoKey(String latitude, String longitude) {
+        if (latitude == null || longitude == null) return null;
+        try {
+            return String.format(Locale.ROOT, "%.1f,%.1f", Double.parseDouble(latitude), Double.parseDouble(longitude));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Prüft, ob ein Eintrag jünger als seine Gültigkeitsdauer ist.
+     *
+     * @param fetchedAt Abrufzeitpunkt
+     * @param ttlMillis Gültigkeitsdauer
+     * @return {@code true}, wenn der Eintrag verwendet werden darf
+     */
+    private static boolean fresh(long fetchedAt, long ttlMillis) {
+        return System.currentTimeMillis() - fetchedAt <= ttlMillis;
+    }
+
+    /**
+     * Schreibt alle noch gültigen Einträge in eine Datei. Die Datei wird zuerst daneben angelegt und dann
+     * ersetzt, damit ein Abbruch keine halbe Datei hinterlässt. Jeder Aufruf schreibt in eine eigene temporäre Datei,
+     * damit sich gleichzeitige Sicherungen, auch aus mehreren Prozessen, nicht gegenseitig die Datei kürzen.
+     *
+     * @param path Zieldatei
+     * @throws IOException bei Schreibfehlern
+     */
+    public synchronized void save(Path path) throws IOException {
+        IssSnapshot currentIss = iss();
+        ApodSnapshot currentApod = apod();
+        List<Map.Entry<String, GeoLookup>> geoEntries = new ArrayList<>();
+        synchronized (geo) {
+            geo.forEach((key, lookup) -> geoEntries.add(Map.entry(key, lookup)));
+        }
+        geoEntries.removeIf(entry -> !fresh(entry.getValue().fetchedAt(), geoTtlMillis));
+
+        Path absolute = path.toAbsolutePath();
+        Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName() + ".", ".tmp");
+        try {
+            write(temp, currentIss, currentApod, geoEntries);
+            Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Schreibt die Einträge im Dateiformat von {@link #save(Path)}.
+     *
+     * @param file Zieldatei
+     * @param currentIss ISS-Eintrag oder {@code null}
+     * @param currentApod APOD-Eintrag oder {@code null}
+     * @param geoEntries gültige Geo-Einträge
+     * @throws IOException bei Schreibfehlern
+     */
+    private static void write(Path file, IssSnapshot currentIss, ApodSnapshot currentApod,
+                              List<Map.Entry<String, GeoLookup>> geoEntries) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(FORMAT_VERSION);
+
+            out.writeBoolean(currentIss != null);
+            if (currentIss != null) {
+                out.writeLong(currentIss.fetchedAt());
+                out.writeDouble(currentIss.velocity());
+                out.writeDouble(currentIss.altitude());
+                writeStrings(out, currentIss.latitude(), currentIss.longitude(), currentIss.timezoneId(), currentIss.mapUrl(),
+                        currentIss.country(), currentIss.state(), currentIss.city(), currentIss.ocean());
+            }
+
+            out.writeBoolean(currentApod != null);
+            if (currentApod != null) {
+                out.writeLong(currentApod.fetchedAt());
+                writeStrings(out, currentApod.date(), currentApod.title(), currentApod.explanation(), currentApod.url(),
+                        currentApod.hdurl(), currentApod.mediaType(), currentApod.thumbnailUrl());
+            }
+
+            out.writeInt(geoEntries.size());
+            for (Map.Entry<String, GeoLookup> entry : geoEntries) {
+                GeoLookup lookup = entry.getValue();
+                writeStrings(out, entry.getKey());
+                out.writeLong(lookup.fetchedAt());
+                writeStrings(out, lookup.timezoneId(), lookup.country(), lookup.state(), lookup.city(), lookup.ocean());
+            }
+        }
+    }
+
+    /**
+     * Lädt die Einträge einer mit {@link #save(Path)} geschriebenen Datei; abgelaufene Einträge werden übersprungen.
+     * Eine fehlende Datei oder ein unbekanntes Format wird ignoriert.
+     *
+     * @param path Quelldatei
+     * @return Anzahl der übernommenen Einträge
+     * @throws IOException bei Lesefehlern einer vorhandenen Datei
+     */
+    public int load(Path path) throws IOException {
+        int loaded = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readShort() != FORMAT_VERSION) {
+                log.warn("Cache-Datei {} hat ein unbekanntes Format und wird ignoriert.", path);
+                return 0;
+            }
+
+            if (in.readBoolean()) {
+                long fetchedAt = in.readLong();
+                double velocity = in.readDouble();
+                double altitude = in.readDouble();
+                String[] s = readStrings(in, 8);
+                if (fresh(fetchedAt, issTtlMillis)) {
+                    putIss(new IssSnapshot(fetchedAt, s[0], s[1], velocity, altitude, s[2], s[3], s[4], s[5], s[6], s[7]));
+                    loaded++;
+                }
+            }
+
+            if (in.readBoolean()) {
+                long fetchedAt = in.readLong();
+                String[] s = readStrings(in, 7);
+                if (fresh(fetchedAt, apodTtlMillis)) {
+                    putApod(new ApodSnapshot(fetchedAt, s[0], s[1], s[2], s[3], s[4], s[5], s[6]));
+                    loaded++;
+                }
+            }
+
+            int geoCount = in.readInt();
+            for (int i = 0; i < geoCount; i++) {
+                String key = readStrings(in, 1)[0];
+                long fetchedAt = in.readLong();
+                String[] s = readStrings(in, 5);
+                if (fresh(fetchedAt, geoTtlMillis)) {
+                    synchronized (geo) {
+                        geo.put(key, new GeoLookup(fetchedAt, s[0], s[1], s[2], s[3], s[4]));
+                    }
+                    loaded++;
+                }
+            }
+        } catch (NoSuchFileException e) {
+            return 0;
+        }
+        return loaded;
+    }
+
+    /**
+     * Lädt die Datei aus {@code cache.path} (Standard {@code spacelinker-cache.bin}) und sichert den Cache dorthin
+     * beim Beenden der JVM sowie alle {@code cache.save.minutes} Minuten (Standard 5), damit auch nach einem Absturz
+     * ein nicht zu alter Stand vorliegt. Mit {@code cache.persist=false} bleibt der Cache rein im Speicher.
+     */
+    public void persistFromConfig() {
+        if (!Boolean.parseBoolean(Config.get("cache.persist", "true"))) {
+            return;
+        }
+        Path path = Path.of(Config.get("cache.path", "spacelinker-cache.bin"));
+        long saveMinutes = Long.parseLong(Config.get("cache.save.minutes", "5"));
+
+        try {
+            int loaded = load(path);
+            log.info("{} Cache-Einträge aus {} geladen.", loaded, path);
+        } catch (IOException e) {
+            log.warn("Cache-Datei {} konnte nicht geladen werden: {}", path, e.getMessage());
+        }
+
+        Runnable save = () -> {
+            try {
+                save(path);
+            } catch (IOException e) {
+                log.warn("Cache-Datei {} konnte nicht geschrieben werden: {}", path, e.getMessage());
+            }
+        };
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "SpaceLinker-CacheSave-Periodic");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(save, saveMinutes, saveMinutes, TimeUnit.MINUTES);
+        // Keine periodische Sicherung mehr nach der letzten; eine laufende wartet über die Sperre von save
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            scheduler.shutdownNow();
+            save.run();
+        }, "SpaceLinker-CacheSave"));
+    }
+
+    /**
+     * Schreibt Strings mit Längenpräfix als UTF-8, {@code -1} steht für {@code null}.
+     *
+     * @param out Ziel
+     * @param values Werte
+     * @throws IOException bei Schreibfehlern
+     */
+    private static void writeStrings(DataOutputStream out, String... values) throws IOException {
+        for (String value : values) {
+            if (value == null) {
+                out.writeInt(-1);
+            } else {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+    }
+
+    /**
+     * Liest Strings, die mit {@link #writeStrings} geschrieben wurden.
+     *
+     * @param in Quelle
+     * @param count Anzahl
+     * @return Werte
+     * @throws IOException bei Lesefehlern
+     */
+    private static String[] readStrings(DataInputStream in, int count) throws IOException {
+        String[] values = new String[count];
+        for (int i = 0; i < count; i++) {
+            int length = in.readInt();
+            if (length > MAX_STRING_BYTES) {
+                throw new IOException("Ungültige Stringlänge " + length);
+            }
+            if (length >= 0) {
+                values[i] = new String(in.readNBytes(length), StandardCharsets.UTF_8);
+            }
+        }
+        return values;
+    }
+}
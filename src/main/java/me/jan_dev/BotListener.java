@@ -1,5 +1,6 @@
 package me.jan_dev;
 
+import data.CommandStageEvent;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
 import org.jetbrains.annotations.NotNull;
@@ -18,12 +19,15 @@ public class BotListener extends ListenerAdapter {
     public void onSlashCommandInteraction(@NotNull SlashCommandInteractionEvent event) {
         if (!event.getName().equals("help")) return;
 
+        CommandStageEvent send = CommandStageEvent.begin(event, "send");
         event.reply(
                 "**Verfügbare Befehle:**\n\n" +
                         "`/picture` - Zeigt das NASA-Bild des Tages\n" +
+                        "`/picture abo:subscribe` - Postet das NASA-Bild täglich in diesem Kanal\n" +
                         "`/pictureinfo` - Zeigt Infos zum NASA-Bild\n" +
                         "`/iss` - Zeigt die aktuelle ISS-Position\n" +
+                        "`/sat` - Zeigt die aktuelle Position eines Satelliten, z. B. Hubble oder 25544\n" +
                         "`/help` - Zeigt diese Hilfe-Nachricht"
-        ).setEphemeral(true).queue();
+        ).setEphemeral(true).queue(send::succeeded, send::failed);
     }
 }
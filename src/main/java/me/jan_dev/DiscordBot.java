@@ -1,19 +1,32 @@
 package me.jan_dev;
 
+import commands.ApodBroadcaster;
+import commands.CommandThrottle;
 import commands.ISSData;
+import commands.NasaCommandHandler;
 import commands.NasaPictureOfTheDay;
+import commands.SatelliteCatalog;
+import commands.SatelliteData;
+import commands.SnapshotPublisher;
+import data.ApodMediaCache;
 import data.Config;
+import data.SharedSnapshot;
+import data.SubscriptionStore;
+import data.Tracing;
+import data.WarmCache;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.JDABuilder;
 import net.dv8tion.jda.api.entities.Activity;
 import net.dv8tion.jda.api.interactions.commands.Command;
-import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+import net.dv8tion.jda.api.interactions.commands.OptionType;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
-import net.dv8tion.jda.api.requests.GatewayIntent;
-import net.dv8tion.jda.api.utils.cache.CacheFlag;
+import net.dv8tion.jda.api.interactions.commands.build.OptionData;
+import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -26,10 +39,17 @@ public class DiscordBot {
 
     private static final Logger log = LoggerFactory.getLogger(DiscordBot.class);
 
-    private static final List<CommandData> EXPECTED_COMMANDS = List.of(
-            Commands.slash("picture", "Zeigt das aktuelle 'Picture of the Day' von der NASA"),
+    private static final List<SlashCommandData> EXPECTED_COMMANDS = List.of(
+            Commands.slash("picture", "Zeigt das aktuelle 'Picture of the Day' von der NASA")
+                    .addOptions(new OptionData(OptionType.STRING, NasaPictureOfTheDay.SUBSCRIPTION_OPTION,
+                            "Bild des Tages täglich in diesem Kanal posten oder damit aufhören", false)
+                            .addChoice("subscribe", "subscribe")
+                            .addChoice("unsubscribe", "unsubscribe")),
             Commands.slash("pictureinfo", "Gibt Infos über das 'Picture of the Day' von der NASA"),
             Commands.slash("iss", "Gibt die aktuelle Position der ISS aus"),
+            Commands.slash("sat", "Gibt die aktuelle Position eines Satelliten aus")
+                    .addOptions(new OptionData(OptionType.STRING, SatelliteData.SATELLITE_OPTION,
+                            "Name oder NORAD-Nummer, z. B. Hubble oder 25544", true, true)),
             Commands.slash("help", "Zeigt eine Hilfeliste an")
     );
 
@@ -38,8 +58,10 @@ public class DiscordBot {
      *
      * @param args ungenutzte Startargumente
      * @throws InterruptedException falls das Warten auf JDA unterbrochen wird
+     * @throws IOException falls die Abo-Datei nicht gelesen werden kann
      */
-    public static void main(String[] args) throws InterruptedException {
+    public static void main(String[] args) throws InterruptedException, IOException {
+        long mainMillis = System.currentTimeMillis();
 
         String token = Config.get("botToken");
 
@@ -47,24 +69,50 @@ public class DiscordBot {
             throw new RuntimeException("Bot-Token nicht in config.properties gefunden!");
         }
 
-        JDA bot = JDABuilder.createDefault(token,
-                        GatewayIntent.GUILD_MESSAGES)
+        Tracing.startContinuousRecording();
+
+        SharedSnapshot snapshot = SharedSnapshot.fromConfig();
+        if (snapshot != null && snapshot.isPublisher()) {
+            SnapshotPublisher.start(snapshot);
+        }
+
+        // Vor dem Login laden, damit schon die ersten Commands nach einem Neustart aus dem Cache bedient werden
+        WarmCache cache = WarmCache.fromConfig();
+        cache.persistFromConfig();
+
+        NasaCommandHandler nasa = new NasaCommandHandler(snapshot, cache, ApodMediaCache.fromConfig());
+        SubscriptionStore subscriptions = SubscriptionStore.fromConfig();
+        SatelliteCatalog satellites = SatelliteCatalog.start();
+
+        GatewayProfile profile = GatewayProfile.fromConfig();
+        log.info("Gateway-Profil: {}", profile.configName());
+
+        JDABuilder builder = profile.builder(token)
                 .setActivity(Activity.playing("mit der ISS"))
                 .addEventListeners(new BotListener())
-                .addEventListeners(new NasaPictureOfTheDay())
-                .addEventListeners(new ISSData())
-                .disableCache(
-                        CacheFlag.VOICE_STATE,
-                        CacheFlag.EMOJI,
-                        CacheFlag.STICKER,
-                        CacheFlag.SCHEDULED_EVENTS
-                )
-                .build()
-                .awaitReady();
+                .addEventListeners(new NasaPictureOfTheDay(nasa, subscriptions))
+                .addEventListeners(new ISSData(snapshot, cache))
+                .addEventListeners(new SatelliteData(satellites));
+
+        // Drosselt vor allen Listenern, damit gedrosselte Commands keine Upstream-Abfrage auslösen
+        CommandThrottle throttle = CommandThrottle.fromConfig();
+        if (throttle != null) {
+            builder.setEventManager(throttle);
+        }
+
+        JDA bot = builder.build().awaitReady();
 
         registerCommandsIfNeeded(bot);
+        // Nur ein Prozess verteilt die APOD, sonst ginge sie pro Prozess einmal an jeden Kanal
+        if (snapshot == null || snapshot.isPublisher()) {
+            ApodBroadcaster.start(bot, nasa, subscriptions);
+        } else {
+            log.info("APOD-Verteilung läuft im Publisher-Prozess, nicht in diesem Leser.");
+        }
 
-        log.info("Bot ist bereit und läuft auf {} Server(n)!", bot.getGuilds().size());
+        long jvmStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+        log.info("Bot ist bereit und läuft auf {} Server(n)! (main nach {} ms, bereit nach {} ms)",
+                bot.getGuilds().size(), mainMillis - jvmStartMillis, System.currentTimeMillis() - jvmStartMillis);
     }
 
     /**
@@ -73,15 +121,21 @@ public class DiscordBot {
      * @param bot aktive JDA-Instanz
      */
     private static void registerCommandsIfNeeded(JDA bot) {
-        Set<String> expectedNames = EXPECTED_COMMANDS.stream()
-                .map(CommandData::getName)
+        Set<String> expected = EXPECTED_COMMANDS.stream()
+                .map(command -> signature(command.getName(), command.getOptions().stream()
+                        .map(option -> optionSignature(option.getName(), option.getType(), option.isRequired(),
+                                option.isAutoComplete(), option.getChoices()))
+                        .toList()))
                 .collect(Collectors.toSet());
 
-        Set<String> existingNames = bot.retrieveCommands().complete().stream()
-                .map(Command::getName)
+        Set<String> existing = bot.retrieveCommands().complete().stream()
+                .map(command -> signature(command.getName(), command.getOptions().stream()
+                        .map(option -> optionSignature(option.getName(), option.getType(), option.isRequired(),
+                                option.isAutoComplete(), option.getChoices()))
+                        .toList()))
                 .collect(Collectors.toSet());
 
-        if (existingNames.equals(expectedNames)) {
+        if (existing.equals(expected)) {
             log.info("Slash-Commands bereits registriert, überspringe Update.");
             return;
         }
@@ -92,4 +146,30 @@ public class DiscordBot {
                 failure -> log.error("Fehler beim Registrieren der Slash-Commands", failure)
         );
     }
+
+    /**
+     * Beschreibt einen Command über Namen und Optionen, um registrierte und erwartete Commands zu vergleichen.
+     *
+     * @param name Command-Name
+     * @param options Signaturen der Optionen
+     * @return Vergleichsschlüssel
+     */
+    private static String signature(String name, List<String> options) {
+        return name + options;
+    }
+
+    /**
+     * Beschreibt eine Command-Option über Namen, Typ, Pflichtangabe, Autovervollständigung und Auswahlwerte.
+     *
+     * @param name Optionsname
+     * @param type Optionstyp
+     * @param required {@code true}, wenn die Option angegeben werden muss
+     * @param autoComplete {@code true}, wenn Discord während der Eingabe Vorschläge anfragt
+     * @param choices feste Auswahlwerte
+     * @return Vergleichsschlüssel
+     */
+    private static String optionSignature(String name, OptionType type, boolean required, boolean autoComplete,
+                                          List<Command.Choice> choices) {
+        return name + ":" + type + ":" + required + ":" + autoComplete + ":" + choices.stream().map(Command.Choice::getName).toList();
+    }
 }
@@ -0,0 +1,167 @@
+package me.jan_dev;
+
+import data.Config;
+import net.dv8tion.jda.api.JDABuilder;
+import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.dv8tion.jda.api.requests.RestConfig;
+import net.dv8tion.jda.api.utils.ChunkingFilter;
+import net.dv8tion.jda.api.utils.ConcurrentSessionController;
+import net.dv8tion.jda.api.utils.MemberCachePolicy;
+import net.dv8tion.jda.api.utils.cache.CacheFlag;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gateway- und Cache-Einstellungen, mit denen der Bot bei Discord angemeldet wird.
+ * Auswahl über {@code gateway.profile} ({@code default} oder {@code interactions-only}).
+ */
+public enum GatewayProfile {
+
+    /**
+     * Bisheriges Verhalten: Nachrichten-Intent, Standard-Member-Cache und die Caches,
+     * die ohne weitere Intents möglich sind.
+     */
+    DEFAULT("default",
+            EnumSet.of(GatewayIntent.GUILD_MESSAGES),
+            EnumSet.of(CacheFlag.MEMBER_OVERRIDES, CacheFlag.ROLE_TAGS, CacheFlag.FORUM_TAGS),
+            MemberCachePolicy.DEFAULT,
+            250),
+
+    /**
+     * Nur für Slash-Commands: keine Intents, keine optionalen Caches, keine Member außer dem Bot selbst,
+     * kleinste zulässige Large-Threshold und knapp bemessene Thread-Pools.
+     * Server und Kanäle bleiben gecacht, da JDA Interaktionen aus unbekannten Servern verwirft.
+     */
+    INTERACTIONS_ONLY("interactions-only",
+            EnumSet.noneOf(GatewayIntent.class),
+            EnumSet.noneOf(CacheFlag.class),
+            MemberCachePolicy.NONE,
+            50) {
+
+        @Override
+        JDABuilder builder(String token) {
+            int callbackThreads = Math.max(2, Runtime.getRuntime().availableProcessors());
+            return super.builder(token)
+                    .setCallbackPool(Executors.newFixedThreadPool(callbackThreads, daemonThreads("Callback")), true)
+                    .setGatewayPool(Executors.newSingleThreadScheduledExecutor(daemonThreads("Gateway")), true)
+                    .setRateLimitScheduler(Executors.newSingleThreadScheduledExecutor(daemonThreads("RateLimit-Scheduler")), true)
+                    .setRateLimitElastic(Executors.newVirtualThreadPerTaskExecutor(), true);
+        }
+    };
+
+    private final String configName;
+    private final EnumSet<GatewayIntent> intents;
+    private final EnumSet<CacheFlag> cacheFlags;
+    private final MemberCachePolicy memberCachePolicy;
+    private final int largeThreshold;
+
+    GatewayProfile(String configName, EnumSet<GatewayIntent> intents, EnumSet<CacheFlag> cacheFlags,
+                   MemberCachePolicy memberCachePolicy, int largeThreshold) {
+        this.configName = configName;
+        this.intents = intents;
+        this.cacheFlags = cacheFlags;
+        this.memberCachePolicy = memberCachePolicy;
+        this.largeThreshold = largeThreshold;
+    }
+
+    /**
+     * Liest das Profil aus {@code gateway.profile}.
+     *
+     * @return konfiguriertes Profil, standardmäßig {@link #DEFAULT}
+     */
+    public static GatewayProfile fromConfig() {
+        String name = Config.get("gateway.profile", DEFAULT.configName).trim().toLowerCase(Locale.ROOT);
+        for (GatewayProfile profile : values()) {
+            if (profile.configName.equals(name)) {
+                return profile;
+            }
+        }
+        throw new IllegalStateException("Unbekanntes gateway.profile: " + name);
+    }
+
+    /**
+     * Erstellt einen {@link JDABuilder} mit den Einstellungen dieses Profils. Sind {@code discord.api.url} bzw.
+     * {@code discord.gateway.url} gesetzt, gehen REST-API und Gateway an diese Adressen statt an Discord, z. B. an
+     * einen Proxy oder an den Stub im Trainingslauf.
+     *
+     * @param token Bot-Token
+     * @return vorkonfigurierter Builder
+     */
+    JDABuilder builder(String token) {
+        JDABuilder builder = JDABuilder.create(token, intents)
+                .disableCache(EnumSet.complementOf(cacheFlags))
+                .enableCache(cacheFlags)
+                .setMemberCachePolicy(memberCachePolicy)
+                .setChunkingFilter(ChunkingFilter.NONE)
+                .setLargeThreshold(largeThreshold);
+
+        String apiUrl = Config.get("discord.api.url");
+        if (apiUrl != null) {
+            builder.setRestConfig(new RestConfig().setBaseUrl(apiUrl));
+        }
+        String gatewayUrl = Config.get("discord.gateway.url");
+        if (gatewayUrl != null) {
+            builder.setSessionController(new ConcurrentSessionController() {
+                @Override
+                public String getGateway() {
+                    return gatewayUrl;
+                }
+            });
+        }
+        return builder;
+    }
+
+    /**
+     * Gibt den Namen in der Konfiguration zurück.
+     *
+     * @return Wert für {@code gateway.profile}
+     */
+    String configName() { return configName; }
+
+    /**
+     * Gibt die aktivierten Gateway-Intents zurück.
+     *
+     * @return Intents
+     */
+    EnumSet<GatewayIntent> intents() { return EnumSet.copyOf(intents); }
+
+    /**
+     * Gibt die aktivierten optionalen Caches zurück.
+     *
+     * @return Cache-Flags
+     */
+    EnumSet<CacheFlag> cacheFlags() { return EnumSet.copyOf(cacheFlags); }
+
+    /**
+     * Gibt die Regel zurück, welche Member gecacht werden.
+     *
+     * @return Member-Cache-Policy
+     */
+    MemberCachePolicy memberCachePolicy() { return memberCachePolicy; }
+
+    /**
+     * Gibt die Mitgliederzahl zurück, ab der Discord einen Server als groß behandelt und weniger Member mitschickt.
+     *
+     * @return Large-Threshold
+     */
+    int largeThreshold() { return largeThreshold; }
+
+    /**
+     * Erzeugt benannte Daemon-Threads für die JDA-Pools.
+     *
+     * @param name Pool-Name
+     * @return Thread-Factory
+     */
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "SpaceLinker-" + name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,249 @@
+package commands;
+
+import data.ApodSnapshot;
+import data.SubscriptionStore;
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.entities.channel.middleman.GuildMessageChannel;
+import net.dv8tion.jda.api.requests.restaction.MessageCreateAction;
+import net.dv8tion.jda.api.utils.FileUpload;
+import net.dv8tion.jda.api.utils.messages.MessageCreateBuilder;
+import net.dv8tion.jda.api.utils.messages.MessageCreateData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RunnableScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ApodBroadcasterTest {
+
+    private static final Duration ROLLOVER_DELAY = Duration.ofMinutes(5);
+    private static final Duration RETRY_DELAY = Duration.ofMinutes(15);
+    private static final String CDN_URL = "https://cdn.discordapp.com/attachments/43/1/apod.jpg";
+
+    @TempDir
+    Path dir;
+
+    private final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1);
+    private final PacedSendQueue queue = new PacedSendQueue(100, Duration.ZERO);
+    private final AtomicInteger channelLookups = new AtomicInteger();
+    private final Set<Long> missingChannels = ConcurrentHashMap.newKeySet();
+    private final FakeHandler handler = new FakeHandler();
+    private SubscriptionStore subscriptions;
+
+    @BeforeEach
+    void subscribe() throws Exception {
+        subscriptions = SubscriptionStore.open(dir.resolve("subscriptions.txt"));
+        subscriptions.add(42L);
+        subscriptions.setLastBroadcastDate("2024-05-01");
+    }
+
+    @AfterEach
+    void stop() {
+        scheduler.shutdownNow();
+        queue.shutdown();
+    }
+
+    @Test
+    void broadcastsOncePerDayAndWaitsForNextRollover() throws Exception {
+        handler.apod = apod("2024-05-02");
+
+        broadcaster("2024-05-02T00:05:00").check();
+        assertEquals(1, handler.refreshes.get());
+        assertEquals("2024-05-02", subscriptions.lastBroadcastDate());
+        assertEquals(Duration.ofHours(24), nextDelay());
+        awaitChannelLookups(1);
+
+        broadcaster("2024-05-02T09:00:00").check();
+        assertEquals(1, handler.refreshes.get(), "am selben Tag wird nicht erneut geladen");
+        assertEquals(Duration.ofHours(15).plusMinutes(5), nextDelay());
+        assertEquals(1, channelLookups.get());
+    }
+
+    @Test
+    void uploadsTheImageOnceAndReusesItsUrl() throws Exception {
+        subscriptions.add(43L);
+        subscriptions.add(44L);
+        subscriptions.add(45L);
+        handler.apod = apod("2024-05-02");
+        List<String> sent = new CopyOnWriteArrayList<>();
+        missingChannels.add(42L);
+
+        broadcaster("2024-05-02T00:05:00", sent).check();
+        awaitChannelLookups(4);
+        Thread.sleep(100);
+
+        // 42 fehlt im Cache, also lädt 43 hoch und 44 und 45 verweisen auf dessen CDN-URL
+        assertEquals(List.of(
+                "43:upload",
+                "44:" + CDN_URL,
+                "45:" + CDN_URL), sent.stream().sorted().toList());
+    }
+
+    @Test
+    void retriesUntilNasaPublishesTheNewApod() throws Exception {
+        handler.apod = apod("2024-05-01");
+
+        broadcaster("2024-05-02T00:05:00").check();
+        assertEquals(RETRY_DELAY, nextDelay());
+        assertEquals("2024-05-01", subscriptions.lastBroadcastDate());
+
+        handler.apod = apod("2024-05-02");
+        broadcaster("2024-05-02T00:20:00").check();
+        assertEquals("2024-05-02", subscriptions.lastBroadcastDate());
+        assertEquals(Duration.ofHours(23).plusMinutes(45), nextDelay());
+        assertEquals(2, handler.refreshes.get());
+    }
+
+    @Test
+    void catchesUpOnAMissedDayAndKeepsWaitingForToday() throws Exception {
+        subscriptions.setLastBroadcastDate("2024-04-30");
+        handler.apod = apod("2024-05-01");
+
+        broadcaster("2024-05-02T00:05:00").check();
+        assertEquals("2024-05-01", subscriptions.lastBroadcastDate(), "die verpasste APOD wird nachgeholt");
+        assertEquals(RETRY_DELAY, nextDelay(), "die APOD von heute steht noch aus");
+
+        handler.apod = apod("2024-05-02");
+        broadcaster("2024-05-02T00:20:00").check();
+        assertEquals("2024-05-02", subscriptions.lastBroadcastDate());
+        assertEquals(Duration.ofHours(23).plusMinutes(45), nextDelay());
+        awaitChannelLookups(2);
+    }
+
+    @Test
+    void keepsSchedulingWhenPreparingTheImageThrows() throws Exception {
+        handler.apod = apod("2024-05-02");
+        handler.mediaFailure = new IllegalArgumentException("Illegal character in path");
+
+        broadcaster("2024-05-02T00:05:00").check();
+        assertEquals("2024-05-02", subscriptions.lastBroadcastDate(), "ohne Bild wird trotzdem verteilt");
+        assertEquals(Duration.ofHours(24), nextDelay());
+    }
+
+    @Test
+    void keepsSchedulingWhenLoadingTheApodThrows() throws Exception {
+        handler.refreshFailure = new IllegalStateException("kaputt");
+
+        broadcaster("2024-05-02T00:05:00").check();
+        assertEquals(RETRY_DELAY, nextDelay());
+        assertEquals("2024-05-01", subscriptions.lastBroadcastDate());
+    }
+
+    private ApodBroadcaster broadcaster(String newYorkTime) {
+        return broadcaster(newYorkTime, new CopyOnWriteArrayList<>());
+    }
+
+    /**
+     * Baut den Verteiler mit einer JDA-Attrappe. Kanäle aus {@link #missingChannels} fehlen im Cache, alle anderen
+     * nehmen Nachrichten an und antworten wie Discord mit der CDN-URL des Anhangs im Embed.
+     *
+     * @param sent sammelt pro Nachricht {@code Kanal:upload} oder {@code Kanal:Bild-URL}
+     */
+    private ApodBroadcaster broadcaster(String newYorkTime, List<String> sent) {
+        Clock clock = Clock.fixed(LocalDateTime.parse(newYorkTime).atZone(ApodSnapshot.NASA_ZONE).toInstant(), ZoneOffset.UTC);
+        JDA jda = proxy(JDA.class, (method, args) -> {
+            if (!method.getName().equals("getChannelById")) return null;
+            channelLookups.incrementAndGet();
+            long channelId = (Long) args[1];
+            return missingChannels.contains(channelId) ? null : channel(channelId, sent);
+        });
+        return new ApodBroadcaster(jda, handler, subscriptions, queue, scheduler, clock, ROLLOVER_DELAY, RETRY_DELAY);
+    }
+
+    private static GuildMessageChannel channel(long channelId, List<String> sent) {
+        return proxy(GuildMessageChannel.class, (method, args) -> {
+            if (!method.getName().equals("sendMessage") || !(args[0] instanceof MessageCreateData data)) return null;
+            boolean upload = !data.getFiles().isEmpty();
+            sent.add(channelId + ":" + (upload ? "upload" : data.getEmbeds().get(0).getImage().getUrl()));
+            MessageEmbed echoed = new EmbedBuilder().setImage(upload ? CDN_URL : data.getEmbeds().get(0).getImage().getUrl()).build();
+            Message message = proxy(Message.class, (m, a) -> m.getName().equals("getEmbeds") ? List.of(echoed) : null);
+            return proxy(MessageCreateAction.class, (m, a) -> m.getName().equals("submit") ? CompletableFuture.completedFuture(message) : null);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, BiFunction<Method, Object[], Object> handler) {
+        return (T) Proxy.newProxyInstance(ApodBroadcasterTest.class.getClassLoader(), new Class<?>[]{type},
+                (self, method, args) -> handler.apply(method, args));
+    }
+
+    /**
+     * Entnimmt die einzige geplante Prüfung und liefert ihre Wartezeit auf Minuten gerundet.
+     */
+    private Duration nextDelay() {
+        Object[] tasks = scheduler.getQueue().toArray();
+        assertEquals(1, tasks.length, "genau eine nächste Prüfung");
+        scheduler.getQueue().clear();
+        long millis = ((RunnableScheduledFuture<?>) tasks[0]).getDelay(TimeUnit.MILLISECONDS);
+        return Duration.ofMinutes(Math.round(millis / 60_000.0));
+    }
+
+    private void awaitChannelLookups(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (channelLookups.get() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(count, channelLookups.get());
+    }
+
+    private static ApodSnapshot apod(String date) {
+        return new ApodSnapshot(1, date, "Nebel", "Erklärung", "https://apod.nasa.gov/image.jpg", null, "image", null);
+    }
+
+    /**
+     * Handler, der eine vorgegebene APOD liefert und Aufrufe zählt, ohne die NASA zu fragen.
+     */
+    private static final class FakeHandler extends NasaCommandHandler {
+
+        private final AtomicInteger refreshes = new AtomicInteger();
+        private volatile ApodSnapshot apod;
+        private volatile RuntimeException refreshFailure;
+        private volatile RuntimeException mediaFailure;
+
+        @Override
+        public CompletableFuture<ApodSnapshot> refreshApodAsync() {
+            refreshes.incrementAndGet();
+            if (refreshFailure != null) throw refreshFailure;
+            return CompletableFuture.completedFuture(apod);
+        }
+
+        @Override
+        public CompletableFuture<Void> prepareMediaAsync(ApodSnapshot apod) {
+            if (mediaFailure != null) throw mediaFailure;
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public MessageCreateData buildBroadcastMessage(ApodSnapshot apod, String imageUrl) {
+            if (imageUrl != null) {
+                return MessageCreateData.fromEmbeds(new EmbedBuilder().setTitle(apod.title()).setImage(imageUrl).build());
+            }
+            return new MessageCreateBuilder()
+                    .setEmbeds(new EmbedBuilder().setTitle(apod.title()).setImage("attachment://apod.jpg").build())
+                    .setFiles(FileUpload.fromData(new byte[] {1, 2, 3}, "apod.jpg"))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package commands;
+
+import data.SlidingWindowLimiter;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.SlashCommandInteraction;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommandThrottleTest {
+
+    private static final long WINDOW_MILLIS = 30_000;
+    private static final long NOW = 1_700_000_000_000L;
+
+    @Test
+    void neverThrottlesHelp() {
+        CommandThrottle throttle = throttle(0, 0);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(throttle.allow(command("help", 1, 7L)));
+        }
+        assertFalse(throttle.allow(command("iss", 1, 7L)));
+    }
+
+    @Test
+    void rejectsWhenTheGuildLimitIsReachedAlthoughTheUserPasses() {
+        CommandThrottle throttle = throttle(2, 2);
+
+        assertTrue(throttle.allow(command("iss", 1, 7L)));
+        assertTrue(throttle.allow(command("iss", 2, 7L)));
+        assertFalse(throttle.allow(command("iss", 3, 7L)), "Server 7 hat sein Limit erreicht");
+        assertTrue(throttle.allow(command("iss", 3, 8L)), "andere Server sind nicht betroffen");
+        // Der abgelehnte Aufruf auf Server 7 bleibt bei Nutzer 3 gezählt
+        assertFalse(throttle.allow(command("iss", 3, 8L)));
+    }
+
+    @Test
+    void countsDirectMessagesOnlyPerUser() {
+        CommandThrottle throttle = throttle(2, 0);
+
+        assertTrue(throttle.allow(command("iss", 1, null)));
+        assertTrue(throttle.allow(command("iss", 1, null)));
+        assertFalse(throttle.allow(command("iss", 1, null)), "Nutzerlimit gilt auch ohne Server");
+        assertFalse(throttle.allow(command("iss", 2, 7L)), "auf Servern greift das Serverlimit von 0");
+    }
+
+    private static CommandThrottle throttle(int userLimit, int guildLimit) {
+        return new CommandThrottle(new SlidingWindowLimiter(userLimit, WINDOW_MILLIS, 64),
+                new SlidingWindowLimiter(guildLimit, WINDOW_MILLIS, 64), () -> NOW);
+    }
+
+    /**
+     * Baut ein Slash-Command-Event ohne Gateway-Verbindung.
+     *
+     * @param guildId Server-ID oder {@code null} für eine Direktnachricht
+     */
+    private static SlashCommandInteractionEvent command(String name, long userId, Long guildId) {
+        User user = entity(User.class, userId);
+        Guild guild = guildId == null ? null : entity(Guild.class, guildId);
+        SlashCommandInteraction interaction = (SlashCommandInteraction) Proxy.newProxyInstance(
+                CommandThrottleTest.class.getClassLoader(), new Class<?>[]{SlashCommandInteraction.class},
+                (self, method, args) -> switch (method.getName()) {
+                    case "getName" -> name;
+                    case "getUser" -> user;
+                    case "getGuild" -> guild;
+                    case "getIdLong" -> 1L;
+                    default -> null;
+                });
+        return new SlashCommandInteractionEvent(null, 1, interaction);
+    }
+
+    private static <T> T entity(Class<T> type, long id) {
+        return type.cast(Proxy.newProxyInstance(CommandThrottleTest.class.getClassLoader(), new Class<?>[]{type},
+                (self, method, args) -> method.getName().equals("getIdLong") ? id : null));
+    }
+}
@@ -0,0 +1,142 @@
+package commands;
+
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import data.Http;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JSONFetcherIssTest {
+
+    private static final JSONFetcherIss.Position OPEN_NOTIFY = new JSONFetcherIss.Position("1.0000", "2.0000", 0, 0);
+    private static final JSONFetcherIss.Position WHERE_THE_ISS = new JSONFetcherIss.Position("1.0001", "2.0001", 27600, 420);
+
+    @Test
+    void parsesOpenNotifyPositionWithoutSpeedHeight() {
+        JSONFetcherIss.Position position = JSONFetcherIss.parseOpenNotify(JsonParser.parseString(
+                "{\"message\":\"success\",\"iss_position\":{\"latitude\":\"47.3769\",\"longitude\":\"8.5417\"}}").getAsJsonObject());
+
+        assertEquals("47.3769", position.latitude());
+        assertEquals("8.5417", position.longitude());
+        assertFalse(position.hasSpeedHeight());
+    }
+
+    @Test
+    void parsesWhereTheIssPositionWithSpeedHeight() {
+        JSONFetcherIss.Position position = JSONFetcherIss.parseWhereTheIss(JsonParser.parseString(
+                "{\"latitude\":-12.345678,\"longitude\":123.456789,\"velocity\":27578.68,\"altitude\":418.2}").getAsJsonObject());
+
+        assertEquals("-12.3457", position.latitude());
+        assertEquals("123.4568", position.longitude());
+        assertTrue(position.hasSpeedHeight());
+    }
+
+    @Test
+    void hedgeWinsWhenPrimaryIsSlow() {
+        CompletableFuture<JSONFetcherIss.Position> result = JSONFetcherIss.firstValid(List.of(
+                () -> new CompletableFuture<>(),
+                () -> CompletableFuture.completedFuture(WHERE_THE_ISS)
+        ), Duration.ofMillis(10));
+
+        assertEquals(WHERE_THE_ISS, result.orTimeout(1, TimeUnit.SECONDS).join());
+    }
+
+    @Test
+    void primaryWinsWithoutStartingHedge() {
+        AtomicInteger hedgeCalls = new AtomicInteger();
+        CompletableFuture<JSONFetcherIss.Position> result = JSONFetcherIss.firstValid(List.of(
+                () -> CompletableFuture.completedFuture(OPEN_NOTIFY),
+                () -> {
+                    hedgeCalls.incrementAndGet();
+                    return CompletableFuture.completedFuture(WHERE_THE_ISS);
+                }
+        ), Duration.ofMillis(10));
+
+        assertEquals(OPEN_NOTIFY, result.join());
+        assertEquals(0, hedgeCalls.get());
+    }
+
+    @Test
+    void startsHedgeImmediatelyWhenPrimaryFails() {
+        CompletableFuture<JSONFetcherIss.Position> result = JSONFetcherIss.firstValid(List.of(
+                () -> CompletableFuture.failedFuture(new IllegalStateException("down")),
+                () -> CompletableFuture.completedFuture(WHERE_THE_ISS)
+        ), Duration.ofHours(1));
+
+        assertEquals(WHERE_THE_ISS, result.orTimeout(1, TimeUnit.SECONDS).join());
+    }
+
+    @Test
+    void yieldsNullWhenAllSourcesFail() {
+        CompletableFuture<JSONFetcherIss.Position> result = JSONFetcherIss.firstValid(List.of(
+                () -> CompletableFuture.failedFuture(new IllegalStateException("down")),
+                () -> CompletableFuture.failedFuture(new IllegalStateException("down too"))
+        ), Duration.ofMillis(10));
+
+        assertNull(result.orTimeout(1, TimeUnit.SECONDS).join());
+    }
+
+    @Test
+    void reusesRunningHedgeForSpeedAndAltitudeWhenPrimaryWinsLate() throws Exception {
+        AtomicInteger whereTheIssRequests = new AtomicInteger();
+        ExecutorService serverThreads = Executors.newCachedThreadPool();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(serverThreads);
+        server.createContext("/iss-now.json", exchange -> respond(exchange, 100,
+                "{\"iss_position\":{\"latitude\":\"47.3744\",\"longitude\":\"8.5410\"}}"));
+        server.createContext("/v1/satellites/", exchange -> {
+            whereTheIssRequests.incrementAndGet();
+            respond(exchange, 300, "{\"latitude\":47.3799,\"longitude\":8.5499,\"velocity\":27600.5,\"altitude\":418.2}");
+        });
+        server.start();
+        try {
+            URI target = URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+            Http.route("api.open-notify.org", target);
+            Http.route("api.wheretheiss.at", target);
+            JSONFetcherIss fetcher = new JSONFetcherIss("", Duration.ofMillis(20));
+
+            assertTrue(fetcher.fetchLocationAsync().get(5, TimeUnit.SECONDS));
+            assertEquals("47.3744", fetcher.getLatitude(), "open-notify antwortet zuerst");
+            assertFalse(fetcher.hasSpeedHeight());
+            fetcher.fetchSpeedHeightAsync().get(5, TimeUnit.SECONDS);
+
+            assertEquals(27600.5, fetcher.getVelocity());
+            assertEquals(418.2, fetcher.getAltitude());
+            assertEquals(1, whereTheIssRequests.get(), "wheretheiss.at wird nur einmal angefragt");
+        } finally {
+            Http.clearRoutes();
+            server.stop(0);
+            serverThreads.shutdownNow();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, long delayMillis, String body) {
+        try {
+            Thread.sleep(delayMillis);
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } catch (Exception e) {
+            exchange.close();
+        }
+    }
+}
@@ -1,13 +1,147 @@
 package commands;
 
 import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpServer;
+import data.ApodSnapshot;
+import data.Http;
+import data.WarmCache;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.utils.messages.MessageCreateData;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class NasaCommandHandlerTest {
 
+    private static final String APOD_JSON = """
+            {"date":"2024-05-01","title":"Nebel","explanation":"Ein Nebel im Sternbild Orion.",
+             "url":"https://apod.nasa.gov/apod/image/nebel.jpg","hdurl":"https://apod.nasa.gov/apod/image/nebel_hd.jpg",
+             "media_type":"image"}
+            """;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger requests = new AtomicInteger();
+    private final ExecutorService serverThreads = Executors.newCachedThreadPool();
+    private HttpServer server;
+
+    @AfterEach
+    void stopServer() {
+        release.countDown();
+        Http.clearRoutes();
+        if (server != null) server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    void buildsPictureEmbedsFromNasaResponse() throws Exception {
+        startNasa(200, APOD_JSON, false);
+        NasaCommandHandler handler = handler(null);
+
+        MessageEmbed picture = embed(handler.buildPictureMessageAsync());
+        MessageEmbed info = embed(handler.buildPictureInfoMessageAsync());
+
+        assertEquals("Nebel", picture.getTitle());
+        assertEquals("https://apod.nasa.gov/apod/image/nebel_hd.jpg", picture.getUrl());
+        assertEquals("https://apod.nasa.gov/apod/image/nebel.jpg", picture.getImage().getUrl());
+        assertNull(picture.getDescription());
+        assertEquals("Nebel", info.getTitle());
+        assertEquals("Ein Nebel im Sternbild Orion.", info.getDescription());
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void broadcastMessageReusesUploadedImageWithoutAttachment() {
+        ApodSnapshot apod = new ApodSnapshot(1, "2024-05-01", "Nebel", "Erklärung", "https://apod.nasa.gov/apod/image/nebel.jpg",
+                null, "image", null);
+
+        MessageCreateData message = handler(null).buildBroadcastMessage(apod, "https://cdn.discordapp.com/attachments/1/2/apod.jpg");
+
+        assertTrue(message.getFiles().isEmpty());
+        assertEquals("https://cdn.discordapp.com/attachments/1/2/apod.jpg", message.getEmbeds().get(0).getImage().getUrl());
+        assertEquals("NASA Astronomy Picture of the Day · 2024-05-01", message.getEmbeds().get(0).getFooter().getText());
+    }
+
+    @Test
+    void servesRepeatedRequestsFromCache() throws Exception {
+        startNasa(200, APOD_JSON, false);
+        NasaCommandHandler handler = handler(new WarmCache(Duration.ofSeconds(10), Duration.ofHours(1), Duration.ofHours(1), 16));
+
+        ApodSnapshot first = handler.fetchApodDataAsync().get(5, TimeUnit.SECONDS);
+        ApodSnapshot second = handler.fetchApodDataAsync().get(5, TimeUnit.SECONDS);
+
+        assertEquals("2024-05-01", first.date());
+        assertEquals(first, second);
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    void refetchesCachedApodAfterDateRolloverInNewYork() throws Exception {
+        startNasa(200, APOD_JSON.replace("2024-05-01", "2024-05-02"), false);
+        WarmCache cache = new WarmCache(Duration.ofSeconds(10), Duration.ofDays(36500), Duration.ofHours(1), 16);
+        cache.putApod(new ApodSnapshot(newYork("2024-05-01T23:30:00"), "2024-05-01", "Gestern", null, null, null, "image", null));
+
+        assertEquals("2024-05-01", handler(cache, () -> newYork("2024-05-01T23:59:00")).fetchApodDataAsync().get(5, TimeUnit.SECONDS).date());
+        assertEquals(0, requests.get());
+
+        ApodSnapshot refetched = handler(cache, () -> newYork("2024-05-02T00:10:00")).fetchApodDataAsync().get(5, TimeUnit.SECONDS);
+        assertEquals("2024-05-02", refetched.date());
+        assertEquals(newYork("2024-05-02T00:10:00"), refetched.fetchedAt(), "Abrufzeit kommt von der übergebenen Uhr");
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    void keepsApodFetchedAfterRolloverUntilNasaPublishesTheNewOne() {
+        ApodSnapshot beforeMidnight = new ApodSnapshot(newYork("2024-05-01T23:30:00"), "2024-05-01", null, null, null, null, "image", null);
+        ApodSnapshot afterMidnight = new ApodSnapshot(newYork("2024-05-02T00:05:00"), "2024-05-01", null, null, null, null, "image", null);
+
+        assertFalse(beforeMidnight.isBeforeRollover(newYork("2024-05-01T23:59:59")));
+        assertTrue(beforeMidnight.isBeforeRollover(newYork("2024-05-02T00:00:00")));
+        assertFalse(afterMidnight.isBeforeRollover(newYork("2024-05-02T00:10:00")));
+        // 03:30 UTC ist in New York noch der Vortag
+        assertFalse(beforeMidnight.isBeforeRollover(LocalDateTime.parse("2024-05-02T03:30:00").toInstant(ZoneOffset.UTC).toEpochMilli()));
+    }
+
+    @Test
+    void showsErrorEmbedWhenNasaAnswersWithError() throws Exception {
+        startNasa(503, "{\"msg\":\"Service Unavailable\"}", false);
+        NasaCommandHandler handler = handler(null);
+
+        assertNull(handler.fetchApodDataAsync().get(5, TimeUnit.SECONDS));
+        assertEquals("Fehler", embed(handler.buildPictureMessageAsync()).getTitle());
+        assertEquals("Fehler", embed(handler.buildPictureInfoMessageAsync()).getTitle());
+    }
+
+    @Test
+    void showsErrorEmbedWhenNasaTimesOut() throws Exception {
+        startNasa(200, APOD_JSON, true);
+        NasaCommandHandler handler = handler(null);
+
+        long start = System.nanoTime();
+        assertNull(handler.fetchApodDataAsync().get(5, TimeUnit.SECONDS));
+        assertEquals("Fehler", embed(handler.buildPictureMessageAsync()).getTitle());
+        assertEquals("Fehler", embed(handler.buildPictureInfoMessageAsync()).getTitle());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 3000);
+    }
+
     @Test
     void detectsImageMediaType() {
         JsonObject json = new JsonObject();
@@ -23,4 +157,61 @@ class NasaCommandHandlerTest {
 
         assertFalse(NasaCommandHandler.isImage(json));
     }
+
+    @Test
+    void linksTitleToFullResolutionImageOrVideo() {
+        ApodSnapshot image = new ApodSnapshot(1, "2024-05-01", null, null, "https://apod/x.jpg", "https://apod/x_hd.jpg", "image", null);
+        ApodSnapshot video = new ApodSnapshot(1, "2024-05-02", null, null, "https://www.youtube.com/embed/x", null, "video",
+                "https://img.youtube.com/vi/x/0.jpg");
+
+        assertEquals("https://apod/x_hd.jpg", NasaCommandHandler.titleLink(image));
+        assertEquals("https://www.youtube.com/embed/x", NasaCommandHandler.titleLink(video));
+    }
+
+    private NasaCommandHandler handler(WarmCache cache) {
+        return handler(cache, System::currentTimeMillis);
+    }
+
+    private NasaCommandHandler handler(WarmCache cache, LongSupplier clock) {
+        return new NasaCommandHandler(null, cache, null, Duration.ofMillis(300), clock);
+    }
+
+    /**
+     * Wartet auf eine Nachricht des Handlers und liefert ihr einziges Embed.
+     */
+    private static MessageEmbed embed(CompletableFuture<MessageCreateData> message) throws Exception {
+        MessageCreateData data = message.get(5, TimeUnit.SECONDS);
+        assertEquals(1, data.getEmbeds().size());
+        return data.getEmbeds().get(0);
+    }
+
+    private static long newYork(String localDateTime) {
+        return LocalDateTime.parse(localDateTime).atZone(ApodSnapshot.NASA_ZONE).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Startet einen NASA-Stub, der jede Anfrage mit {@code status} und {@code body} beantwortet
+     * oder bis zum Testende hängen lässt.
+     */
+    private void startNasa(int status, String body, boolean hang) throws Exception {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(serverThreads);
+        server.createContext("/planetary/apod", exchange -> {
+            requests.incrementAndGet();
+            if (hang) {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+        Http.route("api.nasa.gov", URI.create("http://127.0.0.1:" + server.getAddress().getPort()));
+    }
 }
@@ -0,0 +1,104 @@
+package commands;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PacedSendQueueTest {
+
+    @Test
+    void spreadsMessagesOverTime() throws Exception {
+        PacedSendQueue queue = new PacedSendQueue(50, Duration.ZERO);
+        List<Long> startedAt = new CopyOnWriteArrayList<>();
+        try {
+            CompletableFuture<?>[] results = new CompletableFuture<?>[10];
+            for (int i = 0; i < results.length; i++) {
+                long channel = i;
+                results[i] = queue.enqueue(channel, () -> {
+                    startedAt.add(System.nanoTime());
+                    return CompletableFuture.completedFuture(channel);
+                });
+            }
+            CompletableFuture.allOf(results).get(5, TimeUnit.SECONDS);
+        } finally {
+            queue.shutdown();
+        }
+
+        long spanMillis = TimeUnit.NANOSECONDS.toMillis(startedAt.get(startedAt.size() - 1) - startedAt.get(0));
+        assertEquals(10, startedAt.size());
+        assertTrue(spanMillis >= 150, "10 Nachrichten bei 50/s brauchen etwa 180 ms, gemessen " + spanMillis + " ms");
+    }
+
+    @Test
+    void keepsMinimumIntervalPerChannelAndLetsOtherChannelsPass() throws Exception {
+        PacedSendQueue queue = new PacedSendQueue(100, Duration.ofMillis(300));
+        List<Long> order = new CopyOnWriteArrayList<>();
+        List<Long> channelOneAt = new CopyOnWriteArrayList<>();
+        try {
+            CompletableFuture<?> first = queue.enqueue(1, () -> {
+                order.add(1L);
+                channelOneAt.add(System.nanoTime());
+                return CompletableFuture.completedFuture(null);
+            });
+            CompletableFuture<?> second = queue.enqueue(1, () -> {
+                order.add(1L);
+                channelOneAt.add(System.nanoTime());
+                return CompletableFuture.completedFuture(null);
+            });
+            CompletableFuture<?> other = queue.enqueue(2, () -> {
+                order.add(2L);
+                return CompletableFuture.completedFuture(null);
+            });
+            CompletableFuture.allOf(first, second, other).get(5, TimeUnit.SECONDS);
+        } finally {
+            queue.shutdown();
+        }
+
+        assertEquals(List.of(1L, 2L, 1L), order);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(channelOneAt.get(1) - channelOneAt.get(0)) >= 300);
+    }
+
+    @Test
+    void reportsFailedSends() {
+        PacedSendQueue queue = new PacedSendQueue(100, Duration.ZERO);
+        try {
+            CompletableFuture<Object> result = queue.enqueue(1, () -> CompletableFuture.failedFuture(new IllegalStateException("kaputt")));
+
+            assertTrue(result.handle((value, error) -> error != null).join());
+        } finally {
+            queue.shutdown();
+        }
+    }
+
+    @Test
+    void ticksOnlyWhileMessagesArePending() throws Exception {
+        PacedSendQueue queue = new PacedSendQueue(100, Duration.ZERO);
+        try {
+            assertFalse(queue.isTicking(), "ohne Nachrichten gibt es keinen Takt");
+
+            queue.enqueue(1, () -> CompletableFuture.completedFuture(null)).get(5, TimeUnit.SECONDS);
+            awaitIdle(queue);
+
+            queue.enqueue(2, () -> CompletableFuture.completedFuture(null)).get(5, TimeUnit.SECONDS);
+            awaitIdle(queue);
+        } finally {
+            queue.shutdown();
+        }
+    }
+
+    private static void awaitIdle(PacedSendQueue queue) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (queue.isTicking() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertFalse(queue.isTicking(), "nach dem Versand endet der Takt");
+    }
+}
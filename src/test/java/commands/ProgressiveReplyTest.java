@@ -0,0 +1,137 @@
+package commands;
+
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.interactions.InteractionHook;
+import net.dv8tion.jda.api.interactions.commands.CommandInteraction;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProgressiveReplyTest {
+
+    private static final long EDIT_DELAY_MILLIS = 50;
+    /** Kurze Nachlaufzeit, in der keine weitere Bearbeitung mehr eintreffen darf. */
+    private static final long SETTLE_MILLIS = 100;
+
+    @Test
+    void sendsNoEditWhenEverythingIsThereBeforeTheFirstMessage() throws InterruptedException {
+        FakeHook hook = new FakeHook();
+        AtomicReference<String> state = new AtomicReference<>("fertig");
+
+        new ProgressiveReply(interaction(), hook.proxy(), () -> embed(state.get()))
+                .start(CompletableFuture.completedFuture(null), EDIT_DELAY_MILLIS);
+        awaitCalls(hook, 1);
+        Thread.sleep(SETTLE_MILLIS);
+
+        assertEquals(List.of("send:fertig"), hook.calls);
+    }
+
+    @Test
+    void sendsOnlyTheFinalEditWhenDataArrivesBeforeTheDelay() throws InterruptedException {
+        FakeHook hook = new FakeHook();
+        AtomicReference<String> state = new AtomicReference<>("lädt");
+        CompletableFuture<Void> completion = new CompletableFuture<>();
+
+        // Die Verzögerung ist so lang, dass eine Zwischenbearbeitung sicher nicht vor dem Abschluss fällig wird
+        new ProgressiveReply(interaction(), hook.proxy(), () -> embed(state.get())).start(completion, 60_000);
+        state.set("fertig");
+        completion.complete(null);
+        awaitCalls(hook, 2);
+        Thread.sleep(SETTLE_MILLIS);
+
+        assertEquals(List.of("send:lädt", "edit:fertig"), hook.calls);
+    }
+
+    @Test
+    void sendsIntermediateAndFinalEditWhenDataArrivesLate() throws InterruptedException {
+        FakeHook hook = new FakeHook();
+        AtomicReference<String> state = new AtomicReference<>("lädt");
+        CompletableFuture<Void> completion = new CompletableFuture<>();
+
+        new ProgressiveReply(interaction(), hook.proxy(), () -> embed(state.get())).start(completion, EDIT_DELAY_MILLIS);
+        state.set("teilweise");
+        awaitCalls(hook, 2);
+        state.set("fertig");
+        completion.complete(null);
+        awaitCalls(hook, 3);
+        Thread.sleep(SETTLE_MILLIS);
+
+        assertEquals(List.of("send:lädt", "edit:teilweise", "edit:fertig"), hook.calls);
+    }
+
+    @Test
+    void sendsFinalEditAfterFailedLookupsAndFailedEdits() throws InterruptedException {
+        FakeHook hook = new FakeHook();
+        hook.failEdits.set(true);
+        AtomicReference<String> state = new AtomicReference<>("lädt");
+        CompletableFuture<Void> completion = new CompletableFuture<>();
+
+        new ProgressiveReply(interaction(), hook.proxy(), () -> embed(state.get())).start(completion, EDIT_DELAY_MILLIS);
+        state.set("teilweise");
+        awaitCalls(hook, 2);
+        state.set("fehlgeschlagen");
+        completion.completeExceptionally(new IllegalStateException("Upstream nicht erreichbar"));
+        awaitCalls(hook, 3);
+        Thread.sleep(SETTLE_MILLIS);
+
+        assertEquals(List.of("send:lädt", "edit:teilweise", "edit:fehlgeschlagen"), hook.calls);
+    }
+
+    private static MessageEmbed embed(String state) {
+        return new EmbedBuilder().setTitle("Test").setDescription(state).build();
+    }
+
+    private static void awaitCalls(FakeHook hook, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (hook.calls.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(hook.calls.size() >= count, "erwartet " + count + " Aufrufe, erhalten " + hook.calls);
+    }
+
+    private static CommandInteraction interaction() {
+        return (CommandInteraction) Proxy.newProxyInstance(ProgressiveReplyTest.class.getClassLoader(),
+                new Class<?>[]{CommandInteraction.class}, (self, method, args) -> switch (method.getName()) {
+                    case "getName" -> "test";
+                    case "getIdLong" -> 1L;
+                    default -> null;
+                });
+    }
+
+    /**
+     * Hook, der gesendete Nachrichten und Bearbeitungen mitschreibt und sofort bestätigt.
+     */
+    private static final class FakeHook {
+
+        private final List<String> calls = new CopyOnWriteArrayList<>();
+        private final AtomicBoolean failEdits = new AtomicBoolean();
+
+        private InteractionHook proxy() {
+            return (InteractionHook) Proxy.newProxyInstance(ProgressiveReplyTest.class.getClassLoader(),
+                    new Class<?>[]{InteractionHook.class}, (self, method, args) -> switch (method.getName()) {
+                        case "sendMessageEmbeds" -> action(method.getReturnType(), "send", args, false);
+                        case "editOriginalEmbeds" -> action(method.getReturnType(), "edit", args, failEdits.get());
+                        default -> null;
+                    });
+        }
+
+        private Object action(Class<?> type, String kind, Object[] args, boolean fail) {
+            MessageEmbed embed = args[0] instanceof MessageEmbed single ? single : ((MessageEmbed[]) args[0])[0];
+            calls.add(kind + ":" + embed.getDescription());
+            return Proxy.newProxyInstance(ProgressiveReplyTest.class.getClassLoader(), new Class<?>[]{type},
+                    (self, method, methodArgs) -> method.getName().equals("submit")
+                            ? (fail ? CompletableFuture.failedFuture(new IllegalStateException("Discord nicht erreichbar"))
+                                    : CompletableFuture.completedFuture(null))
+                            : null);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package commands;
+
+import com.sun.net.httpserver.HttpServer;
+import data.Http;
+import data.Tle;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SatelliteCatalogTest {
+
+    @TempDir
+    Path dir;
+
+    private static final String CATALOG = """
+            ISS (ZARYA)
+            1 25544U 98067A   24122.50000000  .00016717  00000-0  30270-3 0  9990
+            2 25544  51.6400 200.0000 0004000  90.0000 270.0000 15.50000000449990
+            ISS DEB
+            1 47853U 98067RZ  24122.50000000  .00030000  00000-0  40000-3 0  9990
+            2 47853  51.6400 210.0000 0004000  90.0000 270.0000 15.60000000449990
+            HST
+            1 20580U 90037B   24122.50000000  .00001000  00000-0  50000-4 0  9990
+            2 20580  28.4700 100.0000 0002500  80.0000 280.0000 15.20000000449990
+            CSS (TIANHE)
+            1 48274U 21035A   24122.50000000  .00020000  00000-0  25000-3 0  9990
+            2 48274  41.4700 150.0000 0005000  60.0000 300.0000 15.60000000449990
+            """;
+
+    @Test
+    void resolvesByNoradIdAliasAndName() {
+        SatelliteCatalog catalog = new SatelliteCatalog(null, Duration.ofHours(6));
+        assertFalse(catalog.isLoaded());
+        assertEquals(4, catalog.replace(CATALOG));
+
+        assertTrue(catalog.isLoaded());
+        assertEquals(20580, catalog.resolve("20580").noradId());
+        assertEquals(20580, catalog.resolve("Hubble").noradId());
+        assertEquals(48274, catalog.resolve(" tiangong ").noradId());
+        assertEquals(25544, catalog.resolve("iss").noradId());
+        assertEquals(48274, catalog.resolve("tianhe").noradId());
+        assertEquals(47853, catalog.resolve("iss deb").noradId());
+        assertNull(catalog.resolve("99999"));
+        assertNull(catalog.resolve("Voyager"));
+        assertEquals(20580, catalog.resolve("hst").noradId(), "exakter Name vor Namensteil");
+        assertEquals(25544, catalog.resolve("zarya").noradId());
+    }
+
+    @Test
+    void completesFromIndexWithFeaturedSatellitesForEmptyInput() {
+        SatelliteCatalog catalog = new SatelliteCatalog(null, Duration.ofHours(6));
+        catalog.replace(CATALOG);
+
+        assertEquals(List.of(25544, 48274, 20580), ids(catalog.complete("", 25)));
+        assertEquals(List.of(20580), ids(catalog.complete("hub", 25)));
+        assertEquals(List.of(25544, 47853), ids(catalog.complete("is", 25)));
+        assertEquals(List.of(48274), ids(catalog.complete("tian", 25)));
+        assertEquals("ISS (ZARYA) · 25544", SatelliteData.choices(catalog.complete("iss (", 25)).get(0).getName());
+    }
+
+    @Test
+    void storesDownloadWithoutLeavingTemporaryFiles() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/NORAD/elements/gp.php", exchange -> {
+            byte[] body = CATALOG.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        try {
+            Http.route("celestrak.org", URI.create("http://127.0.0.1:" + server.getAddress().getPort()));
+            Path file = dir.resolve("tle.txt");
+            SatelliteCatalog catalog = new SatelliteCatalog(file, Duration.ofHours(6));
+
+            assertTrue(catalog.refreshAsync().join());
+            assertEquals(CATALOG, Files.readString(file));
+            try (Stream<Path> files = Files.list(dir)) {
+                assertEquals(List.of(file), files.toList(), "keine temporären Dateien");
+            }
+        } finally {
+            Http.clearRoutes();
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void keepsPreviousCatalogWhenDownloadIsEmpty() {
+        SatelliteCatalog catalog = new SatelliteCatalog(null, Duration.ofHours(6));
+        catalog.replace(CATALOG);
+
+        assertEquals(0, catalog.replace("<html>Fehler</html>"));
+        assertEquals(4, catalog.size());
+    }
+
+    private static List<Integer> ids(List<Tle> tles) {
+        return tles.stream().map(Tle::noradId).toList();
+    }
+}
@@ -0,0 +1,60 @@
+package commands;
+
+import data.Tle;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SatelliteIndexTest {
+
+    @Test
+    void findsNameStartsBeforeWordStartsAndNoradIds() {
+        SatelliteIndex index = SatelliteIndex.build(List.of(
+                tle("CSS (TIANHE)", 48274),
+                tle("TIANQI-1", 43690),
+                tle("STARLINK-1007", 44713),
+                tle("STARLINK-1008", 44714),
+                tle("ISS (ZARYA)", 25544)));
+
+        assertEquals(List.of(43690, 48274), ids(index.search("tian", 25)));
+        assertEquals(List.of(44713, 44714), ids(index.search(" Starlink-100 ", 25)));
+        assertEquals(List.of(44713), ids(index.search("starlink", 1)));
+        assertEquals(List.of(25544), ids(index.search("2554", 25)));
+        assertEquals(List.of(48274), ids(index.search("css (t", 25)));
+        assertTrue(index.search("voyager", 25).isEmpty());
+    }
+
+    @Test
+    void answersWellUnderOneMillisecondOnLargeCatalog() {
+        List<Tle> all = new ArrayList<>();
+        for (int i = 0; i < 30_000; i++) {
+            all.add(tle((i % 3 == 0 ? "STARLINK-" : i % 3 == 1 ? "ONEWEB-" : "COSMOS ") + i, 10_000 + i));
+        }
+        SatelliteIndex index = SatelliteIndex.build(all);
+        String[] queries = {"star", "oneweb-12", "cosmos 2", "1", "x", "starlink-29"};
+
+        for (int i = 0; i < 20_000; i++) {
+            index.search(queries[i % queries.length], 25);
+        }
+        int rounds = 60_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            index.search(queries[i % queries.length], 25);
+        }
+        double micros = (System.nanoTime() - start) / 1000.0 / rounds;
+
+        assertTrue(micros < 1000, "Suche dauerte im Schnitt " + micros + " µs");
+    }
+
+    private static List<Integer> ids(List<Tle> tles) {
+        return tles.stream().map(Tle::noradId).toList();
+    }
+
+    private static Tle tle(String name, int noradId) {
+        return new Tle(name, noradId, 0, 0, 0, 0, 0, 0, 0, 15);
+    }
+}
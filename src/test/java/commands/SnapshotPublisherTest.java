@@ -0,0 +1,162 @@
+package commands;
+
+import com.sun.net.httpserver.HttpServer;
+import data.Http;
+import data.IssSnapshot;
+import data.SharedSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SnapshotPublisherTest {
+
+    private static final Map<String, String> RESPONSES = Map.of(
+            "/iss-now.json", "{\"iss_position\":{\"latitude\":\"47.3744\",\"longitude\":\"8.5410\"}}",
+            "/v1/satellites/", "{\"latitude\":47.3744,\"longitude\":8.541,\"velocity\":27600.5,\"altitude\":418.2}",
+            "/v1/coordinates/", "{\"timezone_id\":\"Europe/Zurich\",\"map_url\":\"https://maps.example/47,8\"}",
+            "/reverse", "{\"address\":{\"city\":\"Zürich\",\"state\":\"Zürich\",\"country\":\"Schweiz\"}}",
+            "/extendedFindNearbyJSON", "{\"geonames\":[]}");
+
+    @TempDir
+    Path dir;
+
+    private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+    private HttpServer server;
+
+    @AfterEach
+    void stopServer() {
+        Http.clearRoutes();
+        if (server != null) server.stop(0);
+    }
+
+    @Test
+    void refreshesGeoLookupsOnlyOncePerInterval() throws Exception {
+        startUpstreams();
+        AtomicLong now = new AtomicLong(1_700_000_000_000L);
+
+        try (SharedSnapshot snapshot = SharedSnapshot.openPublisher(dir.resolve("snapshot.bin"))) {
+            SnapshotPublisher publisher = publisher(snapshot, now);
+
+            // Fünf Minuten mit dem Standardintervall von zehn Sekunden
+            for (int tick = 0; tick < 30; tick++) {
+                publisher.publishIss();
+                IssSnapshot published = snapshot.readIss();
+                assertEquals(now.get(), published.fetchedAt());
+                assertEquals("Schweiz", published.country());
+                assertEquals("Europe/Zurich", published.timezoneId());
+                now.addAndGet(10_000);
+            }
+            assertNull(snapshot.readIss().mapUrl(), "zwischen den Geo-Abfragen wird der Kartenlink aus der Position gebildet");
+        }
+
+        assertEquals(30, count("/iss-now.json"));
+        assertEquals(30, count("/v1/satellites/"));
+        // Geo-Abfragen bei 0, 120 und 240 Sekunden
+        assertEquals(3, count("/v1/coordinates/"));
+        assertEquals(3, count("/reverse"));
+        assertEquals(3, count("/extendedFindNearbyJSON"));
+    }
+
+    @Test
+    void doesNotRetryFailedGeoLookupsBeforeTheInterval() throws Exception {
+        startUpstreams();
+        AtomicLong now = new AtomicLong(1_700_000_000_000L);
+
+        try (SharedSnapshot snapshot = SharedSnapshot.openPublisher(dir.resolve("snapshot.bin"))) {
+            SnapshotPublisher publisher = publisher(snapshot, now);
+            publisher.publishIss();
+            now.addAndGet(TimeUnit.MINUTES.toMillis(2));
+            server.removeContext("/reverse");
+
+            for (int tick = 0; tick < 12; tick++) {
+                publisher.publishIss();
+                assertEquals("Schweiz", snapshot.readIss().country(), "das letzte vollständige Ergebnis bleibt");
+                now.addAndGet(10_000);
+            }
+        }
+
+        assertEquals(13, count("/iss-now.json"));
+        // Erfolg bei 0 Sekunden, danach ein gescheiterter Versuch bei 120 Sekunden
+        assertEquals(2, count("/v1/coordinates/"));
+        assertEquals(2, count("/extendedFindNearbyJSON"));
+    }
+
+    @Test
+    void retriesGeoLookupsEveryTickUntilTheFirstOneIsComplete() throws Exception {
+        startUpstreams();
+        server.removeContext("/reverse");
+        AtomicLong now = new AtomicLong(1_700_000_000_000L);
+
+        try (SharedSnapshot snapshot = SharedSnapshot.openPublisher(dir.resolve("snapshot.bin"))) {
+            SnapshotPublisher publisher = publisher(snapshot, now);
+            for (int tick = 0; tick < 2; tick++) {
+                publisher.publishIss();
+                now.addAndGet(10_000);
+            }
+            assertEquals(2, count("/v1/coordinates/"));
+
+            respond("/reverse");
+            for (int tick = 0; tick < 4; tick++) {
+                publisher.publishIss();
+                assertEquals("Schweiz", snapshot.readIss().country());
+                now.addAndGet(10_000);
+            }
+        }
+
+        assertEquals(3, count("/v1/coordinates/"), "nach dem ersten vollständigen Ergebnis gilt das Intervall");
+        assertEquals(1, count("/reverse"));
+    }
+
+    private SnapshotPublisher publisher(SharedSnapshot snapshot, AtomicLong now) {
+        return new SnapshotPublisher(snapshot, null,
+                () -> new JSONFetcherIss("astro", Duration.ofSeconds(5)), TimeUnit.MINUTES.toMillis(2), now::get);
+    }
+
+    private int count(String path) {
+        AtomicInteger counter = requests.get(path);
+        return counter == null ? 0 : counter.get();
+    }
+
+    /**
+     * Startet einen Stub-Server für alle ISS-Upstreams und zählt die Anfragen pro Pfad.
+     */
+    private void startUpstreams() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        RESPONSES.keySet().forEach(this::respond);
+        server.start();
+        URI target = URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+        for (String host : new String[] {"api.open-notify.org", "api.wheretheiss.at", "nominatim.openstreetmap.org",
+                "api.geonames.org"}) {
+            Http.route(host, target);
+        }
+    }
+
+    /**
+     * Beantwortet einen Pfad mit seiner aufgezeichneten Antwort und zählt die Anfragen.
+     */
+    private void respond(String path) {
+        byte[] bytes = RESPONSES.get(path).getBytes(StandardCharsets.UTF_8);
+        server.createContext(path, exchange -> {
+            requests.computeIfAbsent(path, ignored -> new AtomicInteger()).incrementAndGet();
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+    }
+}
@@ -0,0 +1,123 @@
+package data;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ApodMediaCacheTest {
+
+    @TempDir
+    Path dir;
+
+    private HttpServer server;
+
+    @AfterEach
+    void stopServer() {
+        Http.clearRoutes();
+        if (server != null) server.stop(0);
+    }
+
+    @Test
+    void downscalesToMaxWidthAndKeepsAspectRatio() throws Exception {
+        byte[] jpeg = ApodMediaCache.downscale(png(4000, 2000), 800, 0.8f);
+
+        BufferedImage result = ImageIO.read(new ByteArrayInputStream(jpeg));
+        assertEquals(800, result.getWidth());
+        assertEquals(400, result.getHeight());
+    }
+
+    @Test
+    void downloadsOncePerDayAndServesFromDisk() throws Exception {
+        AtomicInteger downloads = new AtomicInteger();
+        byte[] original = png(2000, 1000);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/image.png", exchange -> {
+            downloads.incrementAndGet();
+            exchange.sendResponseHeaders(200, original.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(original);
+            }
+        });
+        server.start();
+        Http.route("apod.example", URI.create("http://127.0.0.1:" + server.getAddress().getPort()));
+
+        ApodSnapshot apod = new ApodSnapshot(1, "2024-05-01", "Titel", null, "https://apod.example/image.png",
+                "https://apod.example/image_hd.png", "image", null);
+        ApodMediaCache cache = new ApodMediaCache(dir, 640, 0.8f);
+        assertNull(cache.cached(apod));
+
+        CompletableFuture<byte[]> first = cache.prepare(apod);
+        CompletableFuture<byte[]> second = cache.prepare(apod);
+        byte[] jpeg = first.get(10, TimeUnit.SECONDS);
+        assertNotNull(jpeg);
+        assertArrayEquals(jpeg, second.get(10, TimeUnit.SECONDS));
+        assertTrue(jpeg.length < original.length);
+
+        ApodMediaCache restarted = new ApodMediaCache(dir, 640, 0.8f);
+        assertArrayEquals(jpeg, restarted.cached(apod));
+        assertArrayEquals(jpeg, restarted.prepare(apod).get(10, TimeUnit.SECONDS));
+        assertEquals(1, downloads.get());
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(List.of("apod-2024-05-01.jpg"), files.map(file -> file.getFileName().toString()).toList(),
+                    "keine temporären Dateien");
+        }
+    }
+
+    @Test
+    void usesThumbnailForVideosAndNothingWithoutOne() {
+        ApodSnapshot video = new ApodSnapshot(1, "2024-05-02", null, null, "https://www.youtube.com/embed/x", null,
+                "video", "https://img.youtube.com/vi/x/0.jpg");
+        ApodSnapshot noThumbnail = new ApodSnapshot(1, "2024-05-02", null, null, "https://www.youtube.com/embed/x", null,
+                "video", null);
+
+        assertEquals("https://img.youtube.com/vi/x/0.jpg", ApodMediaCache.sourceUrl(video));
+        assertNull(ApodMediaCache.sourceUrl(noThumbnail));
+        assertFalse(new ApodMediaCache(dir, 640, 0.8f).prepare(noThumbnail).isCompletedExceptionally());
+    }
+
+    @Test
+    void ignoresMalformedSourceUrls() throws Exception {
+        ApodSnapshot malformed = new ApodSnapshot(1, "2024-05-03", null, null, "https://apod.nasa.gov/image/a b|c.jpg", null,
+                "image", null);
+        ApodSnapshot relative = new ApodSnapshot(1, "2024-05-03", null, null, "httpimage.jpg", null, "image", null);
+
+        assertNull(ApodMediaCache.sourceUrl(malformed));
+        assertNull(ApodMediaCache.sourceUrl(relative));
+        assertNull(new ApodMediaCache(dir, 640, 0.8f).prepare(malformed).get(1, TimeUnit.SECONDS));
+    }
+
+    private static byte[] png(int width, int height) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < width; x += 7) {
+            for (int y = 0; y < height; y += 5) {
+                image.setRGB(x, y, (x * 31 + y * 17) & 0xFFFFFF);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,108 @@
+package data;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SharedSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readerSeesWhatPublisherWrote() throws Exception {
+        Path file = dir.resolve("snapshot.bin");
+        IssSnapshot iss = new IssSnapshot(1_700_000_000_000L, "51.5074", "-0.1278", 27600.5, 418.2,
+                "Europe/London", "https://maps.example/51,0", "Vereinigtes Königreich", "England", "London", null);
+        ApodSnapshot apod = new ApodSnapshot(1_700_000_000_001L, "2024-05-01", "Nebel über Orion", "Eine Erklärung.",
+                "https://apod.nasa.gov/image.jpg", "https://apod.nasa.gov/image_hd.jpg", "image", null);
+
+        try (SharedSnapshot publisher = SharedSnapshot.openPublisher(file);
+             SharedSnapshot reader = SharedSnapshot.openReader(file)) {
+            assertNull(reader.readIss());
+
+            publisher.publishIss(iss);
+            publisher.publishApod(apod);
+
+            assertEquals(iss, reader.readIss());
+            assertEquals(apod, reader.readApod());
+        }
+    }
+
+    @Test
+    void readerWaitsForFileToAppear() throws Exception {
+        Path file = dir.resolve("later.bin");
+        try (SharedSnapshot reader = SharedSnapshot.openReader(file)) {
+            assertNull(reader.readApod());
+
+            try (SharedSnapshot publisher = SharedSnapshot.openPublisher(file)) {
+                publisher.publishApod(new ApodSnapshot(1, "2024-05-01", "Titel", null, null, null, "video", null));
+            }
+
+            assertEquals("Titel", reader.readApod().title());
+        }
+    }
+
+    @Test
+    void truncatesOversizedStringsAtCharacterBoundary() throws Exception {
+        Path file = dir.resolve("long.bin");
+        String explanation = "ä".repeat(20_000);
+        try (SharedSnapshot publisher = SharedSnapshot.openPublisher(file)) {
+            publisher.publishApod(new ApodSnapshot(1, null, null, explanation, null, null, null, null));
+
+            String stored = publisher.readApod().explanation();
+            assertTrue(stored.length() < explanation.length());
+            assertTrue(explanation.startsWith(stored));
+            assertTrue(stored.getBytes(StandardCharsets.UTF_8).length <= 16384);
+        }
+    }
+
+    @Test
+    void rejectsSecondPublisher() throws Exception {
+        Path file = dir.resolve("locked.bin");
+        try (SharedSnapshot ignored = SharedSnapshot.openPublisher(file)) {
+            assertThrows(IllegalStateException.class, () -> SharedSnapshot.openPublisher(file));
+        }
+    }
+
+    @Test
+    void readerNeverSeesTornWrites() throws Exception {
+        Path file = dir.resolve("concurrent.bin");
+        try (SharedSnapshot publisher = SharedSnapshot.openPublisher(file);
+             SharedSnapshot reader = SharedSnapshot.openReader(file)) {
+            AtomicBoolean running = new AtomicBoolean(true);
+            Thread writer = Thread.ofPlatform().start(() -> {
+                for (long i = 1; running.get(); i++) {
+                    String value = Long.toString(i).repeat((int) (i % 3) + 1);
+                    publisher.publishIss(new IssSnapshot(i, value, value, i, i, value, value, value, value, value, value));
+                }
+            });
+
+            int consistentReads = 0;
+            long deadline = System.nanoTime() + 300_000_000L;
+            while (System.nanoTime() < deadline) {
+                IssSnapshot read = reader.readIss();
+                if (read == null) continue;
+                String expected = Long.toString(read.fetchedAt()).repeat((int) (read.fetchedAt() % 3) + 1);
+                assertEquals(expected, read.latitude());
+                assertEquals(expected, read.ocean());
+                assertEquals(read.fetchedAt(), (long) read.altitude());
+                consistentReads++;
+            }
+            running.set(false);
+            writer.join();
+
+            assertNotNull(reader.readIss());
+            assertTrue(consistentReads > 0);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package data;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlidingWindowLimiterTest {
+
+    @Test
+    void enforcesLimitAndWeighsPreviousWindow() {
+        SlidingWindowLimiter limiter = new SlidingWindowLimiter(4, 1000, 1024);
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire(42, 100));
+        }
+        assertFalse(limiter.tryAcquire(42, 900));
+        assertTrue(limiter.tryAcquire(7, 900), "andere Schlüssel zählen getrennt");
+
+        // Zur Hälfte des nächsten Fensters zählt das vorige noch mit 2 von 4
+        assertTrue(limiter.tryAcquire(42, 1500));
+        assertTrue(limiter.tryAcquire(42, 1500));
+        assertFalse(limiter.tryAcquire(42, 1500));
+
+        // Zwei Fenster später ist der Schlüssel wieder frei
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire(42, 3100));
+        }
+        assertFalse(limiter.tryAcquire(42, 3100));
+    }
+
+    @Test
+    void staysWithinCapacityAndReusesIdleEntries() {
+        SlidingWindowLimiter limiter = new SlidingWindowLimiter(1, 1000, 512);
+        assertEquals(512, limiter.capacity());
+
+        for (long key = 0; key < 100_000; key++) {
+            limiter.tryAcquire(key, 0);
+        }
+        assertEquals(512, limiter.activeEntries(0));
+        assertEquals(0, limiter.activeEntries(2000));
+
+        assertTrue(limiter.tryAcquire(1, 2000));
+        assertFalse(limiter.tryAcquire(1, 2000));
+        assertEquals(1, limiter.activeEntries(2000));
+    }
+
+    @Test
+    void neverExceedsLimitUnderContention() throws InterruptedException {
+        SlidingWindowLimiter limiter = new SlidingWindowLimiter(100, 60_000, 1024);
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 1000; i++) {
+                    if (limiter.tryAcquire(42, 1000)) allowed.incrementAndGet();
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(100, allowed.get());
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new SlidingWindowLimiter(SlidingWindowLimiter.MAX_LIMIT + 1, 1000, 16));
+        assertThrows(IllegalArgumentException.class, () -> new SlidingWindowLimiter(5, 0, 16));
+    }
+}
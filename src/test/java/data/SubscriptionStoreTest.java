@@ -0,0 +1,82 @@
+package data;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SubscriptionStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void keepsSubscriptionsAndLastBroadcastAcrossReopen() throws Exception {
+        Path file = dir.resolve("subscriptions.txt");
+        SubscriptionStore store = SubscriptionStore.open(file);
+        assertTrue(store.add(111L));
+        assertTrue(store.add(222L));
+        assertFalse(store.add(111L));
+        store.setLastBroadcastDate("2024-05-01");
+
+        SubscriptionStore reopened = SubscriptionStore.open(file);
+        assertEquals(List.of(111L, 222L), reopened.channels());
+        assertEquals("2024-05-01", reopened.lastBroadcastDate());
+    }
+
+    @Test
+    void removesSubscriptions() throws Exception {
+        Path file = dir.resolve("subscriptions.txt");
+        SubscriptionStore store = SubscriptionStore.open(file);
+        store.add(111L);
+
+        assertTrue(store.remove(111L));
+        assertFalse(store.remove(111L));
+        assertTrue(SubscriptionStore.open(file).channels().isEmpty());
+    }
+
+    @Test
+    void mergesChangesOfOtherProcessesInsteadOfOverwritingThem() throws Exception {
+        Path file = dir.resolve("subscriptions.txt");
+        SubscriptionStore first = SubscriptionStore.open(file);
+        SubscriptionStore second = SubscriptionStore.open(file);
+
+        first.add(111L);
+        second.add(222L);
+        first.setLastBroadcastDate("2024-05-01");
+        assertFalse(second.add(111L), "bereits von einem anderen Prozess abonniert");
+        second.remove(111L);
+
+        assertEquals(List.of(222L), SubscriptionStore.open(file).channels());
+        assertEquals("2024-05-01", SubscriptionStore.open(file).lastBroadcastDate());
+        assertEquals(List.of(111L, 222L), first.channels(), "Stand beim letzten eigenen Schreiben");
+        first.reload();
+        assertEquals(List.of(222L), first.channels());
+    }
+
+    @Test
+    void startsEmptyWithoutFile() throws Exception {
+        SubscriptionStore store = SubscriptionStore.open(dir.resolve("missing.txt"));
+
+        assertTrue(store.channels().isEmpty());
+        assertNull(store.lastBroadcastDate());
+    }
+
+    @Test
+    void skipsCorruptLines() throws Exception {
+        Path file = dir.resolve("subscriptions.txt");
+        Files.writeString(file, "last=2024-05-01\n111\n12ab\n\n222\n");
+
+        SubscriptionStore store = SubscriptionStore.open(file);
+
+        assertEquals(List.of(111L, 222L), store.channels());
+        assertEquals("2024-05-01", store.lastBroadcastDate());
+    }
+}
@@ -0,0 +1,84 @@
+package data;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TleTest {
+
+    private static final String ISS = """
+            ISS (ZARYA)
+            1 25544U 98067A   24122.50000000  .00016717  00000-0  30270-3 0  9990
+            2 25544  51.6400 200.0000 0004000  90.0000 270.0000 15.50000000449990
+            """;
+
+    /** Prüffall 00005 aus dem SGP4-Verifikationssatz (Vallado et al., "Revisiting Spacetrack Report #3"). */
+    private static final String VANGUARD = """
+            VANGUARD 1
+            1 00005U 58002B   00179.78495062  .00000023  00000-0  28098-4 0  4753
+            2 00005  34.2682 348.7242 1859667 331.7664  19.3264 10.82419157413667
+            """;
+
+    @Test
+    void parsesCelestrakFormat() {
+        List<Tle> tles = Tle.parseAll(ISS + VANGUARD + "KAPUTT\n1 zu kurz\n2 zu kurz\n");
+
+        assertEquals(2, tles.size());
+        Tle iss = tles.get(0);
+        assertEquals("ISS (ZARYA)", iss.name());
+        assertEquals(25544, iss.noradId());
+        assertEquals(Instant.parse("2024-05-01T12:00:00Z").toEpochMilli(), iss.epochMillis());
+        assertEquals(51.64, Math.toDegrees(iss.inclination()), 1e-9);
+        assertEquals(0.0004, iss.eccentricity(), 1e-12);
+        assertEquals(15.5, iss.meanMotion(), 1e-12);
+    }
+
+    @Test
+    void matchesSgp4ReferenceAtEpoch() {
+        Tle vanguard = Tle.parseAll(VANGUARD).get(0);
+        SatellitePosition position = vanguard.propagate(vanguard.epochMillis());
+
+        // SGP4-Referenz zur Epoche im TEME-System: r = (7022.46529266, -1400.08296755, 0.03995155) km
+        double expectedLongitude = Math.toDegrees(Math.atan2(-1400.08296755, 7022.46529266)
+                - Tle.greenwichSiderealTime(vanguard.epochMillis()));
+        expectedLongitude = ((expectedLongitude % 360) + 540) % 360 - 180;
+        double radius = Math.sqrt(7022.46529266 * 7022.46529266 + 1400.08296755 * 1400.08296755);
+
+        assertEquals(0, position.latitude(), 0.5);
+        assertEquals(expectedLongitude, position.longitude(), 0.5);
+        assertEquals(radius - 6378.137, position.altitude(), 15);
+    }
+
+    @Test
+    void staysCloseToSgp4ReferenceAfterSixHours() {
+        Tle vanguard = Tle.parseAll(VANGUARD).get(0);
+        SatellitePosition position = vanguard.propagate(vanguard.epochMillis() + 360 * 60_000L);
+
+        // SGP4-Referenz nach 360 min: r = (-7154.03120202, -3783.17682504, -3536.19412294) km
+        double radius = Math.sqrt(7154.03120202 * 7154.03120202 + 3783.17682504 * 3783.17682504
+                + 3536.19412294 * 3536.19412294);
+        double geocentricLatitude = Math.toDegrees(Math.asin(-3536.19412294 / radius));
+
+        assertEquals(geocentricLatitude, position.latitude(), 0.5);
+        assertEquals(radius - 6378.137, position.altitude(), 30);
+    }
+
+    @Test
+    void staysOnPlausibleIssOrbit() {
+        Tle iss = Tle.parseAll(ISS).get(0);
+        double maxLatitude = 0;
+        for (int minute = 0; minute < 93; minute++) {
+            SatellitePosition position = iss.propagate(iss.epochMillis() + minute * 60_000L);
+            maxLatitude = Math.max(maxLatitude, Math.abs(position.latitude()));
+
+            assertTrue(position.altitude() > 380 && position.altitude() < 460, "Höhe " + position.altitude());
+            assertEquals(27_600, position.velocity(), 200);
+            assertTrue(position.longitude() >= -180 && position.longitude() <= 180);
+        }
+        assertEquals(51.64, maxLatitude, 0.5);
+    }
+}
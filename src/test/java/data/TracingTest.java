@@ -0,0 +1,57 @@
+package data;
+
+import com.sun.net.httpserver.HttpServer;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TracingTest {
+
+    @Test
+    void recordsUpstreamCallWithStatusAndBytesButWithoutQuery(@TempDir Path dir) throws Exception {
+        byte[] body = "{\"ok\":true}".getBytes(StandardCharsets.UTF_8);
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+
+        Path file = dir.resolve("test.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(UpstreamCallEvent.class);
+            recording.start();
+
+            URI uri = URI.create("http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/v1/test?api_key=secret");
+            Http.send(HttpRequest.newBuilder(uri).build());
+
+            recording.stop();
+            recording.dump(file);
+        } finally {
+            server.stop(0);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals("spacelinker.UpstreamCall"))
+                .toList();
+
+        assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals("/v1/test", event.getString("path"));
+        assertEquals(200, event.getInt("status"));
+        assertEquals(body.length, event.getLong("bytes"));
+    }
+}
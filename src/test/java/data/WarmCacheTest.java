@@ -0,0 +1,86 @@
+package data;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class WarmCacheTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void restoresEntriesAfterRestart() throws Exception {
+        long now = System.currentTimeMillis();
+        IssSnapshot iss = new IssSnapshot(now, "48.1374", "11.5755", 27580.1, 420.5,
+                "Europe/Berlin", "https://maps.example", "Deutschland", "Bayern", "München", null);
+        ApodSnapshot apod = new ApodSnapshot(now, "2024-05-01", "Titel", "Erklärung", "https://apod/x.jpg", null, "image", null);
+        WarmCache.GeoLookup geo = new WarmCache.GeoLookup(now, "Europe/Berlin", "Deutschland", "Bayern", "München", null);
+
+        WarmCache before = cache();
+        before.putIss(iss);
+        before.putApod(apod);
+        before.putGeo("48.1374", "11.5755", geo);
+        Path file = dir.resolve("cache.bin");
+        before.save(file);
+
+        WarmCache after = cache();
+        assertEquals(3, after.load(file));
+        assertEquals(iss, after.iss());
+        assertEquals(apod, after.apod());
+        assertEquals(geo, after.geo("48.1012", "11.5999"));
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(List.of(file), files.toList(), "keine temporären Dateien");
+        }
+    }
+
+    @Test
+    void ignoresExpiredEntriesOnLoad() throws Exception {
+        long now = System.currentTimeMillis();
+        WarmCache shortLived = new WarmCache(Duration.ofHours(1), Duration.ofHours(1), Duration.ofHours(1), 16);
+        shortLived.putIss(new IssSnapshot(now - Duration.ofMinutes(5).toMillis(), "1", "2", 1, 1, null, null, null, null, null, null));
+        shortLived.putApod(new ApodSnapshot(now - Duration.ofMinutes(5).toMillis(), null, "Alt", null, null, null, null, null));
+        shortLived.putGeo("1", "2", new WarmCache.GeoLookup(now, "UTC", null, null, null, "Atlantik"));
+        Path file = dir.resolve("cache.bin");
+        shortLived.save(file);
+
+        WarmCache restored = new WarmCache(Duration.ofSeconds(10), Duration.ofMinutes(1), Duration.ofHours(1), 16);
+        assertEquals(1, restored.load(file));
+        assertNull(restored.iss());
+        assertNull(restored.apod());
+        assertEquals("Atlantik", restored.geo("1", "2").ocean());
+    }
+
+    @Test
+    void startsEmptyWithoutFile() throws Exception {
+        WarmCache cache = cache();
+
+        assertEquals(0, cache.load(dir.resolve("missing.bin")));
+        assertNull(cache.iss());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedGeoLookups() {
+        WarmCache cache = new WarmCache(Duration.ofSeconds(10), Duration.ofHours(1), Duration.ofHours(1), 2);
+        long now = System.currentTimeMillis();
+        cache.putGeo("1", "1", new WarmCache.GeoLookup(now, "A", null, null, null, null));
+        cache.putGeo("2", "2", new WarmCache.GeoLookup(now, "B", null, null, null, null));
+        cache.geo("1", "1");
+        cache.putGeo("3", "3", new WarmCache.GeoLookup(now, "C", null, null, null, null));
+
+        assertEquals("A", cache.geo("1", "1").timezoneId());
+        assertNull(cache.geo("2", "2"));
+    }
+
+    private static WarmCache cache() {
+        return new WarmCache(Duration.ofSeconds(30), Duration.ofHours(1), Duration.ofHours(24), 16);
+    }
+}
@@ -0,0 +1,101 @@
+package loadtest;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Zeitstempel einer einzelnen synthetischen Slash-Command-Interaktion.
+ */
+final class CommandTrace {
+
+    private final long id;
+    private final String command;
+    private final long startNanos;
+    private final AtomicInteger replies = new AtomicInteger();
+    private volatile long firstReplyNanos;
+    private volatile long lastReplyNanos;
+    private volatile boolean failed;
+
+    /**
+     * Startet die Messung für eine Interaktion.
+     *
+     * @param id laufende Nummer der Interaktion
+     * @param command Name des Slash-Commands
+     */
+    CommandTrace(long id, String command) {
+        this.id = id;
+        this.command = command;
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Vermerkt eine bei "Discord" angekommene Antwort oder Bearbeitung.
+     *
+     * @param content Text und Embed-Inhalte der Antwort
+     */
+    void recordReply(String content) {
+        long now = System.nanoTime();
+        if (replies.getAndIncrement() == 0) {
+            firstReplyNanos = now;
+        }
+        lastReplyNanos = now;
+        if (content.contains("❌") || content.startsWith("Fehler")) {
+            failed = true;
+        }
+    }
+
+    /**
+     * Gibt die laufende Nummer der Interaktion zurück.
+     *
+     * @return Interaktions-ID
+     */
+    long id() { return id; }
+
+    /**
+     * Gibt den Namen des Slash-Commands zurück.
+     *
+     * @return Command-Name
+     */
+    String command() { return command; }
+
+    /**
+     * Prüft, ob mindestens eine Antwort angekommen ist.
+     *
+     * @return {@code true}, wenn beantwortet
+     */
+    boolean answered() { return replies.get() > 0; }
+
+    /**
+     * Prüft, ob eine Antwort eine Fehlermeldung war.
+     *
+     * @return {@code true} bei Fehlerantwort
+     */
+    boolean failed() { return failed; }
+
+    /**
+     * Gibt die Anzahl Antworten und Bearbeitungen zurück.
+     *
+     * @return Anzahl Nachrichten
+     */
+    int replies() { return replies.get(); }
+
+    /**
+     * Gibt die Zeit bis zur ersten sichtbaren Antwort zurück.
+     *
+     * @return Latenz in Nanosekunden
+     */
+    long firstReplyLatencyNanos() { return firstReplyNanos - startNanos; }
+
+    /**
+     * Gibt die Zeit bis zur letzten Antwort oder Bearbeitung zurück.
+     *
+     * @return Latenz in Nanosekunden
+     */
+    long lastReplyLatencyNanos() { return lastReplyNanos - startNanos; }
+
+    /**
+     * Gibt den Zeitpunkt der letzten Antwort zurück.
+     *
+     * @return {@link System#nanoTime()} der letzten Antwort oder 0
+     */
+    long lastReplyNanos() { return lastReplyNanos; }
+}
@@ -0,0 +1,105 @@
+package loadtest;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.ToLongFunction;
+
+/**
+ * Ergebnis eines Lasttest-Laufs.
+ *
+ * @param sent Anzahl ausgelöster Interaktionen
+ * @param answered Anzahl Interaktionen mit mindestens einer Antwort
+ * @param failed Anzahl Interaktionen mit Fehlerantwort
+ * @param messages Anzahl gesendeter Antworten und Bearbeitungen
+ * @param elapsedNanos Dauer vom ersten Event bis zur letzten Antwort
+ * @param firstReplyMillis sortierte Latenzen bis zur ersten Antwort
+ * @param lastReplyMillis sortierte Latenzen bis zur letzten Bearbeitung
+ * @param peakThreads höchste gleichzeitige Thread-Anzahl
+ * @param peakHeapBytes höchste Heap-Belegung über alle Heap-Pools
+ * @param upstreamRequests Anfragen an die Stub-Upstreams
+ */
+record LoadReport(int sent, int answered, int failed, long messages, long elapsedNanos,
+                  double[] firstReplyMillis, double[] lastReplyMillis,
+                  int peakThreads, long peakHeapBytes, long upstreamRequests) {
+
+    /**
+     * Wertet die Traces eines Laufs aus.
+     */
+    static LoadReport of(List<CommandTrace> traces, long startNanos, int peakThreads, long peakHeapBytes, long upstreamRequests) {
+        List<CommandTrace> answered = traces.stream().filter(CommandTrace::answered).toList();
+        long end = answered.stream().mapToLong(CommandTrace::lastReplyNanos).max().orElse(startNanos);
+
+        return new LoadReport(
+                traces.size(),
+                answered.size(),
+                (int) answered.stream().filter(CommandTrace::failed).count(),
+                answered.stream().mapToLong(CommandTrace::replies).sum(),
+                end - startNanos,
+                sortedMillis(answered, CommandTrace::firstReplyLatencyNanos),
+                sortedMillis(answered, CommandTrace::lastReplyLatencyNanos),
+                peakThreads,
+                peakHeapBytes,
+                upstreamRequests
+        );
+    }
+
+    private static double[] sortedMillis(List<CommandTrace> traces, ToLongFunction<CommandTrace> latency) {
+        double[] values = traces.stream().mapToLong(latency).mapToDouble(nanos -> nanos / 1_000_000d).toArray();
+        Arrays.sort(values);
+        return values;
+    }
+
+    /**
+     * Liefert ein Perzentil nach der Nearest-Rank-Methode.
+     *
+     * @param sorted aufsteigend sortierte Werte
+     * @param percentile Perzentil zwischen 0 und 100
+     * @return Wert oder {@code NaN}, wenn keine Werte vorliegen
+     */
+    static double percentile(double[] sorted, double percentile) {
+        if (sorted.length == 0) return Double.NaN;
+        int rank = (int) Math.ceil(percentile / 100d * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    /**
+     * Gibt den Durchsatz beantworteter Interaktionen zurück.
+     *
+     * @return Interaktionen pro Sekunde
+     */
+    double throughput() {
+        return elapsedNanos <= 0 ? 0 : answered / (elapsedNanos / 1_000_000_000d);
+    }
+
+    /**
+     * Formatiert den Bericht für die Konsole.
+     *
+     * @return mehrzeiliger Bericht
+     */
+    String format() {
+        return String.format(Locale.ROOT,
+                "%n==== SpaceLinker Lasttest ====%n" +
+                        "Interaktionen:     %d gesendet, %d beantwortet, %d Fehler, %d ohne Antwort%n" +
+                        "Nachrichten:       %d (inkl. Bearbeitungen)%n" +
+                        "Durchsatz:         %.1f Interaktionen/s%n" +
+                        "Erste Antwort:     %s%n" +
+                        "Letzte Änderung:   %s%n" +
+                        "Peak Threads:      %d%n" +
+                        "Peak Heap:         %.1f MiB%n" +
+                        "Upstream-Anfragen: %d%n",
+                sent, answered, failed, sent - answered,
+                messages,
+                throughput(),
+                describe(firstReplyMillis),
+                describe(lastReplyMillis),
+                peakThreads,
+                peakHeapBytes / (1024d * 1024d),
+                upstreamRequests);
+    }
+
+    private static String describe(double[] sorted) {
+        return String.format(Locale.ROOT, "p50=%.1f ms  p90=%.1f ms  p99=%.1f ms  max=%.1f ms",
+                percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99), percentile(sorted, 100));
+    }
+}
@@ -0,0 +1,219 @@
+package loadtest;
+
+import commands.ISSData;
+import commands.NasaPictureOfTheDay;
+import data.Http;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import training.StubUpstream;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Offline-Lasttest für die Slash-Commands.
+ * Startet lokale Stub-Upstreams, leitet {@link Http} dorthin um und feuert synthetische Interaktionen
+ * mit fester Rate auf {@link ISSData} und {@link NasaPictureOfTheDay}.
+ *
+ * <p>Start: {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=loadtest.LoadTest -Dloadtest.rate=50}</p>
+ */
+public final class LoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTest.class);
+
+    /**
+     * Verhindert Instanziierung der Utility-Klasse.
+     */
+    private LoadTest() {}
+
+    /**
+     * Einstellungen eines Laufs.
+     *
+     * @param ratePerSecond ausgelöste Interaktionen pro Sekunde
+     * @param durationSeconds Dauer der Lastphase
+     * @param mix Gewichtung der Commands, z. B. {@code iss=3, picture=1}
+     * @param upstreamLatencyMillis feste Antwortzeit der Stub-Upstreams
+     * @param upstreamJitterMillis zusätzliche zufällige Antwortzeit der Stub-Upstreams
+     * @param errorRate Anteil fehlschlagender Upstream-Anfragen (0..1)
+     * @param errorHosts Hosts mit Fehlerinjektion, leer für alle
+     * @param discordLatencyMillis simulierte Antwortzeit der Discord-REST-API
+     * @param users Anzahl unterschiedlicher synthetischer Nutzer
+     * @param guilds Anzahl unterschiedlicher synthetischer Server
+     */
+    record Settings(double ratePerSecond, int durationSeconds, Map<String, Integer> mix,
+                    long upstreamLatencyMillis, long upstreamJitterMillis, double errorRate, Set<String> errorHosts,
+                    long discordLatencyMillis, int users, int guilds) {
+
+        /**
+         * Liest die Einstellungen aus {@code -Dloadtest.*}-System-Properties.
+         *
+         * @return Einstellungen mit Standardwerten für fehlende Properties
+         */
+        static Settings fromSystemProperties() {
+            return new Settings(
+                    Double.parseDouble(System.getProperty("loadtest.rate", "20")),
+                    Integer.getInteger("loadtest.duration", 10),
+                    parseMix(System.getProperty("loadtest.mix", "iss=2,picture=1,pictureinfo=1")),
+                    Long.getLong("loadtest.latency", 80),
+                    Long.getLong("loadtest.jitter", 40),
+                    Double.parseDouble(System.getProperty("loadtest.errorRate", "0")),
+                    parseHosts(System.getProperty("loadtest.errorHosts", "")),
+                    Long.getLong("loadtest.discordLatency", 40),
+                    Integer.getInteger("loadtest.users", 1000),
+                    Integer.getInteger("loadtest.guilds", 50)
+            );
+        }
+
+        private static Map<String, Integer> parseMix(String value) {
+            Map<String, Integer> mix = new LinkedHashMap<>();
+            for (String part : value.split(",")) {
+                String[] pair = part.trim().split("=");
+                mix.put(pair[0].trim(), pair.length > 1 ? Integer.parseInt(pair[1].trim()) : 1);
+            }
+            return mix;
+        }
+
+        private static Set<String> parseHosts(String value) {
+            return value.isBlank() ? Set.of() : Set.of(value.trim().split("\\s*,\\s*"));
+        }
+    }
+
+    /**
+     * Startet einen Lauf mit Einstellungen aus den System-Properties und gibt den Bericht aus.
+     *
+     * @param args ungenutzt
+     * @throws InterruptedException falls der Lauf unterbrochen wird
+     */
+    public static void main(String[] args) throws InterruptedException {
+        LoadReport report = run(Settings.fromSystemProperties());
+        log.info(report.format());
+        System.exit(0);
+    }
+
+    /**
+     * Führt einen vollständigen Lauf durch: Stubs starten, Last erzeugen, auf Antworten warten, auswerten.
+     *
+     * @param settings Einstellungen des Laufs
+     * @return Bericht mit Durchsatz, Latenzen und Ressourcenverbrauch
+     * @throws InterruptedException falls der Lauf unterbrochen wird
+     */
+    static LoadReport run(Settings settings) throws InterruptedException {
+        List<StubUpstream> stubs = startStubs(settings);
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+        ExecutorService eventThread = Executors.newSingleThreadExecutor(r -> new Thread(r, "synthetic-event-thread"));
+
+        try {
+            stubs.forEach(StubUpstream::routeHttp);
+            SyntheticDiscord discord = new SyntheticDiscord(scheduler, settings.discordLatencyMillis());
+            List<ListenerAdapter> listeners = List.of(new ISSData(), new NasaPictureOfTheDay());
+            List<String> commands = expandMix(settings.mix());
+
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            threads.resetPeakThreadCount();
+            List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                    .filter(pool -> pool.getType() == MemoryType.HEAP)
+                    .toList();
+            heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+            int total = (int) Math.round(settings.ratePerSecond() * settings.durationSeconds());
+            List<CommandTrace> traces = Collections.synchronizedList(new ArrayList<>(total));
+            AtomicInteger dispatched = new AtomicInteger();
+            long periodNanos = (long) (1_000_000_000d / settings.ratePerSecond());
+            long start = System.nanoTime();
+
+            scheduler.scheduleAtFixedRate(() -> {
+                int id = dispatched.getAndIncrement();
+                if (id >= total) return;
+
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                CommandTrace trace = new CommandTrace(id + 1, commands.get(random.nextInt(commands.size())));
+                traces.add(trace);
+                var event = discord.slashCommand(trace, 1 + random.nextInt(settings.users()), 1 + random.nextInt(settings.guilds()));
+                eventThread.execute(() -> listeners.forEach(listener -> listener.onEvent(event)));
+            }, 0, periodNanos, TimeUnit.NANOSECONDS);
+
+            awaitQuiet(traces, total, dispatched);
+
+            long heapPeak = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+            long upstreamRequests = stubs.stream().mapToLong(StubUpstream::requests).sum();
+            synchronized (traces) {
+                return LoadReport.of(List.copyOf(traces), start, threads.getPeakThreadCount(), heapPeak, upstreamRequests);
+            }
+        } finally {
+            scheduler.shutdownNow();
+            eventThread.shutdownNow();
+            stubs.forEach(StubUpstream::close);
+            Http.clearRoutes();
+        }
+    }
+
+    /**
+     * Wartet, bis alle Interaktionen ausgelöst, beantwortet und seit einer Sekunde keine Bearbeitungen mehr
+     * eingetroffen sind, höchstens aber 60 Sekunden nach Ende der Lastphase.
+     */
+    private static void awaitQuiet(List<CommandTrace> traces, int total, AtomicInteger dispatched) throws InterruptedException {
+        while (dispatched.get() < total) {
+            Thread.sleep(50);
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        long quietNanos = TimeUnit.SECONDS.toNanos(1);
+        while (System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            synchronized (traces) {
+                boolean allAnswered = traces.stream().allMatch(CommandTrace::answered);
+                long lastReply = traces.stream().mapToLong(CommandTrace::lastReplyNanos).max().orElse(0);
+                if (allAnswered && System.nanoTime() - lastReply > quietNanos) {
+                    return;
+                }
+            }
+        }
+        log.warn("Nicht alle Interaktionen wurden innerhalb von 60 Sekunden beantwortet.");
+    }
+
+    /**
+     * Startet je einen Stub-Server pro Upstream-Host mit den aufgezeichneten Antworten.
+     */
+    private static List<StubUpstream> startStubs(Settings settings) {
+        Map<String, Map<String, String>> upstreams = new LinkedHashMap<>();
+        upstreams.put("api.open-notify.org", Map.of("/iss-now.json", "iss-now.json"));
+        upstreams.put("api.wheretheiss.at", Map.of(
+                "/v1/satellites/", "wheretheiss-satellite.json",
+                "/v1/coordinates/", "wheretheiss-coordinates.json"));
+        upstreams.put("nominatim.openstreetmap.org", Map.of("/reverse", "nominatim-reverse.json"));
+        upstreams.put("api.geonames.org", Map.of("/extendedFindNearbyJSON", "geonames-nearby.json"));
+        upstreams.put("api.nasa.gov", Map.of("/planetary/apod", "apod.json"));
+
+        List<StubUpstream> stubs = new ArrayList<>();
+        upstreams.forEach((host, responses) -> {
+            boolean injectErrors = settings.errorHosts().isEmpty() || settings.errorHosts().contains(host);
+            stubs.add(new StubUpstream(host, responses, settings.upstreamLatencyMillis(), settings.upstreamJitterMillis(),
+                    injectErrors ? settings.errorRate() : 0));
+        });
+        return stubs;
+    }
+
+    /**
+     * Wandelt die Gewichtung in eine Liste um, aus der gleichverteilt gezogen wird.
+     */
+    private static List<String> expandMix(Map<String, Integer> mix) {
+        List<String> commands = new ArrayList<>();
+        mix.forEach((command, weight) -> commands.addAll(Collections.nCopies(weight, command)));
+        return commands;
+    }
+}
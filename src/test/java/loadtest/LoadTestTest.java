@@ -0,0 +1,35 @@
+package loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoadTestTest {
+
+    @Test
+    void answersEverySyntheticCommandFromStubUpstreams() throws InterruptedException {
+        LoadReport report = LoadTest.run(settings(0));
+
+        assertEquals(report.sent(), report.answered());
+        assertEquals(0, report.failed());
+        assertTrue(report.messages() <= 3L * report.answered(), "höchstens eine Antwort und zwei Bearbeitungen pro Interaktion");
+        assertTrue(report.upstreamRequests() > 0);
+        assertTrue(LoadReport.percentile(report.firstReplyMillis(), 50) > 0);
+    }
+
+    @Test
+    void reportsInjectedUpstreamErrorsAsFailedCommands() throws InterruptedException {
+        LoadReport report = LoadTest.run(settings(1));
+
+        assertEquals(report.sent(), report.answered());
+        assertEquals(report.sent(), report.failed());
+    }
+
+    private static LoadTest.Settings settings(double errorRate) {
+        return new LoadTest.Settings(20, 1, Map.of("iss", 1, "picture", 1), 5, 0, errorRate, Set.of(), 1, 10, 2);
+    }
+}
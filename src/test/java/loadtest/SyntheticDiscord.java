@@ -0,0 +1,261 @@
+package loadtest;
+
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.interactions.InteractionHook;
+import net.dv8tion.jda.api.interactions.commands.SlashCommandInteraction;
+import net.dv8tion.jda.api.utils.messages.MessageData;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Erzeugt Slash-Command-Events ohne Gateway-Verbindung.
+ * Interaktion, Hook und RestActions sind dynamische Proxies, die Antworten nach einer simulierten
+ * Discord-Latenz bestätigen und dabei in einem {@link CommandTrace} mitschreiben.
+ * Callbacks laufen wie bei JDA im {@link ForkJoinPool#commonPool()}.
+ */
+final class SyntheticDiscord {
+
+    private final ScheduledExecutorService scheduler;
+    private final long discordLatencyMillis;
+    private final Executor callbackPool = ForkJoinPool.commonPool();
+
+    /**
+     * Erstellt die Simulation.
+     *
+     * @param scheduler Scheduler für verzögerte REST-Bestätigungen
+     * @param discordLatencyMillis simulierte Antwortzeit der Discord-REST-API
+     */
+    SyntheticDiscord(ScheduledExecutorService scheduler, long discordLatencyMillis) {
+        this.scheduler = scheduler;
+        this.discordLatencyMillis = discordLatencyMillis;
+    }
+
+    /**
+     * Baut ein Slash-Command-Event, dessen Antworten im übergebenen Trace landen.
+     *
+     * @param trace Messpunkt der Interaktion
+     * @param userId synthetische Nutzer-ID
+     * @param guildId synthetische Server-ID
+     * @return Event, das direkt an einen {@code ListenerAdapter} übergeben werden kann
+     */
+    SlashCommandInteractionEvent slashCommand(CommandTrace trace, long userId, long guildId) {
+        Interaction interaction = new Interaction(trace, userId, guildId);
+        return new SlashCommandInteractionEvent(null, trace.id(), interaction.proxy);
+    }
+
+    /**
+     * Zustand einer synthetischen Interaktion samt zugehörigem Hook.
+     */
+    private final class Interaction {
+
+        private final CommandTrace trace;
+        private final long userId;
+        private final long guildId;
+        private final SlashCommandInteraction proxy;
+        private final InteractionHook hook;
+        private final Message message;
+
+        private Interaction(CommandTrace trace, long userId, long guildId) {
+            this.trace = trace;
+            this.userId = userId;
+            this.guildId = guildId;
+            this.message = entity(Message.class, trace.id());
+            this.proxy = proxy(SlashCommandInteraction.class, this::interaction);
+            this.hook = proxy(InteractionHook.class, this::hook);
+        }
+
+        private Object interaction(Object self, Method method, Object[] args) {
+            String name = method.getName();
+            return switch (name) {
+                case "getName", "getFullCommandName" -> trace.command();
+                case "getIdLong", "getCommandIdLong" -> trace.id();
+                case "getId", "getCommandId" -> Long.toString(trace.id());
+                case "getHook" -> hook;
+                case "getUser" -> entity(User.class, userId);
+                case "getGuild" -> entity(Guild.class, guildId);
+                case "isFromGuild" -> true;
+                case "deferReply" -> action(method.getReturnType(), hook, null);
+                default -> {
+                    if (name.startsWith("reply")) {
+                        yield action(method.getReturnType(), message, describe(args));
+                    }
+                    yield fallback(self, method);
+                }
+            };
+        }
+
+        private Object hook(Object self, Method method, Object[] args) {
+            String name = method.getName();
+            if (name.startsWith("send") || name.startsWith("edit")) {
+                return action(method.getReturnType(), message, describe(args));
+            }
+            return switch (name) {
+                case "getInteraction" -> proxy;
+                case "isExpired" -> false;
+                case "retrieveOriginal" -> action(method.getReturnType(), message, null);
+                default -> fallback(self, method);
+            };
+        }
+
+        /**
+         * Erzeugt eine RestAction, die nach der simulierten Latenz mit {@code result} abschließt.
+         *
+         * @param type Rückgabetyp der aufgerufenen Methode
+         * @param result Ergebnis der Aktion
+         * @param content Inhalt der Antwort oder {@code null}, wenn die Aktion keine Antwort ist
+         * @return RestAction-Proxy
+         */
+        private Object action(Class<?> type, Object result, String content) {
+            StringBuilder body = content == null ? null : new StringBuilder(content);
+            return proxy(type, (self, method, args) -> switch (method.getName()) {
+                case "queue" -> {
+                    Consumer<Object> success = consumer(args, 0);
+                    Consumer<Throwable> failure = consumer(args, 1);
+                    acknowledge(body).whenCompleteAsync((ignored, error) -> {
+                        if (error != null) {
+                            if (failure != null) failure.accept(error);
+                        } else if (success != null) {
+                            success.accept(result);
+                        }
+                    }, callbackPool);
+                    yield null;
+                }
+                case "submit" -> acknowledge(body).thenApplyAsync(ignored -> result, callbackPool);
+                case "complete" -> {
+                    acknowledge(body).join();
+                    yield result;
+                }
+                default -> {
+                    if (body != null && args != null) {
+                        body.append(describe(args));
+                    }
+                    yield fallback(self, method);
+                }
+            });
+        }
+
+        /**
+         * Bestätigt eine Aktion nach der simulierten Discord-Latenz.
+         *
+         * @param body Inhalt der Antwort oder {@code null}
+         * @return Future, das nach der Latenz abschließt
+         */
+        private CompletableFuture<Void> acknowledge(StringBuilder body) {
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            scheduler.schedule(() -> {
+                if (body != null) {
+                    trace.recordReply(body.toString());
+                }
+                done.complete(null);
+            }, discordLatencyMillis, TimeUnit.MILLISECONDS);
+            return done;
+        }
+    }
+
+    /**
+     * Erzeugt einen Entity-Proxy, der nur seine ID kennt.
+     *
+     * @param type Entity-Interface
+     * @param id Snowflake-ID
+     * @return Proxy
+     */
+    private static <T> T entity(Class<T> type, long id) {
+        return proxy(type, (self, method, args) -> switch (method.getName()) {
+            case "getIdLong" -> id;
+            case "getId" -> Long.toString(id);
+            case "getName", "getEffectiveName" -> "synthetic-" + id;
+            default -> fallback(self, method);
+        });
+    }
+
+    /**
+     * Fasst Text- und Embed-Argumente einer Antwort als Text zusammen.
+     *
+     * @param args Methodenargumente
+     * @return Textinhalt
+     */
+    private static String describe(Object[] args) {
+        if (args == null) return "";
+        StringBuilder sb = new StringBuilder();
+        for (Object arg : args) {
+            describe(arg, sb);
+        }
+        return sb.toString();
+    }
+
+    private static void describe(Object arg, StringBuilder sb) {
+        if (arg instanceof CharSequence text) {
+            sb.append(text);
+        } else if (arg instanceof MessageEmbed embed) {
+            sb.append(embed.getTitle() == null ? "" : embed.getTitle())
+                    .append(embed.getDescription() == null ? "" : "\n" + embed.getDescription());
+        } else if (arg instanceof MessageData data) {
+            sb.append(data.getContent());
+            data.getEmbeds().forEach(embed -> describe(embed, sb));
+        } else if (arg instanceof Object[] array) {
+            for (Object element : array) describe(element, sb);
+        } else if (arg instanceof Collection<?> collection) {
+            collection.forEach(element -> describe(element, sb));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Consumer<T> consumer(Object[] args, int index) {
+        return args != null && args.length > index ? (Consumer<T>) args[index] : null;
+    }
+
+    /**
+     * Standardverhalten für nicht simulierte Methoden: Builder-Methoden liefern den Proxy selbst,
+     * alles andere einen neutralen Wert.
+     */
+    private static Object fallback(Object self, Method method) {
+        Class<?> type = method.getReturnType();
+        switch (method.getName()) {
+            case "toString": return method.getDeclaringClass().getSimpleName() + "@synthetic";
+            case "hashCode": return System.identityHashCode(self);
+            case "equals": return false;
+            default: break;
+        }
+        if (type.isInstance(self)) return self;
+        if (type == boolean.class) return false;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == double.class) return 0d;
+        if (type == String.class) return "";
+        if (type == List.class || type == Collection.class) return List.of();
+        if (type == Set.class) return Set.of();
+        if (type == Map.class) return Map.of();
+        if (type == Optional.class) return Optional.empty();
+        return null;
+    }
+
+    /**
+     * Funktionales Gegenstück zu {@link InvocationHandler} ohne checked Exceptions.
+     */
+    private interface Handler {
+        Object invoke(Object self, Method method, Object[] args);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        InvocationHandler invocationHandler = handler::invoke;
+        return (T) Proxy.newProxyInstance(SyntheticDiscord.class.getClassLoader(), new Class<?>[]{type}, invocationHandler);
+    }
+}
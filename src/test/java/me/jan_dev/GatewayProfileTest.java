@@ -0,0 +1,295 @@
+package me.jan_dev;
+
+import gnu.trove.map.hash.TLongObjectHashMap;
+import net.dv8tion.jda.api.JDABuilder;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.Role;
+import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
+import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.dv8tion.jda.api.requests.RestConfig;
+import net.dv8tion.jda.api.utils.ChunkingFilter;
+import net.dv8tion.jda.api.utils.cache.CacheFlag;
+import net.dv8tion.jda.api.utils.data.DataArray;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.utils.config.AuthorizationConfig;
+import net.dv8tion.jda.internal.utils.config.MetaConfig;
+import net.dv8tion.jda.internal.utils.config.SessionConfig;
+import net.dv8tion.jda.internal.utils.config.ThreadingConfig;
+import net.dv8tion.jda.internal.utils.config.flags.ConfigFlag;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.lang.ref.Reference;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GatewayProfileTest {
+
+    private static final Logger log = LoggerFactory.getLogger(GatewayProfileTest.class);
+
+    private static final int GUILDS = 2000;
+    private static final long SELF_ID = 1;
+
+    @Test
+    void interactionsOnlyCachesNoMembersOverridesOrRoleTags() {
+        JDAImpl jda = simulate(GatewayProfile.INTERACTIONS_ONLY, 3);
+
+        assertEquals(3, jda.getGuilds().size());
+        assertEquals(1, jda.getUserCache().size(), "nur der Bot selbst");
+        for (Guild guild : jda.getGuilds()) {
+            assertEquals(20, guild.getTextChannels().size());
+            assertEquals(15, guild.getRoles().size());
+            assertEquals(List.of(SELF_ID), guild.getMembers().stream().map(Member::getIdLong).toList());
+            for (TextChannel channel : guild.getTextChannels()) {
+                assertTrue(channel.getMemberPermissionOverrides().isEmpty());
+                assertEquals(2, channel.getRolePermissionOverrides().size());
+            }
+            assertFalse(botRole(guild).getTags().isBot(), "Rollen-Tags werden nicht gecacht");
+        }
+    }
+
+    @Test
+    void defaultProfileCachesMemberOverridesAndRoleTags() {
+        JDAImpl jda = simulate(GatewayProfile.DEFAULT, 3);
+
+        for (Guild guild : jda.getGuilds()) {
+            assertTrue(guild.getMembers().size() > 1);
+            assertFalse(guild.getTextChannels().get(0).getMemberPermissionOverrides().isEmpty());
+            assertTrue(botRole(guild).getTags().isBot());
+        }
+    }
+
+    /**
+     * Misst den Heap, den die Server-Caches beider Profile nach einer vollständigen GC belegen, gibt ihn aus und
+     * prüft, dass {@code interactions-only} weniger belegt. Die Messung hängt von GC und JVM ab und läuft deshalb nicht
+     * im normalen Testlauf, sondern mit {@code mvn test -Dtest=GatewayProfileTest -Dtest.excludedGroups= -Dgroups=measurement}.
+     */
+    @Test
+    @Tag("measurement")
+    void interactionsOnlyRetainsLessHeapPerGuild() throws InterruptedException {
+        long defaultBytes = retainedBytesPerGuild(GatewayProfile.DEFAULT);
+        long interactionsOnlyBytes = retainedBytesPerGuild(GatewayProfile.INTERACTIONS_ONLY);
+        log.info("Heap pro Server bei {} Servern: default={} B, interactions-only={} B", GUILDS, defaultBytes, interactionsOnlyBytes);
+
+        assertTrue(interactionsOnlyBytes < defaultBytes,
+                "interactions-only=" + interactionsOnlyBytes + " B, default=" + defaultBytes + " B");
+    }
+
+    /**
+     * Vergleicht das Standardprofil mit dem Builder-Aufruf, mit dem der Bot vor den Gateway-Profilen gestartet ist.
+     * Verglichen werden die Einstellungen, die nach {@code build()} wirksam sind: Caches, deren Intent fehlt, schaltet
+     * JDA dabei selbst ab.
+     */
+    @Test
+    void defaultProfileMatchesBaselineBuilder() throws ReflectiveOperationException {
+        JDABuilder baseline = JDABuilder.createDefault("x.y.z", GatewayIntent.GUILD_MESSAGES)
+                .disableCache(CacheFlag.VOICE_STATE, CacheFlag.EMOJI, CacheFlag.STICKER, CacheFlag.SCHEDULED_EVENTS);
+        JDABuilder profile = GatewayProfile.DEFAULT.builder("x.y.z");
+
+        for (String field : List.of("intents", "largeThreshold", "chunkingFilter", "memberCachePolicy")) {
+            assertEquals(field(baseline, field), field(profile, field), field);
+        }
+        assertEquals(effectiveCacheFlags(baseline), effectiveCacheFlags(profile));
+    }
+
+    /**
+     * Liefert die Cache-Flags, die nach {@code build()} aktiv bleiben.
+     */
+    private static EnumSet<CacheFlag> effectiveCacheFlags(JDABuilder builder) throws ReflectiveOperationException {
+        @SuppressWarnings("unchecked")
+        EnumSet<CacheFlag> flags = EnumSet.copyOf((EnumSet<CacheFlag>) field(builder, "cacheFlags"));
+        EnumSet<GatewayIntent> intents = GatewayIntent.getIntents((Integer) field(builder, "intents"));
+        flags.removeIf(flag -> flag.getRequiredIntent() != null && !intents.contains(flag.getRequiredIntent()));
+        return flags;
+    }
+
+    /**
+     * Liest ein geschütztes Feld des Builders, da JDA dafür keine Getter anbietet.
+     */
+    private static Object field(JDABuilder builder, String name) throws ReflectiveOperationException {
+        Field field = JDABuilder.class.getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(builder);
+    }
+
+    /**
+     * Misst den Heap, den die Server-Caches eines Profils nach einer vollständigen GC belegen.
+     */
+    private static long retainedBytesPerGuild(GatewayProfile profile) throws InterruptedException {
+        long before = usedHeapAfterGc();
+        JDAImpl jda = simulate(profile, GUILDS);
+        long after = usedHeapAfterGc();
+        Reference.reachabilityFence(jda);
+        return (after - before) / GUILDS;
+    }
+
+    private static Role botRole(Guild guild) {
+        return guild.getRoleById(guild.getIdLong() * 100 + 1);
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Baut eine JDA-Instanz mit den Cache-Einstellungen des Profils und füllt sie wie nach GUILD_CREATE-Events.
+     * Nutzt bewusst die internen Klassen {@link JDAImpl} und {@code EntityBuilder}, weil JDA keine öffentliche API
+     * zum Befüllen der Caches ohne Gateway bietet. Bei einem JDA-Upgrade kann das brechen und muss dann an die neuen
+     * Konstruktoren angepasst werden.
+     */
+    private static JDAImpl simulate(GatewayProfile profile, int guilds) {
+        EnumSet<GatewayIntent> intents = profile.intents();
+        JDAImpl jda = new JDAImpl(new AuthorizationConfig("x.y.z"),
+                new SessionConfig(null, null, null, null, ConfigFlag.getDefault(), 900, profile.largeThreshold()),
+                new ThreadingConfig(),
+                new MetaConfig(2048, new ConcurrentHashMap<>(), profile.cacheFlags(), ConfigFlag.getDefault()),
+                new RestConfig()) {
+            @Override
+            public boolean isIntent(GatewayIntent intent) {
+                return intents.contains(intent);
+            }
+
+            @Override
+            public EnumSet<GatewayIntent> getGatewayIntents() {
+                return EnumSet.copyOf(intents);
+            }
+        };
+        jda.setMemberCachePolicy(profile.memberCachePolicy());
+        jda.setChunkingFilter(ChunkingFilter.NONE);
+        jda.getEntityBuilder().createSelfUser(user(SELF_ID).put("bot", true).put("verified", true).put("mfa_enabled", false));
+
+        for (int g = 0; g < guilds; g++) {
+            long guildId = 1_000_000L + g;
+            TLongObjectHashMap<DataObject> members = new TLongObjectHashMap<>();
+            for (long userId : new long[] {SELF_ID, guildId * 10, guildId * 10 + 1, guildId * 10 + 2}) {
+                members.put(userId, member(userId));
+            }
+            jda.getEntityBuilder().createGuild(guildId, guild(guildId), members, members.size());
+        }
+        return jda;
+    }
+
+    /**
+     * Typischer kleiner Server: 20 Textkanäle mit Rechten für Rollen und Mitglieder, 15 Rollen, Emojis und Sticker.
+     */
+    private static DataObject guild(long id) {
+        DataArray channels = DataArray.empty();
+        for (int c = 0; c < 20; c++) {
+            DataArray overwrites = DataArray.empty()
+                    .add(overwrite(id, 0))
+                    .add(overwrite(id * 100 + 1, 0))
+                    .add(overwrite(id * 10, 1))
+                    .add(overwrite(id * 10 + 1, 1));
+            channels.add(DataObject.empty()
+                    .put("id", Long.toString(id * 100 + 50 + c))
+                    .put("type", 0)
+                    .put("name", "kanal-" + c)
+                    .put("topic", "Themen rund um Raumfahrt, Teil " + c)
+                    .put("position", c)
+                    .put("permission_overwrites", overwrites));
+        }
+
+        DataArray roles = DataArray.empty();
+        for (int r = 0; r < 15; r++) {
+            DataObject role = DataObject.empty()
+                    .put("id", Long.toString(r == 0 ? id : id * 100 + r))
+                    .put("name", r == 0 ? "@everyone" : "rolle-" + r)
+                    .put("permissions", "104324673")
+                    .put("position", r)
+                    .put("color", 0x3498db)
+                    .put("hoist", false)
+                    .put("managed", r == 1)
+                    .put("mentionable", false);
+            if (r == 1) {
+                role.put("tags", DataObject.empty().put("bot_id", Long.toString(SELF_ID)));
+            }
+            roles.add(role);
+        }
+
+        DataArray emojis = DataArray.empty();
+        for (int e = 0; e < 10; e++) {
+            emojis.add(DataObject.empty()
+                    .put("id", Long.toString(id * 1000 + e))
+                    .put("name", "emoji_" + e)
+                    .put("roles", DataArray.empty())
+                    .put("animated", false)
+                    .put("managed", false)
+                    .put("available", true));
+        }
+
+        DataArray stickers = DataArray.empty();
+        for (int s = 0; s < 3; s++) {
+            stickers.add(DataObject.empty()
+                    .put("id", Long.toString(id * 1000 + 500 + s))
+                    .put("name", "sticker-" + s)
+                    .put("description", "")
+                    .put("tags", "rocket")
+                    .put("type", 2)
+                    .put("format_type", 1)
+                    .put("available", true)
+                    .put("guild_id", Long.toString(id)));
+        }
+
+        return DataObject.empty()
+                .put("id", Long.toString(id))
+                .put("name", "Server " + id)
+                .put("owner_id", Long.toString(id * 10))
+                .put("member_count", 4)
+                .put("channels", channels)
+                .put("roles", roles)
+                .put("emojis", emojis)
+                .put("stickers", stickers)
+                .put("features", DataArray.empty().add("COMMUNITY"))
+                .put("threads", DataArray.empty())
+                .put("voice_states", DataArray.empty())
+                .put("guild_scheduled_events", DataArray.empty())
+                .put("presences", DataArray.empty())
+                .put("afk_timeout", 300)
+                .put("verification_level", 1)
+                .put("default_message_notifications", 1)
+                .put("mfa_level", 0)
+                .put("explicit_content_filter", 2)
+                .put("nsfw_level", 0)
+                .put("premium_tier", 0)
+                .put("preferred_locale", "de")
+                .put("system_channel_flags", 0)
+                .put("large", false);
+    }
+
+    private static DataObject overwrite(long id, int type) {
+        return DataObject.empty()
+                .put("id", Long.toString(id))
+                .put("type", type)
+                .put("allow", "3072")
+                .put("deny", "2048");
+    }
+
+    private static DataObject member(long userId) {
+        return DataObject.empty()
+                .put("user", user(userId))
+                .put("roles", DataArray.empty())
+                .put("joined_at", "2024-01-01T00:00:00.000000+00:00");
+    }
+
+    private static DataObject user(long id) {
+        return DataObject.empty()
+                .put("id", Long.toString(id))
+                .put("username", "user" + id)
+                .put("discriminator", "0000");
+    }
+}
@@ -0,0 +1,524 @@
+package training;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import net.dv8tion.jda.api.utils.data.DataArray;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+
+/**
+ * Lokaler Ersatz für Discord: REST-API (JDK {@code HttpServer}) und Gateway (WebSocket über einen einfachen
+ * {@link ServerSocket}) auf Loopback-Ports. Genug für einen echten JDA-Login mit einem Server und einem Textkanal,
+ * danach lassen sich Slash-Commands und Autovervollständigungen als {@code INTERACTION_CREATE} einspielen.
+ * Antworten des Bots werden nur gezählt. Das Gateway spricht wie Discord {@code zlib-stream}, damit auch der
+ * Dekompressionspfad von JDA durchlaufen wird.
+ */
+public final class StubDiscord implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(StubDiscord.class);
+
+    private static final String WEBSOCKET_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+    private static final String TIMESTAMP = "2024-01-01T00:00:00.000000+00:00";
+    private static final long DISCORD_EPOCH = 1_420_070_400_000L;
+
+    // Snowflake-IDs der simulierten Entitäten; die Anwendung ist zugleich der Bot-Nutzer
+    private static final long APPLICATION_ID = 1_000;
+    private static final long GUILD_ID = 2_000;
+    private static final long CHANNEL_ID = 3_000;
+    private static final long USER_ID = 5_000;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpServer rest;
+    private final ServerSocket gateway;
+    private final AtomicInteger snowflakes = new AtomicInteger();
+    private final AtomicInteger sequence = new AtomicInteger();
+    private final AtomicInteger replies = new AtomicInteger();
+    private final AtomicLong lastRequestNanos = new AtomicLong();
+    private volatile Session session;
+
+    /**
+     * Startet REST-API und Gateway auf freien Loopback-Ports.
+     */
+    public StubDiscord() {
+        try {
+            this.rest = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+            this.gateway = new ServerSocket(0, 0, InetAddress.getLoopbackAddress());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Discord-Stub konnte nicht gestartet werden", e);
+        }
+        rest.setExecutor(executor);
+        rest.createContext("/", this::handleRest);
+        rest.start();
+        executor.execute(this::acceptGateway);
+    }
+
+    /**
+     * Basis-URL der REST-API, passend für {@code discord.api.url}.
+     *
+     * @return URL mit abschließendem Schrägstrich
+     */
+    public String apiUrl() {
+        return "http://" + rest.getAddress().getHostString() + ":" + rest.getAddress().getPort() + "/api/v10/";
+    }
+
+    /**
+     * Adresse des Gateways, passend für {@code discord.gateway.url}.
+     *
+     * @return WebSocket-URL
+     */
+    public String gatewayUrl() {
+        return "ws://" + gateway.getInetAddress().getHostAddress() + ":" + gateway.getLocalPort() + "/";
+    }
+
+    /**
+     * Spielt einen Slash-Command ein, wie ihn ein Nutzer im Textkanal auslöst.
+     *
+     * @param command Command-Name ohne Schrägstrich
+     * @param options Optionen als Name-Wert-Paare, z. B. {@code "satellit", "25544"}
+     */
+    public void slashCommand(String command, String... options) {
+        dispatchInteraction(2, command, options, null);
+    }
+
+    /**
+     * Spielt eine Autovervollständigungs-Anfrage für eine String-Option ein.
+     *
+     * @param command Command-Name ohne Schrägstrich
+     * @param option Name der Option mit Fokus
+     * @param value bisher getippter Text
+     */
+    public void autoComplete(String command, String option, String value) {
+        dispatchInteraction(4, command, new String[] {option, value}, option);
+    }
+
+    /**
+     * Gibt die Anzahl der Antworten, Bearbeitungen und Vorschlagslisten des Bots zurück.
+     *
+     * @return Anzahl REST-Aufrufe auf Interaktionen und Webhooks
+     */
+    public int replies() {
+        return replies.get();
+    }
+
+    /**
+     * Gibt den Zeitpunkt des letzten REST-Aufrufs zurück.
+     *
+     * @return {@link System#nanoTime()} des letzten Aufrufs oder 0
+     */
+    public long lastRequestNanos() {
+        return lastRequestNanos.get();
+    }
+
+    /**
+     * Stoppt REST-API und Gateway sofort.
+     */
+    @Override
+    public void close() {
+        rest.stop(0);
+        try {
+            gateway.close();
+        } catch (IOException e) {
+            log.debug("Gateway-Socket konnte nicht geschlossen werden", e);
+        }
+        executor.shutdownNow();
+    }
+
+    // ---------------------------------------------------------------- REST
+
+    /**
+     * Beantwortet die REST-Aufrufe, die JDA beim Login und beim Antworten auf Interaktionen macht.
+     */
+    private void handleRest(HttpExchange exchange) throws IOException {
+        lastRequestNanos.set(System.nanoTime());
+        try (exchange) {
+            exchange.getRequestBody().readAllBytes();
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath().replaceFirst("^/api/v\\d+/", "");
+
+            String body;
+            int status = 200;
+            if (path.equals("users/@me")) {
+                body = selfUser().toString();
+            } else if (path.startsWith("applications/") && path.endsWith("/commands")) {
+                body = "[]";
+            } else if (path.startsWith("interactions/")) {
+                replies.incrementAndGet();
+                body = null;
+                status = 204;
+            } else if (path.startsWith("webhooks/") || path.startsWith("channels/")) {
+                replies.incrementAndGet();
+                body = method.equals("DELETE") ? null : message().toString();
+                status = body == null ? 204 : 200;
+            } else {
+                log.debug("Discord-Stub kennt {} {} nicht", method, path);
+                body = DataObject.empty().put("message", "Unknown").put("code", 0).toString();
+                status = 404;
+            }
+
+            if (body == null) {
+                exchange.sendResponseHeaders(status, -1);
+                return;
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    // ------------------------------------------------------------- Gateway
+
+    /**
+     * Nimmt Gateway-Verbindungen an; eine neue Verbindung ersetzt die vorige.
+     */
+    private void acceptGateway() {
+        while (!gateway.isClosed()) {
+            try {
+                Socket socket = gateway.accept();
+                executor.execute(() -> serve(socket));
+            } catch (IOException e) {
+                if (!gateway.isClosed()) log.warn("Gateway-Verbindung fehlgeschlagen", e);
+            }
+        }
+    }
+
+    /**
+     * Führt Handshake und Sitzung einer Gateway-Verbindung: HELLO, auf IDENTIFY folgen READY und GUILD_CREATE,
+     * Heartbeats werden bestätigt.
+     */
+    private void serve(Socket socket) {
+        try (socket) {
+            InputStream in = socket.getInputStream();
+            OutputStream out = socket.getOutputStream();
+            handshake(in, out);
+
+            Session current = new Session(out);
+            session = current;
+            current.send(DataObject.empty().put("op", 10).put("d", DataObject.empty().put("heartbeat_interval", 41_250)));
+
+            DataInputStream frames = new DataInputStream(in);
+            String payload;
+            while ((payload = readText(frames, current)) != null) {
+                DataObject message = DataObject.fromJson(payload);
+                switch (message.getInt("op")) {
+                    case 1 -> current.send(DataObject.empty().put("op", 11));
+                    case 2 -> {
+                        current.dispatch("READY", ready());
+                        current.dispatch("GUILD_CREATE", guild());
+                    }
+                    default -> log.debug("Discord-Stub ignoriert Gateway-Opcode {}", message.getInt("op"));
+                }
+            }
+        } catch (IOException e) {
+            log.debug("Gateway-Verbindung beendet: {}", e.toString());
+        }
+    }
+
+    /**
+     * Beantwortet den HTTP-Upgrade-Request des WebSocket-Clients.
+     */
+    private static void handshake(InputStream in, OutputStream out) throws IOException {
+        String key = null;
+        String line;
+        while (!(line = readLine(in)).isEmpty()) {
+            int colon = line.indexOf(':');
+            if (colon > 0 && line.substring(0, colon).trim().equalsIgnoreCase("Sec-WebSocket-Key")) {
+                key = line.substring(colon + 1).trim();
+            }
+        }
+        if (key == null) {
+            throw new IOException("Kein WebSocket-Handshake");
+        }
+
+        String accept;
+        try {
+            accept = Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-1")
+                    .digest((key + WEBSOCKET_GUID).getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        out.write(("HTTP/1.1 101 Switching Protocols\r\n"
+                + "Upgrade: websocket\r\n"
+                + "Connection: Upgrade\r\n"
+                + "Sec-WebSocket-Accept: " + accept + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != -1 && c != '\n') {
+            if (c != '\r') line.append((char) c);
+        }
+        if (c == -1 && line.isEmpty()) {
+            throw new IOException("Verbindung während des Handshakes geschlossen");
+        }
+        return line.toString();
+    }
+
+    /**
+     * Liest den nächsten Text-Frame des Clients. Pings werden beantwortet, ein Close-Frame beendet die Sitzung.
+     *
+     * @return Nachricht oder {@code null} nach Close-Frame bzw. Verbindungsende
+     */
+    private static String readText(DataInputStream in, Session session) throws IOException {
+        ByteArrayOutputStream message = new ByteArrayOutputStream();
+        while (true) {
+            int first = in.read();
+            if (first == -1) return null;
+            int second = in.readUnsignedByte();
+            int opcode = first & 0x0F;
+            long length = second & 0x7F;
+            if (length == 126) length = in.readUnsignedShort();
+            else if (length == 127) length = in.readLong();
+
+            byte[] mask = new byte[4];
+            if ((second & 0x80) != 0) in.readFully(mask);
+            byte[] payload = new byte[(int) length];
+            in.readFully(payload);
+            for (int i = 0; i < payload.length; i++) {
+                payload[i] ^= mask[i & 3];
+            }
+
+            switch (opcode) {
+                case 0x8 -> {
+                    return null;
+                }
+                case 0x9 -> session.frame(0xA, payload);
+                case 0xA -> { }
+                default -> message.write(payload);
+            }
+            if ((first & 0x80) != 0 && opcode != 0x9 && opcode != 0xA) {
+                return message.toString(StandardCharsets.UTF_8);
+            }
+        }
+    }
+
+    /**
+     * Schickt eine Interaktion über die aktuelle Gateway-Sitzung.
+     */
+    private void dispatchInteraction(int type, String command, String[] options, String focused) {
+        Session current = session;
+        if (current == null) {
+            throw new IllegalStateException("Keine Gateway-Sitzung");
+        }
+
+        DataArray optionData = DataArray.empty();
+        for (int i = 0; i + 1 < options.length; i += 2) {
+            DataObject option = DataObject.empty().put("name", options[i]).put("type", 3).put("value", options[i + 1]);
+            if (options[i].equals(focused)) option.put("focused", true);
+            optionData.add(option);
+        }
+
+        long id = snowflake();
+        current.dispatch("INTERACTION_CREATE", DataObject.empty()
+                .put("id", Long.toString(id))
+                .put("application_id", Long.toString(APPLICATION_ID))
+                .put("type", type)
+                .put("data", DataObject.empty()
+                        .put("id", Long.toString(4_000 + (command.hashCode() & 0xFFF)))
+                        .put("name", command)
+                        .put("type", 1)
+                        .put("options", optionData))
+                .put("guild_id", Long.toString(GUILD_ID))
+                .put("channel_id", Long.toString(CHANNEL_ID))
+                .put("channel", textChannel().put("guild_id", Long.toString(GUILD_ID)))
+                .put("member", member(user(USER_ID, "astronaut")).put("permissions", "2147483647"))
+                .put("token", "training-" + id)
+                .put("version", 1)
+                .put("app_permissions", "2147483647")
+                .put("locale", "de")
+                .put("guild_locale", "de")
+                .put("entitlements", DataArray.empty())
+                .put("authorizing_integration_owners", DataObject.empty().put("0", Long.toString(GUILD_ID)))
+                .put("context", 0));
+    }
+
+    // ------------------------------------------------------------ Entitäten
+
+    private DataObject ready() {
+        return DataObject.empty()
+                .put("v", 10)
+                .put("user", selfUser())
+                .put("guilds", DataArray.empty().add(DataObject.empty()
+                        .put("id", Long.toString(GUILD_ID)).put("unavailable", true)))
+                .put("session_id", "training")
+                .put("resume_gateway_url", gatewayUrl())
+                .put("shard", DataArray.empty().add(0).add(1))
+                .put("application", DataObject.empty().put("id", Long.toString(APPLICATION_ID)).put("flags", 0))
+                .put("private_channels", DataArray.empty())
+                .put("presences", DataArray.empty());
+    }
+
+    private static DataObject guild() {
+        return DataObject.empty()
+                .put("id", Long.toString(GUILD_ID))
+                .put("name", "Trainingsserver")
+                .put("owner_id", Long.toString(USER_ID))
+                .put("member_count", 2)
+                .put("channels", DataArray.empty().add(textChannel()))
+                .put("roles", DataArray.empty().add(DataObject.empty()
+                        .put("id", Long.toString(GUILD_ID))
+                        .put("name", "@everyone")
+                        .put("permissions", "2147483647")
+                        .put("position", 0)
+                        .put("color", 0)
+                        .put("hoist", false)
+                        .put("managed", false)
+                        .put("mentionable", false)))
+                .put("members", DataArray.empty().add(member(selfUser())))
+                .put("emojis", DataArray.empty())
+                .put("stickers", DataArray.empty())
+                .put("features", DataArray.empty())
+                .put("threads", DataArray.empty())
+                .put("voice_states", DataArray.empty())
+                .put("guild_scheduled_events", DataArray.empty())
+                .put("presences", DataArray.empty())
+                .put("afk_timeout", 300)
+                .put("verification_level", 0)
+                .put("default_message_notifications", 0)
+                .put("mfa_level", 0)
+                .put("explicit_content_filter", 0)
+                .put("nsfw_level", 0)
+                .put("premium_tier", 0)
+                .put("preferred_locale", "de")
+                .put("system_channel_flags", 0)
+                .put("joined_at", TIMESTAMP)
+                .put("large", false)
+                .put("unavailable", false);
+    }
+
+    private static DataObject textChannel() {
+        return DataObject.empty()
+                .put("id", Long.toString(CHANNEL_ID))
+                .put("type", 0)
+                .put("name", "weltraum")
+                .put("position", 0)
+                .put("permission_overwrites", DataArray.empty());
+    }
+
+    private DataObject message() {
+        return DataObject.empty()
+                .put("id", Long.toString(snowflake()))
+                .put("type", 0)
+                .put("channel_id", Long.toString(CHANNEL_ID))
+                .put("author", selfUser())
+                .put("content", "")
+                .put("timestamp", TIMESTAMP)
+                .put("tts", false)
+                .put("mention_everyone", false)
+                .put("mentions", DataArray.empty())
+                .put("mention_roles", DataArray.empty())
+                .put("attachments", DataArray.empty())
+                .put("embeds", DataArray.empty())
+                .put("pinned", false)
+                .put("flags", 0)
+                .put("webhook_id", Long.toString(APPLICATION_ID))
+                .put("application_id", Long.toString(APPLICATION_ID));
+    }
+
+    /**
+     * Erzeugt eine Snowflake mit aktuellem Zeitstempel; JDA verwirft Interaktionen, deren ID älter als 15 Minuten ist.
+     */
+    private long snowflake() {
+        return (System.currentTimeMillis() - DISCORD_EPOCH) << 22 | (snowflakes.incrementAndGet() & 0xFFF);
+    }
+
+    private static DataObject selfUser() {
+        return user(APPLICATION_ID, "SpaceLinker").put("bot", true).put("verified", true).put("mfa_enabled", false);
+    }
+
+    private static DataObject user(long id, String name) {
+        return DataObject.empty()
+                .put("id", Long.toString(id))
+                .put("username", name)
+                .put("discriminator", "0000");
+    }
+
+    private static DataObject member(DataObject user) {
+        return DataObject.empty()
+                .put("user", user)
+                .put("roles", DataArray.empty())
+                .put("joined_at", TIMESTAMP);
+    }
+
+    /**
+     * Schreibseite einer Gateway-Verbindung mit gemeinsamem {@code zlib-stream}-Kontext.
+     */
+    private final class Session {
+
+        private final OutputStream out;
+        private final Deflater deflater = new Deflater();
+        private final byte[] buffer = new byte[8192];
+
+        private Session(OutputStream out) {
+            this.out = out;
+        }
+
+        void dispatch(String type, DataObject data) {
+            send(DataObject.empty().put("op", 0).put("t", type).put("s", sequence.incrementAndGet()).put("d", data));
+        }
+
+        /**
+         * Komprimiert eine Nachricht im laufenden zlib-Kontext und schickt sie als Binär-Frame.
+         * Der Sync-Flush endet wie bei Discord mit {@code 00 00 FF FF}.
+         */
+        synchronized void send(DataObject payload) {
+            deflater.setInput(payload.toString().getBytes(StandardCharsets.UTF_8));
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            int length;
+            do {
+                length = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                compressed.write(buffer, 0, length);
+            } while (length == buffer.length);
+            try {
+                frame(0x2, compressed.toByteArray());
+            } catch (IOException e) {
+                log.debug("Gateway-Nachricht konnte nicht gesendet werden: {}", e.toString());
+            }
+        }
+
+        synchronized void frame(int opcode, byte[] payload) throws IOException {
+            ByteArrayOutputStream header = new ByteArrayOutputStream(10);
+            header.write(0x80 | opcode);
+            if (payload.length < 126) {
+                header.write(payload.length);
+            } else if (payload.length <= 0xFFFF) {
+                header.write(126);
+                header.write(payload.length >>> 8);
+                header.write(payload.length);
+            } else {
+                header.write(127);
+                for (int shift = 56; shift >= 0; shift -= 8) {
+                    header.write((int) ((long) payload.length >>> shift));
+                }
+            }
+            out.write(header.toByteArray());
+            out.write(payload);
+            out.flush();
+        }
+    }
+}
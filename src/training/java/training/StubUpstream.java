@@ -0,0 +1,180 @@
+package training;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import data.Http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lokaler Stub-Server für genau einen Upstream-Host.
+ * Liefert aufgezeichnete Antworten aus {@code src/training/resources/training} mit einstellbarer Latenz und Fehlerquote aus.
+ * Wird vom Lasttest und vom Trainingslauf für das AppCDS-Archiv ({@link TrainingRun}) genutzt.
+ */
+public final class StubUpstream implements AutoCloseable {
+
+    private static final byte[] ERROR_BODY = "{\"error\":\"injected by load test\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final String host;
+    private final Map<String, byte[]> responses;
+    private final long latencyMillis;
+    private final long jitterMillis;
+    private final double errorRate;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder injectedErrors = new LongAdder();
+    private final HttpServer server;
+
+    /**
+     * Startet einen Stub-Server auf einem freien Loopback-Port.
+     *
+     * @param host Hostname des echten Upstreams, der ersetzt wird
+     * @param responses Pfad-Präfix → Ressourcenname der aufgezeichneten Antwort
+     * @param latencyMillis feste künstliche Antwortzeit
+     * @param jitterMillis zusätzliche zufällige Antwortzeit zwischen 0 und diesem Wert
+     * @param errorRate Anteil der Anfragen, die mit HTTP 503 beantwortet werden (0..1)
+     */
+    public StubUpstream(String host, Map<String, String> responses, long latencyMillis, long jitterMillis, double errorRate) {
+        this.host = host;
+        this.responses = new LinkedHashMap<>();
+        responses.forEach((prefix, resource) -> this.responses.put(prefix, readResource(resource)));
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+        this.errorRate = errorRate;
+
+        try {
+            this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Stub-Server für " + host + " konnte nicht gestartet werden", e);
+        }
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    /**
+     * Leitet alle Aufrufe über {@link Http} an diesen Stub-Server um.
+     */
+    public void routeHttp() {
+        Http.route(host, URI.create("http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/"));
+    }
+
+    /**
+     * Beantwortet eine Anfrage mit der passenden Aufzeichnung, verzögert und ggf. als injizierter Fehler.
+     *
+     * @param exchange laufende HTTP-Anfrage
+     * @throws IOException falls die Antwort nicht geschrieben werden kann
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.increment();
+        try (exchange) {
+            sleep(latencyMillis + (jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis + 1) : 0));
+
+            byte[] body = lookup(exchange.getRequestURI().getPath());
+            int status = 200;
+            if (body == null) {
+                body = ERROR_BODY;
+                status = 404;
+            } else if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                injectedErrors.increment();
+                body = ERROR_BODY;
+                status = 503;
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    /**
+     * Sucht die Aufzeichnung mit dem passenden Pfad-Präfix.
+     *
+     * @param path angefragter Pfad
+     * @return Antwort-Body oder {@code null}
+     */
+    private byte[] lookup(String path) {
+        for (Map.Entry<String, byte[]> entry : responses.entrySet()) {
+            if (path.startsWith(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Lädt eine aufgezeichnete Antwort aus den Test-Ressourcen.
+     *
+     * @param resource Dateiname unterhalb von {@code training/}
+     * @return Inhalt der Datei
+     */
+    private static byte[] readResource(String resource) {
+        try (InputStream input = StubUpstream.class.getResourceAsStream("/training/" + resource)) {
+            if (input == null) {
+                throw new IllegalArgumentException("Aufzeichnung nicht gefunden: " + resource);
+            }
+            return input.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Wartet die künstliche Latenz ab, ohne Unterbrechungen zu verschlucken.
+     *
+     * @param millis Wartezeit
+     */
+    private static void sleep(long millis) {
+        if (millis <= 0) return;
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Gibt den ersetzten Hostnamen zurück.
+     *
+     * @return Hostname
+     */
+    public String host() { return host; }
+
+    /**
+     * Gibt die Anzahl empfangener Anfragen zurück.
+     *
+     * @return Anfragen seit Start
+     */
+    public long requests() { return requests.sum(); }
+
+    /**
+     * Gibt die Anzahl absichtlich fehlgeschlagener Anfragen zurück.
+     *
+     * @return injizierte Fehler seit Start
+     */
+    public long injectedErrors() { return injectedErrors.sum(); }
+
+    /**
+     * Stoppt den Server sofort.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,167 @@
+package training;
+
+import me.jan_dev.DiscordBot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Offline-Trainingsstart für das AppCDS-Archiv. Startet Stub-Upstreams und einen Discord-Stub, lässt
+ * {@link DiscordBot#main(String[])} unverändert dagegen laufen und spielt danach jeden Slash-Command und die
+ * Autovervollständigung ein, damit alle Klassen geladen werden, die der Bot im Betrieb braucht. Beim Beenden
+ * schreibt die JVM mit {@code -XX:ArchiveClassesAtExit} das dynamische Archiv.
+ *
+ * <p>Start: {@code mvn -Pappcds package}, siehe README.</p>
+ */
+public final class TrainingRun {
+
+    private static final Logger log = LoggerFactory.getLogger(TrainingRun.class);
+
+    private static final long QUIET_MILLIS = 1000;
+    private static final long TIMEOUT_SECONDS = 30;
+
+    /**
+     * Verhindert Instanziierung der Utility-Klasse.
+     */
+    private TrainingRun() {}
+
+    /**
+     * Führt den Trainingsstart durch und beendet die JVM.
+     *
+     * @param args ungenutzt
+     * @throws IOException falls Arbeitsverzeichnis oder Konfiguration nicht geschrieben werden können
+     * @throws InterruptedException falls der Lauf unterbrochen wird
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        long mainMillis = System.currentTimeMillis();
+
+        Path workDir = Files.createTempDirectory("spacelinker-training");
+        List<StubUpstream> stubs = startStubs();
+        StubDiscord discord = new StubDiscord();
+
+        // Muss vor dem ersten Zugriff auf data.Config gesetzt sein
+        System.setProperty("spacelinker.config.path", writeConfig(workDir, discord).toString());
+        stubs.forEach(StubUpstream::routeHttp);
+
+        DiscordBot.main(new String[0]);
+        long readyMillis = System.currentTimeMillis();
+
+        int sent = 0;
+        for (String[] command : List.of(
+                new String[] {"iss"},
+                new String[] {"picture"},
+                new String[] {"pictureinfo"},
+                new String[] {"sat", "satellit", "25544"},
+                new String[] {"help"})) {
+            discord.slashCommand(command[0], Arrays.copyOfRange(command, 1, command.length));
+            sent++;
+        }
+        discord.autoComplete("sat", "satellit", "");
+        discord.autoComplete("sat", "satellit", "hub");
+        sent += 2;
+        awaitQuiet(discord, sent);
+
+        // Zweite Runde: APOD mit verkleinertem Bild aus dem Cache, ISS aus dem Warm-Cache, danach greift die Drosselung
+        discord.slashCommand("picture");
+        discord.slashCommand("iss");
+        discord.slashCommand("sat", "satellit", "hubble");
+        sent += 3;
+        awaitQuiet(discord, sent);
+
+        long jvmStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+        log.info("Trainingslauf fertig: main nach {} ms, bereit nach {} ms, {} Interaktionen mit {} Antworten, {} Upstream-Anfragen",
+                mainMillis - jvmStartMillis, readyMillis - jvmStartMillis, sent, discord.replies(),
+                stubs.stream().mapToLong(StubUpstream::requests).sum());
+
+        // Stubs bleiben bis zum Ende offen, sonst versucht JDA vor dem Beenden noch einen Reconnect
+        deleteRecursively(workDir);
+        System.exit(0);
+    }
+
+    /**
+     * Löscht das Arbeitsverzeichnis samt Inhalt. Dateien, die noch offen sind oder sich nicht löschen lassen, werden
+     * nur protokolliert, damit der Lauf trotzdem das Archiv schreibt.
+     */
+    private static void deleteRecursively(Path dir) {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    log.warn("Konnte {} nicht löschen: {}", path, e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Konnte Arbeitsverzeichnis {} nicht aufräumen: {}", dir, e.getMessage());
+        }
+    }
+
+    /**
+     * Startet je einen Stub-Server pro Upstream-Host ohne künstliche Latenz und ohne Fehler.
+     */
+    private static List<StubUpstream> startStubs() {
+        Map<String, Map<String, String>> upstreams = new LinkedHashMap<>();
+        upstreams.put("api.open-notify.org", Map.of("/iss-now.json", "iss-now.json"));
+        upstreams.put("api.wheretheiss.at", Map.of(
+                "/v1/satellites/", "wheretheiss-satellite.json",
+                "/v1/coordinates/", "wheretheiss-coordinates.json"));
+        upstreams.put("nominatim.openstreetmap.org", Map.of("/reverse", "nominatim-reverse.json"));
+        upstreams.put("api.geonames.org", Map.of("/extendedFindNearbyJSON", "geonames-nearby.json"));
+        upstreams.put("api.nasa.gov", Map.of("/planetary/apod", "apod.json"));
+        upstreams.put("apod.nasa.gov", Map.of("/apod/image/", "apod.jpg"));
+        upstreams.put("celestrak.org", Map.of("/NORAD/elements/gp.php", "celestrak-active.txt"));
+
+        List<StubUpstream> stubs = new ArrayList<>();
+        upstreams.forEach((host, responses) -> stubs.add(new StubUpstream(host, responses, 0, 0, 0)));
+        return stubs;
+    }
+
+    /**
+     * Schreibt eine Konfiguration, die alle Dateien im Arbeitsverzeichnis ablegt und Discord auf den Stub lenkt.
+     *
+     * @return Pfad der Konfigurationsdatei
+     */
+    private static Path writeConfig(Path workDir, StubDiscord discord) throws IOException {
+        Path config = workDir.resolve("config.properties");
+        Files.writeString(config, String.join("\n",
+                "botToken=training",
+                "apiKeyNasa=training",
+                "username=training",
+                "discord.api.url=" + discord.apiUrl(),
+                "discord.gateway.url=" + discord.gatewayUrl(),
+                "cache.persist=false",
+                "subscriptions.path=" + workDir.resolve("subscriptions.txt").toString().replace('\\', '/'),
+                "sat.tle.path=" + workDir.resolve("tle.txt").toString().replace('\\', '/'),
+                "apod.media.dir=" + workDir.resolve("media").toString().replace('\\', '/'),
+                ""));
+        return config;
+    }
+
+    /**
+     * Wartet, bis jede Interaktion beantwortet ist und seit einer Sekunde kein REST-Aufruf mehr kam, höchstens aber
+     * 30 Sekunden.
+     */
+    private static void awaitQuiet(StubDiscord discord, int interactions) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            if (discord.replies() >= interactions
+                    && System.nanoTime() - discord.lastRequestNanos() > TimeUnit.MILLISECONDS.toNanos(QUIET_MILLIS)) {
+                return;
+            }
+        }
+        log.warn("Nicht alle Interaktionen wurden innerhalb von {} Sekunden beantwortet.", TIMEOUT_SECONDS);
+    }
+}